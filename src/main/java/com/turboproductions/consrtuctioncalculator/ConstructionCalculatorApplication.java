@@ -3,8 +3,10 @@ package com.turboproductions.consrtuctioncalculator;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ConstructionCalculatorApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,153 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+import com.turboproductions.consrtuctioncalculator.models.ids.IdStrategy;
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Application settings bound from the {@code calculator.*} properties. */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "calculator")
+public class CalculatorProperties {
+  private final Repricing repricing = new Repricing();
+  private final Ids ids = new Ids();
+  private final Listing listing = new Listing();
+  private final Cache cache = new Cache();
+  private final Export export = new Export();
+  private final Imports imports = new Imports();
+  private final Uploads uploads = new Uploads();
+  private final Api api = new Api();
+  private final LargeProjects largeProjects = new LargeProjects();
+  private final Optimizer optimizer = new Optimizer();
+  private final SupplierCatalogs supplierCatalogs = new SupplierCatalogs();
+
+  @Getter
+  @Setter
+  public static class Repricing {
+    private RepricingMode mode = RepricingMode.INCREMENTAL;
+  }
+
+  @Getter
+  @Setter
+  public static class Ids {
+    private IdStrategy strategy = IdStrategy.SEQUENTIAL_GUID;
+  }
+
+  @Getter
+  @Setter
+  public static class Listing {
+    private int pageSize = 25;
+  }
+
+  @Getter
+  @Setter
+  public static class Export {
+    /** The number of rows of an Excel export kept in memory before they are flushed. */
+    private int rowWindow = 100;
+  }
+
+  /** Imports that run in the background, see {@code MaterialImportJobService}. */
+  @Getter
+  @Setter
+  public static class Imports {
+    /** The number of imports that run at the same time. */
+    private int workers = 2;
+
+    /** The number of imports that wait for a worker, more are rejected. */
+    private int queueCapacity = 16;
+
+    /** The number of materials saved per transaction. */
+    private int chunkSize = 1_000;
+
+    /** How long the status of a finished import can be read. */
+    private Duration retention = Duration.ofHours(1);
+  }
+
+  @Getter
+  @Setter
+  public static class Uploads {
+    /** Where imported files are spooled to while they are read. */
+    private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+  }
+
+  /** Limits of the JSON pricing API, larger requests are rejected before they are priced. */
+  @Getter
+  @Setter
+  public static class Api {
+    /** The number of calculations a request can price. */
+    private int maxCalculations = 1_000;
+
+    /** The number of rooms of all calculations of a request together. */
+    private int maxRooms = 100_000;
+  }
+
+  /** Calculations with many rooms, see {@code ParallelRoomPricer}. */
+  @Getter
+  @Setter
+  public static class LargeProjects {
+    /** The number of rooms from which a calculation is priced in parallel and saved in chunks. */
+    private int threshold = 1_000;
+
+    /** The number of rooms a calculation can have. */
+    private int maxRooms = 20_000;
+
+    /** The number of rooms saved and detached at a time. */
+    private int chunkSize = 500;
+
+    /** The number of threads pricing the rooms of large calculations, shared by all requests. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  /** The cheapest material search, see {@code MaterialOptimizerService}. */
+  @Getter
+  @Setter
+  public static class Optimizer {
+    /** How long a search runs before it returns the best combinations found so far. */
+    private Duration timeLimit = Duration.ofSeconds(2);
+
+    /** The number of combinations a request can ask for. */
+    private int maxResults = 20;
+
+    /** The number of threads searching, shared by all requests. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  /** Regions of the Hibernate second-level cache. */
+  @Getter
+  @Setter
+  public static class Cache {
+    private final Region materials = new Region(Duration.ofHours(1), 10_000);
+    private final Region users = new Region(Duration.ofMinutes(30), 1_000);
+    private final Region queries = new Region(Duration.ofMinutes(10), 5_000);
+  }
+
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  public static class Region {
+    /** How long an entry is kept after it was written. */
+    private Duration ttl;
+
+    /** The number of entries after which the least used ones are evicted. */
+    private long maxSize;
+  }
+
+  /** Price lists of suppliers used to re-quote calculations, see {@code SupplierCatalogService}. */
+  @Getter
+  @Setter
+  public static class SupplierCatalogs {
+    /** The number of catalogs a user can keep at the same time. */
+    private int maxCatalogs = 20;
+
+    /** The number of materials a catalog can have, catalogs are kept in memory. */
+    private int maxMaterials = 50_000;
+
+    /** The number of threads pricing catalogs, shared by all requests. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+  }
+}
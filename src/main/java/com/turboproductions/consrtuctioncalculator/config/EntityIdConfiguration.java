@@ -0,0 +1,19 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+import com.turboproductions.consrtuctioncalculator.models.ids.EntityIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Configuration;
+
+/** Applies the {@code calculator.ids.strategy} property to the entity constructors. */
+@Configuration
+@RequiredArgsConstructor
+public class EntityIdConfiguration implements InitializingBean {
+  private final CalculatorProperties calculatorProperties;
+
+  @Override
+  public void afterPropertiesSet() {
+    EntityIds.setGenerator(calculatorProperties.getIds().getStrategy().createGenerator());
+  }
+}
@@ -0,0 +1,10 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+/** How a material price change is propagated to the calculations using the material. */
+public enum RepricingMode {
+  /** Loads the affected rooms and applies the price difference to them and their calculations. */
+  INCREMENTAL,
+  /** Recomputes the affected rooms and calculations with bulk UPDATE statements in the database. */
+  SQL
+}
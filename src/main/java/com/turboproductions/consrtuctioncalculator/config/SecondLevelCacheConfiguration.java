@@ -0,0 +1,84 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Backs the Hibernate second-level cache with Caffeine. Materials and users are read on nearly
+ * every request and change rarely, so their entities and the queries listing them are cached.
+ * Writes through Hibernate keep the regions up to date, the TTLs only bound how long a change made
+ * outside the application stays invisible.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+  @Bean
+  public CacheManager hibernateCacheManager(CalculatorProperties calculatorProperties) {
+    CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    CacheManager cacheManager = provider.getCacheManager();
+    CalculatorProperties.Cache cache = calculatorProperties.getCache();
+    createCache(cacheManager, Material.CACHE_REGION, bounded(cache.getMaterials()));
+    createCache(cacheManager, User.CACHE_REGION, bounded(cache.getUsers()));
+    createCache(
+        cacheManager,
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        bounded(cache.getQueries()));
+    // Tells whether a cached query result is older than the last write to its tables, an entry
+    // that is evicted too early would let stale query results through.
+    createCache(
+        cacheManager,
+        RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        unbounded());
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager hibernateCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      // A region without a cache above is a mistake, fail instead of creating an unbounded one.
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  private static void createCache(
+      CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> config) {
+    // The caching provider shares its cache manager, it already holds the regions when more than
+    // one application context is started in the same JVM.
+    if (cacheManager.getCache(region) == null) {
+      cacheManager.createCache(region, config);
+    }
+  }
+
+  private static CaffeineConfiguration<Object, Object> bounded(CalculatorProperties.Region region) {
+    CaffeineConfiguration<Object, Object> config = unbounded();
+    config.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+    config.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+    return config;
+  }
+
+  private static CaffeineConfiguration<Object, Object> unbounded() {
+    CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+    // Hibernate stores immutable cache entries, copying them on every read is wasted work.
+    config.setStoreByValue(false);
+    config.setStatisticsEnabled(true);
+    return config;
+  }
+}
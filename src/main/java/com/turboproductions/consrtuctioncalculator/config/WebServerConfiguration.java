@@ -0,0 +1,30 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebServerConfiguration {
+  /** The fields of a room in the calculation form, its areas and materials. */
+  private static final int FIELDS_PER_ROOM = 6;
+
+  /** Leaves room for the name of the calculation and the CSRF token. */
+  private static final int OTHER_FIELDS = 16;
+
+  /**
+   * Tomcat drops the parameters of a form after the first 10,000, which would silently cut a large
+   * calculation short.
+   */
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> parameterCountCustomizer(
+      CalculatorProperties calculatorProperties) {
+    int maxParameterCount =
+        calculatorProperties.getLargeProjects().getMaxRooms() * FIELDS_PER_ROOM + OTHER_FIELDS;
+    return factory ->
+        factory.addConnectorCustomizers(
+            connector -> connector.setMaxParameterCount(maxParameterCount));
+  }
+}
@@ -1,27 +1,33 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.controllers;
 
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
 import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
 import com.turboproductions.consrtuctioncalculator.models.Material;
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.CalculationSort;
 import com.turboproductions.consrtuctioncalculator.models.dto.ConstructionActivityRequest;
 import com.turboproductions.consrtuctioncalculator.models.dto.ConstructionCalculationDto;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationDetailsView;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
 import com.turboproductions.consrtuctioncalculator.services.CalculationService;
 import com.turboproductions.consrtuctioncalculator.services.MaterialService;
-import java.io.ByteArrayInputStream;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -29,15 +35,26 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class CalculationController {
   private final MaterialService materialService;
   private final CalculationService calculationService;
+  private final CalculatorProperties calculatorProperties;
 
   public CalculationController(
-      MaterialService materialService, CalculationService calculationService) {
+      MaterialService materialService,
+      CalculationService calculationService,
+      CalculatorProperties calculatorProperties) {
     this.materialService = materialService;
     this.calculationService = calculationService;
+    this.calculatorProperties = calculatorProperties;
+  }
+
+  /** Binds forms with more rooms than the 256 list elements a binder grows to by default. */
+  @InitBinder("roomsDTO")
+  void initRoomsBinder(WebDataBinder binder) {
+    binder.setAutoGrowCollectionLimit(calculatorProperties.getLargeProjects().getMaxRooms());
   }
 
   @GetMapping("/rooms")
-  public String getSelectRoomsPage() {
+  public String getSelectRoomsPage(Model model) {
+    model.addAttribute("maxRooms", calculatorProperties.getLargeProjects().getMaxRooms());
     return "rooms-number-page";
   }
 
@@ -46,7 +63,7 @@ public class CalculationController {
       @RequestParam("numRooms") int numRooms,
       Model model,
       @AuthenticationPrincipal User authenticatedUser) {
-    if (numRooms <= 0 || numRooms > 100) {
+    if (numRooms <= 0 || numRooms > calculatorProperties.getLargeProjects().getMaxRooms()) {
       return "homepage";
     }
     ConstructionCalculationDto calculationDto =
@@ -54,14 +71,11 @@ public class CalculationController {
     for (int i = 0; i < numRooms; i++) {
       calculationDto.addRoomCalculation(new RoomCalculation());
     }
-    List<Material> availableMaterials = materialService.getAllMaterials(authenticatedUser);
-    if (availableMaterials.size() >= 3) {
-      List<Material> floorMaterials =
-          materialService.filterByType(availableMaterials, MaterialType.FLOOR);
-      List<Material> wallMaterials =
-          materialService.filterByType(availableMaterials, MaterialType.WALL);
-      List<Material> ceilingMaterials =
-          materialService.filterByType(availableMaterials, MaterialType.CEILING);
+    MaterialCatalog catalog = materialService.getCatalog(authenticatedUser);
+    if (catalog.getMaterials().size() >= 3) {
+      List<Material> floorMaterials = catalog.getMaterials(MaterialType.FLOOR);
+      List<Material> wallMaterials = catalog.getMaterials(MaterialType.WALL);
+      List<Material> ceilingMaterials = catalog.getMaterials(MaterialType.CEILING);
       if (floorMaterials.isEmpty() || wallMaterials.isEmpty() || ceilingMaterials.isEmpty()) {
         model.addAttribute("message", "Not enough available materials");
         return "homepage";
@@ -101,37 +115,45 @@ public class CalculationController {
   }
 
   @GetMapping("/export/{id}")
-  public ResponseEntity<InputStreamResource> exportCalculation(
+  public ResponseEntity<StreamingResponseBody> exportCalculation(
       @PathVariable("id") UUID calculationId, @AuthenticationPrincipal User authenticatedUser) {
-    ConstructionCalculation calculation = calculationService.getCalculation(calculationId);
-    ByteArrayInputStream inputStream = calculationService.handleExcelExport(calculation);
+    ConstructionCalculation calculation =
+        calculationService.getCalculationWithRooms(calculationId);
     HttpHeaders headers = new HttpHeaders();
     String headerValue = String.format("attachment; filename=%s.xlsx", calculation.getName());
     headers.add("Content-Disposition", headerValue);
     return ResponseEntity.ok()
         .headers(headers)
         .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-        .body(new InputStreamResource(inputStream));
+        .body(outputStream -> calculationService.writeExcelExport(calculation, outputStream));
   }
 
   @GetMapping("/calculations")
-  public String getCalculations(Model model, @AuthenticationPrincipal User authenticatedUser) {
-    List<ConstructionCalculation> calculations =
-        calculationService.getAllCalculations(authenticatedUser);
-    if (!calculations.isEmpty()) {
-      model.addAttribute("calculations", calculations);
-      return "calculations-page";
+  public String getCalculations(
+      Model model,
+      @AuthenticationPrincipal User authenticatedUser,
+      @RequestParam(value = "after", required = false) UUID after,
+      @RequestParam(value = "sort", defaultValue = "NEWEST") CalculationSort sort,
+      @RequestParam(value = "active", required = false) Boolean active) {
+    PageView<CalculationRowView> calculations =
+        calculationService.getCalculations(authenticatedUser, after, sort, active);
+    if (calculations.isEmpty() && after == null && active == null) {
+      model.addAttribute("message", "You currently have no calculations.");
+      return "homepage";
     }
-    model.addAttribute("message", "You currently have no calculations.");
-    return "homepage";
+    model.addAttribute("calculations", calculations.items());
+    model.addAttribute("sort", sort);
+    model.addAttribute("active", active);
+    model.addAttribute("nextCursor", calculations.nextCursor());
+    return "calculations-page";
   }
 
   @GetMapping("/info/{id}")
   public String getCalculationInfo(Model model, @PathVariable("id") UUID id) {
-    ConstructionCalculation calculation = calculationService.getCalculation(id);
+    CalculationDetailsView calculation = calculationService.getCalculationDetails(id);
     if (calculation != null) {
       model.addAttribute("calculation", calculation);
-      model.addAttribute("rooms", calculation.getRoomCalculations().stream().toList());
+      model.addAttribute("rooms", calculation.rooms());
       return "calculation-details-page";
     }
     model.addAttribute("message", "Invalid Calculation");
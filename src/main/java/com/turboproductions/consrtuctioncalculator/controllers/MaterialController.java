@@ -4,11 +4,17 @@ package com.turboproductions.consrtuctioncalculator.controllers;
 import com.turboproductions.consrtuctioncalculator.models.Material;
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJob;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialFileFormat;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialSort;
+import com.turboproductions.consrtuctioncalculator.models.views.ImportJobView;
+import com.turboproductions.consrtuctioncalculator.models.views.MaterialRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
+import com.turboproductions.consrtuctioncalculator.services.MaterialImportJobService;
 import com.turboproductions.consrtuctioncalculator.services.MaterialService;
-import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,43 +25,72 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Controller
 @RequestMapping("/material")
 public class MaterialController {
   private final MaterialService materialService;
+  private final MaterialImportJobService materialImportJobService;
 
-  public MaterialController(MaterialService materialService) {
+  public MaterialController(
+      MaterialService materialService, MaterialImportJobService materialImportJobService) {
     this.materialService = materialService;
+    this.materialImportJobService = materialImportJobService;
   }
 
   @GetMapping("/import")
-  String getImportPage() {
+  String getImportPage(Model model, @RequestParam(value = "job", required = false) UUID jobId) {
+    model.addAttribute("jobId", jobId);
     return "import-data-page";
   }
 
   @GetMapping("/export")
-  ResponseEntity<InputStreamResource> exportMaterials(
-      @AuthenticationPrincipal User authenticatedUser) {
+  ResponseEntity<StreamingResponseBody> exportMaterials(
+      @AuthenticationPrincipal User authenticatedUser,
+      @RequestParam(value = "format", required = false) MaterialFileFormat format,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    MaterialFileFormat exportFormat = MaterialFileFormat.forExport(format, accept);
     List<Material> materials = materialService.getAllMaterials(authenticatedUser);
-    ByteArrayInputStream inputStream = materialService.handleExcelExport(materials);
     HttpHeaders headers = new HttpHeaders();
-    headers.add("Content-Disposition", "attachment; filename=materials.xlsx");
+    headers.add(
+        "Content-Disposition", "attachment; filename=materials" + exportFormat.getExtension());
     return ResponseEntity.ok()
         .headers(headers)
-        .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-        .body(new InputStreamResource(inputStream));
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+        .body(
+            outputStream -> {
+              if (exportFormat == MaterialFileFormat.CSV) {
+                materialService.writeCsvExport(materials, outputStream);
+              } else {
+                materialService.writeExcelExport(materials, outputStream);
+              }
+            });
   }
 
   @GetMapping("/materials")
-  String getMaterialsPage(Model model, @AuthenticationPrincipal User authenticatedUser) {
-    List<Material> materials = materialService.getAllMaterials(authenticatedUser);
+  String getMaterialsPage(
+      Model model,
+      @AuthenticationPrincipal User authenticatedUser,
+      @RequestParam(value = "after", required = false) UUID after,
+      @RequestParam(value = "sort", defaultValue = "TYPE") MaterialSort sort,
+      @RequestParam(value = "type", required = false) MaterialType type) {
+    PageView<MaterialRowView> materials =
+        materialService.getMaterials(authenticatedUser, after, sort, type);
     if (!materials.isEmpty()) {
-      model.addAttribute("materials", materials);
+      model.addAttribute("materials", materials.items());
     }
+    model.addAttribute("sort", sort);
+    model.addAttribute("type", type);
+    model.addAttribute("materialTypes", MaterialType.values());
+    model.addAttribute("nextCursor", materials.nextCursor());
     return "materials-page";
   }
 
@@ -63,21 +98,49 @@ public class MaterialController {
   String importData(
       RedirectAttributes model,
       MultipartFile excelFile,
+      @RequestParam(value = "mode", defaultValue = "APPEND") ImportMode mode,
+      @RequestParam(value = "async", defaultValue = "false") boolean async,
       @AuthenticationPrincipal User authenticatedUser) {
-    String errMsg = materialService.handleExcelImport(excelFile, authenticatedUser);
+    if (async) {
+      ImportJob job = materialImportJobService.submit(excelFile, authenticatedUser, mode);
+      return "redirect:/material/import?job=" + job.getJobId();
+    }
+    String errMsg = materialService.handleExcelImport(excelFile, authenticatedUser, mode);
     model.addFlashAttribute("message", errMsg == null ? "Import Successful!" : errMsg);
     return "redirect:/home";
   }
 
+  /** Queues the import of the file and returns its job, its status is at the Location header. */
+  @PostMapping("/import/jobs")
+  @ResponseBody
+  ResponseEntity<ImportJobView> submitImportJob(
+      MultipartFile excelFile,
+      @RequestParam(value = "mode", defaultValue = "APPEND") ImportMode mode,
+      @AuthenticationPrincipal User authenticatedUser,
+      UriComponentsBuilder uriBuilder) {
+    ImportJob job = materialImportJobService.submit(excelFile, authenticatedUser, mode);
+    return ResponseEntity.accepted()
+        .location(
+            uriBuilder.path("/material/import/jobs/{id}").buildAndExpand(job.getJobId()).toUri())
+        .body(ImportJobView.of(job));
+  }
+
+  @GetMapping("/import/jobs/{id}")
+  @ResponseBody
+  ResponseEntity<ImportJobView> getImportJob(
+      @PathVariable("id") UUID id, @AuthenticationPrincipal User authenticatedUser) {
+    return ResponseEntity.of(
+        materialImportJobService.getJob(id, authenticatedUser).map(ImportJobView::of));
+  }
+
   @GetMapping("/template")
-  ResponseEntity<InputStreamResource> getTemplate() {
-    ByteArrayInputStream inputStream = materialService.getTemplate();
+  ResponseEntity<StreamingResponseBody> getTemplate() {
     HttpHeaders headers = new HttpHeaders();
     headers.add("Content-Disposition", "attachment; filename=materials.xlsx");
     return ResponseEntity.ok()
         .headers(headers)
         .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-        .body(new InputStreamResource(inputStream));
+        .body(materialService::writeTemplate);
   }
 
   @PostMapping("/delete/{id}")
@@ -85,9 +148,8 @@ public class MaterialController {
       RedirectAttributes model,
       @PathVariable("id") UUID id,
       @AuthenticationPrincipal User authenticatedUser) {
-    materialService.deleteMaterialById(id);
-    List<Material> materials = materialService.getAllMaterials(authenticatedUser);
-    if (!materials.isEmpty()) {
+    materialService.deleteMaterialById(id, authenticatedUser);
+    if (materialService.hasMaterials(authenticatedUser)) {
       model.addFlashAttribute("message", "Material successfully deleted");
       return "redirect:/material/materials";
     } else {
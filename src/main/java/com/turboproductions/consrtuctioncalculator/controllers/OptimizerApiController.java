@@ -0,0 +1,41 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.controllers;
+
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.OptimizationRequest;
+import com.turboproductions.consrtuctioncalculator.models.views.OptimizationView;
+import com.turboproductions.consrtuctioncalculator.services.MaterialOptimizerService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Finds the cheapest material combinations for rooms, authenticated like the {@link
+ * PricingApiController}. A search that reaches {@code calculator.optimizer.time-limit} answers
+ * with the best combinations found so far and {@code "complete": false}.
+ */
+@Controller
+@RequestMapping("/api/optimizer")
+public class OptimizerApiController {
+  private final MaterialOptimizerService materialOptimizerService;
+
+  public OptimizerApiController(MaterialOptimizerService materialOptimizerService) {
+    this.materialOptimizerService = materialOptimizerService;
+  }
+
+  @PostMapping(
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  ResponseEntity<OptimizationView> optimizeMaterials(
+      @AuthenticationPrincipal User authenticatedUser, @RequestBody OptimizationRequest request) {
+    OptimizationView optimization = materialOptimizerService.optimize(request, authenticatedUser);
+    if (optimization.error() != null) {
+      return ResponseEntity.badRequest().body(optimization);
+    }
+    return ResponseEntity.ok(optimization);
+  }
+}
@@ -0,0 +1,82 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.controllers;
+
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.views.RequoteView;
+import com.turboproductions.consrtuctioncalculator.models.views.SupplierCatalogView;
+import com.turboproductions.consrtuctioncalculator.services.SupplierCatalogService;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Imports supplier catalogs and compares what a saved calculation costs with each of them,
+ * authenticated like the {@link PricingApiController}. Catalogs use the material import format.
+ */
+@Controller
+@RequestMapping("/api/catalogs")
+public class SupplierCatalogApiController {
+  private final SupplierCatalogService supplierCatalogService;
+
+  public SupplierCatalogApiController(SupplierCatalogService supplierCatalogService) {
+    this.supplierCatalogService = supplierCatalogService;
+  }
+
+  @PostMapping(
+      consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  ResponseEntity<SupplierCatalogView> importCatalog(
+      @AuthenticationPrincipal User authenticatedUser,
+      MultipartFile excelFile,
+      @RequestParam(value = "name", required = false) String name) {
+    SupplierCatalogView catalog =
+        supplierCatalogService.importCatalog(excelFile, name, authenticatedUser);
+    if (catalog.error() != null) {
+      return ResponseEntity.badRequest().body(catalog);
+    }
+    return ResponseEntity.ok(catalog);
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  List<SupplierCatalogView> getCatalogs(@AuthenticationPrincipal User authenticatedUser) {
+    return supplierCatalogService.getCatalogs(authenticatedUser);
+  }
+
+  @DeleteMapping("/{name}")
+  ResponseEntity<Void> removeCatalog(
+      @AuthenticationPrincipal User authenticatedUser, @PathVariable("name") String name) {
+    if (!supplierCatalogService.removeCatalog(name, authenticatedUser)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.noContent().build();
+  }
+
+  /** Re-quotes the calculation with the named catalogs, or with all of them when none is named. */
+  @GetMapping(value = "/requote/{calculationId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  ResponseEntity<RequoteView> requoteCalculation(
+      @AuthenticationPrincipal User authenticatedUser,
+      @PathVariable("calculationId") UUID calculationId,
+      @RequestParam(value = "catalog", required = false) List<String> catalogs) {
+    RequoteView requote =
+        supplierCatalogService.requote(calculationId, catalogs, authenticatedUser);
+    if (requote == null) {
+      return ResponseEntity.notFound().build();
+    }
+    if (requote.error() != null) {
+      return ResponseEntity.badRequest().body(requote);
+    }
+    return ResponseEntity.ok(requote);
+  }
+}
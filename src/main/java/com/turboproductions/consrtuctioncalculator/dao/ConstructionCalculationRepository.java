@@ -3,11 +3,55 @@ package com.turboproductions.consrtuctioncalculator.dao;
 
 import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.projections.CalculationSummary;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface ConstructionCalculationRepository
     extends JpaRepository<ConstructionCalculation, UUID> {
   List<ConstructionCalculation> findConstructionCalculationsByUserOrderByDate(User user);
+
+  Window<CalculationSummary> findByUser(
+      User user, ScrollPosition position, Sort sort, Limit limit);
+
+  Window<CalculationSummary> findByUserAndActive(
+      User user, boolean active, ScrollPosition position, Sort sort, Limit limit);
+
+  Optional<CalculationSummary> findByCalculationIdAndUser(UUID calculationId, User user);
+
+  @EntityGraph(attributePaths = "roomCalculations")
+  Optional<ConstructionCalculation> findWithRoomsByCalculationId(UUID calculationId);
+
+  @Query(
+      "SELECT c FROM ConstructionCalculation c JOIN FETCH c.roomCalculations WHERE c.active = true AND c.calculationId IN (SELECT r.constructionCalculation.calculationId FROM RoomCalculation r WHERE r.floorMaterialRef.materialId = :materialId OR r.wallMaterialRef.materialId = :materialId OR r.ceilingMaterialRef.materialId = :materialId)")
+  List<ConstructionCalculation> findWithRoomsByMaterialId(@Param("materialId") UUID materialId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_calculation"))
+  @Query(
+      value =
+          "UPDATE c SET c.calculation_price = t.total_price, c.time_of_calculation = :date"
+              + " FROM tb_calculation c JOIN ("
+              + " SELECT r.calculation_id, SUM(CAST(r.room_price AS DECIMAL(19, 2))) AS total_price FROM tb_room r"
+              + " WHERE r.calculation_id IN (SELECT m.calculation_id FROM tb_room m"
+              + " WHERE m.wall_material_id = :materialId OR m.floor_material_id = :materialId OR m.ceiling_material_id = :materialId)"
+              + " GROUP BY r.calculation_id) t ON t.calculation_id = c.calculation_id"
+              + " WHERE c.active = 1",
+      nativeQuery = true)
+  int updateCalculationPricesByMaterialId(
+      @Param("materialId") UUID materialId, @Param("date") LocalDateTime date);
 }
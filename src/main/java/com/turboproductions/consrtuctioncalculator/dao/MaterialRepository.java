@@ -2,11 +2,31 @@
 package com.turboproductions.consrtuctioncalculator.dao;
 
 import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.projections.MaterialOption;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface MaterialRepository extends JpaRepository<Material, UUID> {
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Material> findAllByUserOrderByType(User user);
+
+  Window<MaterialOption> findByUser(User user, ScrollPosition position, Sort sort, Limit limit);
+
+  Window<MaterialOption> findByUserAndType(
+      User user, MaterialType type, ScrollPosition position, Sort sort, Limit limit);
+
+  Optional<MaterialOption> findByMaterialIdAndUser(UUID materialId, User user);
+
+  boolean existsByUser(User user);
 }
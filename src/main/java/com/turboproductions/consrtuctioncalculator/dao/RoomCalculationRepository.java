@@ -2,27 +2,133 @@
 package com.turboproductions.consrtuctioncalculator.dao;
 
 import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RoomCalculationRepository extends JpaRepository<RoomCalculation, UUID> {
+  /**
+   * The price of a surface in SQL, {@code :price} times the area between the two parts rounded
+   * {@code HALF_UP} to two decimals. Both factors keep nine decimals and their product is exact, so
+   * the result is the one of the {@code BigDecimal} pricing engine for any price and area with up
+   * to nine decimals.
+   */
+  String SURFACE_PRICE_OF = "ROUND(CAST(:price AS DECIMAL(18, 9)) * CAST(";
+
+  String SURFACE_PRICE_END = " AS DECIMAL(18, 9)), 2)";
+
+  @Query(
+      "SELECT r FROM RoomCalculation r JOIN FETCH r.constructionCalculation c WHERE r.ceilingMaterialRef.materialId = :materialId AND c.active = true")
+  List<RoomCalculation> findRoomCalculationsByCeilingMaterialId(
+      @Param("materialId") UUID materialId);
+
+  @Query(
+      "SELECT r FROM RoomCalculation r JOIN FETCH r.constructionCalculation c WHERE r.wallMaterialRef.materialId = :materialId AND c.active = true")
+  List<RoomCalculation> findRoomCalculationsByWallMaterialId(@Param("materialId") UUID materialId);
+
+  @Query(
+      "SELECT r FROM RoomCalculation r JOIN FETCH r.constructionCalculation c WHERE r.floorMaterialRef.materialId = :materialId AND c.active = true")
+  List<RoomCalculation> findRoomCalculationsByFloorMaterialId(@Param("materialId") UUID materialId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_room"))
+  @Query(
+      value =
+          "UPDATE r SET r.wall_price = p.surface_price, r.room_price = CAST(p.surface_price AS DECIMAL(19, 2)) + CAST(r.floor_price AS DECIMAL(19, 2)) + CAST(r.ceiling_price AS DECIMAL(19, 2))"
+              + " FROM tb_room r JOIN tb_calculation c ON c.calculation_id = r.calculation_id"
+              + " CROSS APPLY (SELECT "
+              + SURFACE_PRICE_OF
+              + "r.wall_area"
+              + SURFACE_PRICE_END
+              + " AS surface_price) p"
+              + " WHERE r.wall_material_id = :materialId AND c.active = 1",
+      nativeQuery = true)
+  int updateWallPricesByWallMaterialId(
+      @Param("materialId") UUID materialId, @Param("price") double pricePerSqMeter);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_room"))
+  @Query(
+      value =
+          "UPDATE r SET r.floor_price = p.surface_price, r.room_price = CAST(p.surface_price AS DECIMAL(19, 2)) + CAST(r.wall_price AS DECIMAL(19, 2)) + CAST(r.ceiling_price AS DECIMAL(19, 2))"
+              + " FROM tb_room r JOIN tb_calculation c ON c.calculation_id = r.calculation_id"
+              + " CROSS APPLY (SELECT "
+              + SURFACE_PRICE_OF
+              + "r.floor_area"
+              + SURFACE_PRICE_END
+              + " AS surface_price) p"
+              + " WHERE r.floor_material_id = :materialId AND c.active = 1",
+      nativeQuery = true)
+  int updateFloorPricesByFloorMaterialId(
+      @Param("materialId") UUID materialId, @Param("price") double pricePerSqMeter);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_room"))
+  @Query(
+      value =
+          "UPDATE r SET r.ceiling_price = p.surface_price, r.room_price = CAST(p.surface_price AS DECIMAL(19, 2)) + CAST(r.wall_price AS DECIMAL(19, 2)) + CAST(r.floor_price AS DECIMAL(19, 2))"
+              + " FROM tb_room r JOIN tb_calculation c ON c.calculation_id = r.calculation_id"
+              + " CROSS APPLY (SELECT "
+              + SURFACE_PRICE_OF
+              + "r.ceiling_area"
+              + SURFACE_PRICE_END
+              + " AS surface_price) p"
+              + " WHERE r.ceiling_material_id = :materialId AND c.active = 1",
+      nativeQuery = true)
+  int updateCeilingPricesByCeilingMaterialId(
+      @Param("materialId") UUID materialId, @Param("price") double pricePerSqMeter);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.floorMaterial = :name WHERE r.floorMaterialRef.materialId = :materialId")
+  int renameFloorMaterial(@Param("materialId") UUID materialId, @Param("name") String name);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.wallMaterial = :name WHERE r.wallMaterialRef.materialId = :materialId")
+  int renameWallMaterial(@Param("materialId") UUID materialId, @Param("name") String name);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.ceilingMaterial = :name WHERE r.ceilingMaterialRef.materialId = :materialId")
+  int renameCeilingMaterial(@Param("materialId") UUID materialId, @Param("name") String name);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.floorMaterialRef = NULL WHERE r.floorMaterialRef.materialId = :materialId")
+  int clearFloorMaterialRef(@Param("materialId") UUID materialId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.wallMaterialRef = NULL WHERE r.wallMaterialRef.materialId = :materialId")
+  int clearWallMaterialRef(@Param("materialId") UUID materialId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE RoomCalculation r SET r.ceilingMaterialRef = NULL WHERE r.ceilingMaterialRef.materialId = :materialId")
+  int clearCeilingMaterialRef(@Param("materialId") UUID materialId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
   @Query(
-      "SELECT r FROM RoomCalculation r WHERE r.userUUID = :userId AND r.constructionCalculation.active = true AND r.ceilingMaterial =:ceiling")
-  List<RoomCalculation> findRoomCalculationsByUserUUIDAndAndCeilingMaterial(
-      @Param("userId") UUID userId, @Param("ceiling") String ceilingMaterialName);
+      "UPDATE RoomCalculation r SET r.floorMaterialRef = NULL WHERE r.floorMaterialRef.materialId IN :materialIds")
+  int clearFloorMaterialRefs(@Param("materialIds") Collection<UUID> materialIds);
 
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
   @Query(
-      "SELECT r FROM RoomCalculation r WHERE r.userUUID = :userId AND r.constructionCalculation.active = true AND r.wallMaterial =:wall")
-  List<RoomCalculation> findRoomCalculationsByUserUUIDAndAndWallMaterial(
-      @Param("userId") UUID userId, @Param("wall") String wallMaterialName);
+      "UPDATE RoomCalculation r SET r.wallMaterialRef = NULL WHERE r.wallMaterialRef.materialId IN :materialIds")
+  int clearWallMaterialRefs(@Param("materialIds") Collection<UUID> materialIds);
 
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
   @Query(
-      "SELECT r FROM RoomCalculation r WHERE r.userUUID = :userId AND r.constructionCalculation.active = true AND r.ceilingMaterial =:floor")
-  List<RoomCalculation> findRoomCalculationsByUserUUIDAndAndFloorMaterial(
-      @Param("userId") UUID userId, @Param("floor") String floorMaterialName);
+      "UPDATE RoomCalculation r SET r.ceilingMaterialRef = NULL WHERE r.ceilingMaterialRef.materialId IN :materialIds")
+  int clearCeilingMaterialRefs(@Param("materialIds") Collection<UUID> materialIds);
 }
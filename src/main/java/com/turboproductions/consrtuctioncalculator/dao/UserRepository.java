@@ -2,9 +2,13 @@
 package com.turboproductions.consrtuctioncalculator.dao;
 
 import com.turboproductions.consrtuctioncalculator.models.User;
+import jakarta.persistence.QueryHint;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   User findUserByUsername(String username);
 }
@@ -1,8 +1,8 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.models;
 
+import com.turboproductions.consrtuctioncalculator.models.ids.EntityIds;
 import jakarta.persistence.*;
-import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
@@ -12,7 +12,7 @@ import lombok.Setter;
 @Entity
 @Table(name = "tb_calculation")
 @Getter
-public class ConstructionCalculation implements Serializable {
+public class ConstructionCalculation extends PersistableEntity {
   @Id
   @Column(name = "calculation_id")
   private UUID calculationId;
@@ -46,13 +46,18 @@ public class ConstructionCalculation implements Serializable {
   private Set<RoomCalculation> roomCalculations;
 
   @Setter
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id")
   private User user;
 
+  @Override
+  public UUID getId() {
+    return calculationId;
+  }
+
   public ConstructionCalculation() {
     this.date = LocalDateTime.now();
-    this.calculationId = UUID.randomUUID();
+    this.calculationId = EntityIds.nextId();
     this.active = true;
   }
 }
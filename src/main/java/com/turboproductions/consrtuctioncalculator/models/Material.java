@@ -1,18 +1,21 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.models;
 
+import com.turboproductions.consrtuctioncalculator.models.ids.EntityIds;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
-import java.io.Serializable;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -21,7 +24,10 @@ import lombok.Setter;
 @Table(
     name = "tb_material",
     uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "material_name"}))
-public class Material implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Material.CACHE_REGION)
+public class Material extends PersistableEntity {
+  public static final String CACHE_REGION = "materials";
+
   @Id
   @Column(name = "material_id")
   private UUID materialId;
@@ -32,15 +38,20 @@ public class Material implements Serializable {
   @Column(name = "material_type")
   private MaterialType type;
 
-  @Column(name = "material_price_perSqM")
+  @Column(name = "material_price_per_sqm")
   private double pricePerSqMeter;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", nullable = false)
   private User user;
 
+  @Override
+  public UUID getId() {
+    return materialId;
+  }
+
   public Material(String name, MaterialType type, double pricePerSqMeter) {
-    this.materialId = UUID.randomUUID();
+    this.materialId = EntityIds.nextId();
     this.name = name;
     this.pricePerSqMeter = pricePerSqMeter;
     this.type = type;
@@ -0,0 +1,31 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Base class for entities that assign their own id. Spring Data considers an entity with an id to
+ * be already stored and merges it, which costs a SELECT before every INSERT. The entity is instead
+ * new until it has been persisted or loaded.
+ */
+@MappedSuperclass
+public abstract class PersistableEntity implements Persistable<UUID>, Serializable {
+  @Transient private boolean newEntity = true;
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.newEntity = false;
+  }
+}
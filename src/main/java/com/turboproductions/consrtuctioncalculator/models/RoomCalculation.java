@@ -1,6 +1,7 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.models;
 
+import com.turboproductions.consrtuctioncalculator.models.ids.EntityIds;
 import jakarta.persistence.*;
 import java.util.UUID;
 import lombok.Getter;
@@ -8,8 +9,14 @@ import lombok.Setter;
 
 @Entity
 @Getter
-@Table(name = "tb_room")
-public class RoomCalculation {
+@Table(
+    name = "tb_room",
+    indexes = {
+      @Index(name = "ix_room_floor_material", columnList = "floor_material_id"),
+      @Index(name = "ix_room_wall_material", columnList = "wall_material_id"),
+      @Index(name = "ix_room_ceiling_material", columnList = "ceiling_material_id")
+    })
+public class RoomCalculation extends PersistableEntity {
   @Id
   @Column(name = "room_id")
   private UUID roomId;
@@ -66,11 +73,33 @@ public class RoomCalculation {
   @Column(name = "user_id")
   private UUID userUUID;
 
+  // The material name columns keep the name a room was priced with, the references below are
+  // cleared when the material is deleted.
+  @Setter
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "floor_material_id")
+  private Material floorMaterialRef;
+
+  @Setter
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "wall_material_id")
+  private Material wallMaterialRef;
+
+  @Setter
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "ceiling_material_id")
+  private Material ceilingMaterialRef;
+
   @Setter
   @ManyToOne
   @JoinColumn(name = "calculation_id", nullable = false)
   private ConstructionCalculation constructionCalculation;
 
+  @Override
+  public UUID getId() {
+    return roomId;
+  }
+
   public RoomCalculation(
       ConstructionCalculation constructionCalculation,
       String floorMaterial,
@@ -80,7 +109,7 @@ public class RoomCalculation {
       String ceilingMaterial,
       double ceilingSqM) {
     this.constructionCalculation = constructionCalculation;
-    this.roomId = UUID.randomUUID();
+    this.roomId = EntityIds.nextId();
     this.floorMaterial = floorMaterial;
     this.floorSqM = floorSqM;
     this.wallMaterial = wallMaterial;
@@ -90,6 +119,6 @@ public class RoomCalculation {
   }
 
   public RoomCalculation() {
-    this.roomId = UUID.randomUUID();
+    this.roomId = EntityIds.nextId();
   }
 }
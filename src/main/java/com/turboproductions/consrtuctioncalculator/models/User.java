@@ -1,6 +1,7 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.models;
 
+import com.turboproductions.consrtuctioncalculator.models.ids.EntityIds;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,13 +14,18 @@ import java.util.Set;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
 @Table(name = "tb_usr_details")
-public class User implements UserDetails {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+public class User extends PersistableEntity implements UserDetails {
+  public static final String CACHE_REGION = "users";
+
   @Id
   @Getter
   @Setter
@@ -46,7 +52,12 @@ public class User implements UserDetails {
   private Set<ConstructionCalculation> calculations;
 
   public User() {
-    this.userId = UUID.randomUUID();
+    this.userId = EntityIds.nextId();
+  }
+
+  @Override
+  public UUID getId() {
+    return userId;
   }
 
   @Override
@@ -0,0 +1,25 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import com.turboproductions.consrtuctioncalculator.models.projections.CalculationSummary;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/** Orders of the calculations list, both are backed by the (user, time of calculation) index. */
+@Getter
+public enum CalculationSort {
+  NEWEST(Sort.by(Sort.Direction.DESC, "date")),
+  OLDEST(Sort.by(Sort.Direction.ASC, "date"));
+
+  private final Sort sort;
+
+  CalculationSort(Sort sort) {
+    this.sort = sort;
+  }
+
+  /** The keyset of a calculation, the values of the sorted properties and the id. */
+  public Map<String, Object> keysOf(CalculationSummary calculation) {
+    return Map.of("date", calculation.getDate(), "calculationId", calculation.getCalculationId());
+  }
+}
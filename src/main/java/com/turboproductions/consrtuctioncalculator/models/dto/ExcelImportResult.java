@@ -2,11 +2,23 @@
 package com.turboproductions.consrtuctioncalculator.models.dto;
 
 import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 @Getter
-@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class ExcelImportResult {
   private final List<ImportedRow> rows;
+
+  /** Why the file was rejected, {@code null} when all its rows can be imported. */
+  private final String errorMessage;
+
+  public ExcelImportResult(List<ImportedRow> rows) {
+    this(rows, null);
+  }
+
+  public static ExcelImportResult rejected(String errorMessage) {
+    return new ExcelImportResult(List.of(), errorMessage);
+  }
 }
@@ -0,0 +1,62 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * The progress of an import that runs in the background. It is only changed by the worker running
+ * the import and read by the requests polling its status.
+ */
+@Getter
+public final class ImportJob {
+  private final UUID jobId = UUID.randomUUID();
+  private final UUID userId;
+  private final String fileName;
+  private final ImportMode mode;
+  private volatile ImportJobState state = ImportJobState.QUEUED;
+  private volatile int rowsParsed;
+  private volatile int rowsSaved;
+
+  /** Why the import failed, {@code null} while it runs or after it succeeded. */
+  private volatile String error;
+
+  private volatile Instant finishedAt;
+
+  public ImportJob(UUID userId, String fileName, ImportMode mode) {
+    this.userId = userId;
+    this.fileName = fileName;
+    this.mode = mode;
+  }
+
+  public void parsing() {
+    state = ImportJobState.PARSING;
+  }
+
+  public void parsed(int rows) {
+    rowsParsed = rows;
+  }
+
+  public void saving() {
+    state = ImportJobState.SAVING;
+  }
+
+  public void saved(int rows) {
+    rowsSaved = rows;
+  }
+
+  public void done() {
+    finish(ImportJobState.DONE);
+  }
+
+  public void fail(String error) {
+    this.error = error;
+    finish(ImportJobState.FAILED);
+  }
+
+  private void finish(ImportJobState finalState) {
+    finishedAt = Instant.now();
+    state = finalState;
+  }
+}
@@ -0,0 +1,18 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+/** The stages of an import that runs in the background. */
+public enum ImportJobState {
+  /** Waits for a free worker. */
+  QUEUED,
+  /** The file is read and its rows are validated. */
+  PARSING,
+  /** The materials are saved. */
+  SAVING,
+  DONE,
+  FAILED;
+
+  public boolean isFinished() {
+    return this == DONE || this == FAILED;
+  }
+}
@@ -0,0 +1,12 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+/** How the rows of an imported file are applied to the user's materials. */
+public enum ImportMode {
+  /** Inserts every row, a name that already exists fails the whole import. */
+  APPEND,
+  /** Inserts the new names and updates the type and price of the existing ones. */
+  UPSERT,
+  /** Like {@link #UPSERT} and deletes the materials that are missing from the file. */
+  REPLACE
+}
@@ -0,0 +1,53 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import java.util.Locale;
+import lombok.Getter;
+import org.springframework.web.multipart.MultipartFile;
+
+/** Formats materials are imported from and exported to. */
+@Getter
+public enum MaterialFileFormat {
+  XLSX("application/vnd.ms-excel", ".xlsx"),
+  CSV("text/csv", ".csv");
+
+  private final String contentType;
+  private final String extension;
+
+  MaterialFileFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  /**
+   * The format of an imported file. The extension wins over the content type as browsers on Windows
+   * send {@code application/vnd.ms-excel} for CSV files.
+   */
+  public static MaterialFileFormat of(MultipartFile file) {
+    String fileName = file.getOriginalFilename();
+    if (fileName != null) {
+      String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+      if (lowerCaseName.endsWith(CSV.extension)) {
+        return CSV;
+      }
+      if (lowerCaseName.endsWith(".xls") || lowerCaseName.endsWith(XLSX.extension)) {
+        return XLSX;
+      }
+    }
+    String contentType = file.getContentType();
+    return contentType != null && contentType.startsWith(CSV.contentType) ? CSV : XLSX;
+  }
+
+  /**
+   * The format of an export, the requested one or CSV when the client only accepts it.
+   *
+   * @param requested the {@code format} request parameter, may be {@code null}.
+   * @param accept the {@code Accept} header, may be {@code null}.
+   */
+  public static MaterialFileFormat forExport(MaterialFileFormat requested, String accept) {
+    if (requested != null) {
+      return requested;
+    }
+    return accept != null && accept.startsWith(CSV.contentType) ? CSV : XLSX;
+  }
+}
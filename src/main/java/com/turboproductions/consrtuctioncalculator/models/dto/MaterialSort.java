@@ -0,0 +1,35 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import com.turboproductions.consrtuctioncalculator.models.projections.MaterialOption;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orders of the materials list, backed by the (user, type, name) index and the (user, name)
+ * unique constraint.
+ */
+@Getter
+public enum MaterialSort {
+  TYPE(Sort.by("type", "name")),
+  NAME(Sort.by("name"));
+
+  private final Sort sort;
+
+  MaterialSort(Sort sort) {
+    this.sort = sort;
+  }
+
+  /** The keyset of a material, the values of the sorted properties and the id. */
+  public Map<String, Object> keysOf(MaterialOption material) {
+    return switch (this) {
+      case TYPE ->
+          Map.of(
+              "type", material.getType(),
+              "name", material.getName(),
+              "materialId", material.getMaterialId());
+      case NAME -> Map.of("name", material.getName(), "materialId", material.getMaterialId());
+    };
+  }
+}
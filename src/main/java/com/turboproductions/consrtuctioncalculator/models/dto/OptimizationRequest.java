@@ -0,0 +1,38 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import java.util.List;
+
+/**
+ * Rooms to find the cheapest materials for, with the constraints the materials have to meet.
+ *
+ * @param budget the highest total price of the rooms, {@code null} for no limit.
+ * @param sameFloorMaterial whether every room gets the same floor material.
+ * @param sameWallMaterial whether every room gets the same wall material.
+ * @param sameCeilingMaterial whether every room gets the same ceiling material.
+ * @param results the number of combinations to return, from the cheapest.
+ */
+public record OptimizationRequest(
+    List<RoomRequest> rooms,
+    Double budget,
+    boolean sameFloorMaterial,
+    boolean sameWallMaterial,
+    boolean sameCeilingMaterial,
+    int results) {
+
+  /**
+   * The areas of a room and the materials allowed on them.
+   *
+   * @param floorMaterials the names of the allowed floor materials, {@code null} or empty for all.
+   * @param wallMaterials the names of the allowed wall materials, {@code null} or empty for all.
+   * @param ceilingMaterials the names of the allowed ceiling materials, {@code null} or empty for
+   *     all.
+   */
+  public record RoomRequest(
+      double floorSqM,
+      double wallSqM,
+      double ceilingSqM,
+      List<String> floorMaterials,
+      List<String> wallMaterials,
+      List<String> ceilingMaterials) {}
+}
@@ -0,0 +1,31 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.dto;
+
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.List;
+
+/**
+ * A batch of calculations sent to the pricing API.
+ *
+ * @param persist whether the priced calculations are saved, only quoted when {@code false}.
+ */
+public record PricingRequest(boolean persist, List<CalculationRequest> calculations) {
+
+  /** A calculation of the batch, its rooms are numbered in the order they are listed. */
+  public record CalculationRequest(String name, List<RoomRequest> rooms) {}
+
+  /** The areas of a room and the names of the materials covering them. */
+  public record RoomRequest(
+      String floorMaterial,
+      double floorSqM,
+      String wallMaterial,
+      double wallSqM,
+      String ceilingMaterial,
+      double ceilingSqM) {
+
+    public RoomCalculation toRoomCalculation() {
+      return new RoomCalculation(
+          null, floorMaterial, floorSqM, wallMaterial, wallSqM, ceilingMaterial, ceilingSqM);
+    }
+  }
+}
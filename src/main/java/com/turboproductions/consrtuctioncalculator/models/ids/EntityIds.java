@@ -0,0 +1,23 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Holds the {@link IdGenerator} used by the entity constructors. Entities are created with {@code
+ * new} outside of the Spring context, so the generator configured at startup is kept here.
+ */
+public final class EntityIds {
+  private static volatile IdGenerator generator = IdStrategy.SEQUENTIAL_GUID.createGenerator();
+
+  private EntityIds() {}
+
+  public static UUID nextId() {
+    return generator.nextId();
+  }
+
+  public static void setGenerator(IdGenerator idGenerator) {
+    generator = Objects.requireNonNull(idGenerator);
+  }
+}
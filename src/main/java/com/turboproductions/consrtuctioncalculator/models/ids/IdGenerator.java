@@ -0,0 +1,10 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.util.UUID;
+
+/** Creates the primary keys of new entities. */
+@FunctionalInterface
+public interface IdGenerator {
+  UUID nextId();
+}
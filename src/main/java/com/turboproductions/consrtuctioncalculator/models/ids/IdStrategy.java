@@ -0,0 +1,25 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/** The id generators that can be selected with the {@code calculator.ids.strategy} property. */
+public enum IdStrategy {
+  /** Random version 4 UUIDs. */
+  RANDOM(() -> UUID::randomUUID),
+  /** See {@link UuidV7Generator}. */
+  UUID_V7(UuidV7Generator::new),
+  /** See {@link SequentialGuidGenerator}. */
+  SEQUENTIAL_GUID(SequentialGuidGenerator::new);
+
+  private final Supplier<IdGenerator> factory;
+
+  IdStrategy(Supplier<IdGenerator> factory) {
+    this.factory = factory;
+  }
+
+  public IdGenerator createGenerator() {
+    return factory.get();
+  }
+}
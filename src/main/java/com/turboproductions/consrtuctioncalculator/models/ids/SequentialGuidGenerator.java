@@ -0,0 +1,32 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * UUIDs ordered the way SQL Server compares {@code uniqueidentifier} values, which starts with the
+ * last six bytes and continues with the two before them. The timestamp is stored in the last six
+ * bytes and a 14 bit counter next to the variant bits, the first half of the id is random with a
+ * version 8 (custom) marker. New rows are then appended to the end of a clustered index instead of
+ * splitting pages all over it, like {@code NEWSEQUENTIALID()} does.
+ */
+public class SequentialGuidGenerator extends TimeOrderedIdGenerator {
+  private static final int COUNTER_BITS = 14;
+
+  public SequentialGuidGenerator() {
+    super(COUNTER_BITS);
+  }
+
+  SequentialGuidGenerator(LongSupplier clock, Random random) {
+    super(COUNTER_BITS, clock, random);
+  }
+
+  @Override
+  UUID createId(long timestamp, long counter, long randomBits) {
+    long mostSigBits = randomBits & ~0xF000L | 0x8000L;
+    long leastSigBits = 0x8000_0000_0000_0000L | counter << 48 | timestamp;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
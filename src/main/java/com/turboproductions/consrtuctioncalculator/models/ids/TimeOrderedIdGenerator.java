@@ -0,0 +1,48 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Base class for ids that start with a millisecond timestamp followed by a counter. The counter
+ * orders ids created in the same millisecond, when it overflows the timestamp is moved forward, so
+ * every id is greater than the previous one even if the clock goes backwards.
+ */
+abstract class TimeOrderedIdGenerator implements IdGenerator {
+  private static final long TIMESTAMP_MASK = 0xFFFF_FFFF_FFFFL;
+  private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+  private final int counterBits;
+  private final LongSupplier clock;
+  private final Random random;
+
+  TimeOrderedIdGenerator(int counterBits, LongSupplier clock, Random random) {
+    this.counterBits = counterBits;
+    this.clock = clock;
+    this.random = random;
+  }
+
+  TimeOrderedIdGenerator(int counterBits) {
+    this(counterBits, System::currentTimeMillis, new SecureRandom());
+  }
+
+  @Override
+  public UUID nextId() {
+    long now = (clock.getAsLong() & TIMESTAMP_MASK) << counterBits;
+    long timestampAndCounter =
+        lastTimestampAndCounter.accumulateAndGet(now, (last, next) -> Math.max(last + 1, next));
+    long counter = timestampAndCounter & ((1L << counterBits) - 1);
+    long timestamp = (timestampAndCounter >>> counterBits) & TIMESTAMP_MASK;
+    return createId(timestamp, counter, random.nextLong());
+  }
+
+  /**
+   * @param timestamp the 48 bit millisecond timestamp.
+   * @param counter the counter, it fits the bits passed to the constructor.
+   * @param randomBits random bits to fill the rest of the id with.
+   */
+  abstract UUID createId(long timestamp, long counter, long randomBits);
+}
@@ -0,0 +1,30 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48 bit timestamp, a 12 bit counter in {@code rand_a} and 62 random
+ * bits. They sort by creation time when compared as bytes or strings, which suits databases other
+ * than SQL Server.
+ */
+public class UuidV7Generator extends TimeOrderedIdGenerator {
+  private static final int COUNTER_BITS = 12;
+
+  public UuidV7Generator() {
+    super(COUNTER_BITS);
+  }
+
+  UuidV7Generator(LongSupplier clock, Random random) {
+    super(COUNTER_BITS, clock, random);
+  }
+
+  @Override
+  UUID createId(long timestamp, long counter, long randomBits) {
+    long mostSigBits = timestamp << 16 | 0x7000L | counter;
+    long leastSigBits = randomBits & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
@@ -0,0 +1,22 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** The columns of a calculation shown in the calculations list, without its rooms and owner. */
+public interface CalculationSummary {
+  UUID getCalculationId();
+
+  String getName();
+
+  int getNumberOfRooms();
+
+  double getSquareMeters();
+
+  double getCalculationPrice();
+
+  LocalDateTime getDate();
+
+  boolean isActive();
+}
@@ -0,0 +1,16 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.projections;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import java.util.UUID;
+
+/** The columns of a material shown in lists and dropdowns, without its owner. */
+public interface MaterialOption {
+  UUID getMaterialId();
+
+  String getName();
+
+  MaterialType getType();
+
+  double getPricePerSqMeter();
+}
@@ -0,0 +1,32 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/** A calculation and its rooms, as shown on the calculation details page. */
+public record CalculationDetailsView(
+    UUID calculationId,
+    String name,
+    int numberOfRooms,
+    double squareMeters,
+    double calculationPrice,
+    LocalDateTime date,
+    boolean active,
+    List<RoomView> rooms) {
+
+  /** Copies the calculation, its rooms have to be loaded already. */
+  public static CalculationDetailsView of(ConstructionCalculation calculation) {
+    return new CalculationDetailsView(
+        calculation.getCalculationId(),
+        calculation.getName(),
+        calculation.getNumberOfRooms(),
+        calculation.getSquareMeters(),
+        calculation.getCalculationPrice(),
+        calculation.getDate(),
+        calculation.isActive(),
+        calculation.getRoomCalculations().stream().map(RoomView::of).toList());
+  }
+}
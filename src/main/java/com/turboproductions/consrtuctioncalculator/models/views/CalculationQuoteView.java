@@ -0,0 +1,42 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A calculation priced by the pricing API.
+ *
+ * @param index the position of the calculation in the request.
+ * @param calculationId the id of the saved calculation, {@code null} when it was only quoted.
+ * @param error why the calculation could not be priced, {@code null} when it was.
+ */
+public record CalculationQuoteView(
+    int index,
+    String name,
+    UUID calculationId,
+    int numberOfRooms,
+    double squareMeters,
+    double price,
+    List<RoomView> rooms,
+    String error) {
+
+  public static CalculationQuoteView of(
+      int index, ConstructionCalculation calculation, List<RoomCalculation> rooms, boolean saved) {
+    return new CalculationQuoteView(
+        index,
+        calculation.getName(),
+        saved ? calculation.getCalculationId() : null,
+        calculation.getNumberOfRooms(),
+        calculation.getSquareMeters(),
+        calculation.getCalculationPrice(),
+        rooms.stream().map(RoomView::of).toList(),
+        null);
+  }
+
+  public static CalculationQuoteView rejected(int index, String name, String error) {
+    return new CalculationQuoteView(index, name, null, 0, 0, 0, List.of(), error);
+  }
+}
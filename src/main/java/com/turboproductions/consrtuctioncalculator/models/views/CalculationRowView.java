@@ -0,0 +1,28 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.projections.CalculationSummary;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A row of the calculations list. */
+public record CalculationRowView(
+    UUID calculationId,
+    String name,
+    int numberOfRooms,
+    double squareMeters,
+    double calculationPrice,
+    LocalDateTime date,
+    boolean active) {
+
+  public static CalculationRowView of(CalculationSummary calculation) {
+    return new CalculationRowView(
+        calculation.getCalculationId(),
+        calculation.getName(),
+        calculation.getNumberOfRooms(),
+        calculation.getSquareMeters(),
+        calculation.getCalculationPrice(),
+        calculation.getDate(),
+        calculation.isActive());
+  }
+}
@@ -0,0 +1,31 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJob;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJobState;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import java.util.UUID;
+
+/** The status of an import that runs in the background, as returned to the polling client. */
+public record ImportJobView(
+    UUID jobId,
+    String fileName,
+    ImportMode mode,
+    ImportJobState state,
+    int rowsParsed,
+    int rowsSaved,
+    String error) {
+
+  public static ImportJobView of(ImportJob job) {
+    // Read the state first, the counters are final once it is.
+    ImportJobState state = job.getState();
+    return new ImportJobView(
+        job.getJobId(),
+        job.getFileName(),
+        job.getMode(),
+        state,
+        job.getRowsParsed(),
+        job.getRowsSaved(),
+        job.getError());
+  }
+}
@@ -0,0 +1,19 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.projections.MaterialOption;
+import java.util.UUID;
+
+/** A row of the materials list. */
+public record MaterialRowView(
+    UUID materialId, String name, MaterialType type, double pricePerSqMeter) {
+
+  public static MaterialRowView of(MaterialOption material) {
+    return new MaterialRowView(
+        material.getMaterialId(),
+        material.getName(),
+        material.getType(),
+        material.getPricePerSqMeter());
+  }
+}
@@ -0,0 +1,25 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import java.util.List;
+
+/**
+ * The cheapest material combinations found for the rooms of an optimization request.
+ *
+ * @param combinations the combinations from the cheapest, empty if none fits the constraints.
+ * @param complete whether every combination was considered, {@code false} if the time limit was
+ *     reached first.
+ * @param error why the request could not be optimized, {@code null} when it was.
+ */
+public record OptimizationView(List<Combination> combinations, boolean complete, String error) {
+
+  public static OptimizationView rejected(String error) {
+    return new OptimizationView(List.of(), true, error);
+  }
+
+  /** The materials of every room in the order of the request and their total price. */
+  public record Combination(double price, List<RoomMaterials> rooms) {}
+
+  public record RoomMaterials(
+      String floorMaterial, String wallMaterial, String ceilingMaterial, double price) {}
+}
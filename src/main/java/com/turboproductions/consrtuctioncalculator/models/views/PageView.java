@@ -0,0 +1,28 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.Window;
+
+/**
+ * A page of a keyset paginated list, ready to be rendered.
+ *
+ * @param items the rows of the page.
+ * @param nextCursor the id of the last row when there is a next page, {@code null} otherwise.
+ */
+public record PageView<T>(List<T> items, UUID nextCursor) {
+
+  /** Copies the rows of the window into view models while the session is still open. */
+  public static <S, T> PageView<T> of(
+      Window<S> window, Function<S, T> toView, Function<T, UUID> idOf) {
+    List<T> items = window.getContent().stream().map(toView).toList();
+    UUID nextCursor = window.hasNext() ? idOf.apply(items.getLast()) : null;
+    return new PageView<>(items, nextCursor);
+  }
+
+  public boolean isEmpty() {
+    return items.isEmpty();
+  }
+}
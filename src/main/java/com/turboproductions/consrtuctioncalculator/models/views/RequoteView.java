@@ -0,0 +1,48 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A saved calculation priced against supplier catalogs, the quotes are ordered from the cheapest
+ * catalog to the most expensive one and end with the catalogs that miss materials.
+ *
+ * @param price the price of the calculation with the user's own materials.
+ * @param error why the calculation could not be re-quoted, {@code null} when it was.
+ */
+public record RequoteView(
+    UUID calculationId,
+    String name,
+    int numberOfRooms,
+    double squareMeters,
+    double price,
+    List<CatalogQuote> quotes,
+    String error) {
+
+  public static RequoteView of(ConstructionCalculation calculation, List<CatalogQuote> quotes) {
+    return new RequoteView(
+        calculation.getCalculationId(),
+        calculation.getName(),
+        calculation.getNumberOfRooms(),
+        calculation.getSquareMeters(),
+        calculation.getCalculationPrice(),
+        quotes,
+        null);
+  }
+
+  public static RequoteView rejected(String error) {
+    return new RequoteView(null, null, 0, 0, 0, List.of(), error);
+  }
+
+  /**
+   * The calculation priced with one catalog.
+   *
+   * @param price the price with the catalog, {@code null} when it misses materials.
+   * @param difference the price with the catalog minus the price of the calculation.
+   * @param missingMaterials the materials of the calculation that the catalog does not have.
+   */
+  public record CatalogQuote(
+      String catalog, Double price, Double difference, List<String> missingMaterials) {}
+}
@@ -0,0 +1,36 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+
+/** A room of the calculation details page, with the material names stored on the room. */
+public record RoomView(
+    String roomNumber,
+    String floorMaterial,
+    String wallMaterial,
+    String ceilingMaterial,
+    double floorSqM,
+    double wallSqM,
+    double ceilingSqM,
+    double floorMaterialPrice,
+    double wallMaterialPrice,
+    double ceilingMaterialPrice,
+    double roomArea,
+    double roomPrice) {
+
+  public static RoomView of(RoomCalculation room) {
+    return new RoomView(
+        room.getRoomNumber(),
+        room.getFloorMaterial(),
+        room.getWallMaterial(),
+        room.getCeilingMaterial(),
+        room.getFloorSqM(),
+        room.getWallSqM(),
+        room.getCeilingSqM(),
+        room.getFloorMaterialPrice(),
+        room.getWallMaterialPrice(),
+        room.getCeilingMaterialPrice(),
+        room.getRoomArea(),
+        room.getRoomPrice());
+  }
+}
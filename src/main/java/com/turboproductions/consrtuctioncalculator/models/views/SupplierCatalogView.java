@@ -0,0 +1,22 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.views;
+
+import com.turboproductions.consrtuctioncalculator.services.helpers.SupplierCatalog;
+import java.time.Instant;
+
+/**
+ * A supplier catalog kept for re-quoting.
+ *
+ * @param error why the catalog could not be imported, {@code null} when it was.
+ */
+public record SupplierCatalogView(String name, int materials, Instant importedAt, String error) {
+
+  public static SupplierCatalogView of(SupplierCatalog catalog) {
+    return new SupplierCatalogView(
+        catalog.getName(), catalog.size(), catalog.getImportedAt(), null);
+  }
+
+  public static SupplierCatalogView rejected(String name, String error) {
+    return new SupplierCatalogView(name, 0, null, error);
+  }
+}
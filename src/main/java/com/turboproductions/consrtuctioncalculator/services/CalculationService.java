@@ -1,42 +1,62 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.services;
 
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
 import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
-import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
 import com.turboproductions.consrtuctioncalculator.dao.RoomCalculationRepository;
 import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
 import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.CalculationSort;
 import com.turboproductions.consrtuctioncalculator.models.dto.ConstructionActivityRequest;
+import com.turboproductions.consrtuctioncalculator.models.dto.PricingRequest;
+import com.turboproductions.consrtuctioncalculator.models.projections.CalculationSummary;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationDetailsView;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationQuoteView;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelSheetWriter;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ParallelRoomPricer;
+import com.turboproductions.consrtuctioncalculator.services.helpers.PricingEngine;
 import com.turboproductions.consrtuctioncalculator.services.helpers.RoomValidator;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CalculationService {
   private final RoomCalculationRepository roomCalculationRepository;
   private final ConstructionCalculationRepository constructionCalculationRepository;
-  private final MaterialRepository materialRepository;
+  private final MaterialCatalogCache materialCatalogCache;
   private final RoomValidator roomValidator;
+  private final PricingEngine pricingEngine;
+  private final CalculatorProperties calculatorProperties;
+  private final ParallelRoomPricer parallelRoomPricer;
+  private final LargeCalculationWriter largeCalculationWriter;
 
+  @Transactional
   public String handleConstructionCalculationCreation(
       ConstructionCalculation calculation, List<RoomCalculation> rooms, User user) {
     calculateRoomDetails(rooms, user);
@@ -51,115 +71,249 @@ public class CalculationService {
     return errMsg;
   }
 
-  public ByteArrayInputStream handleExcelExport(ConstructionCalculation calculation) {
-    try (Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-      Sheet sheet = workbook.createSheet(calculation.getName());
-      Row constructionInfoHeader = sheet.createRow(0);
-      constructionInfoHeader.createCell(0).setCellValue("Name");
-      constructionInfoHeader.createCell(1).setCellValue("Room count");
-      constructionInfoHeader.createCell(2).setCellValue("Total area");
-      constructionInfoHeader.createCell(3).setCellValue("Total price");
-      constructionInfoHeader.createCell(4).setCellValue("Date of calculation");
-
-      Row constructionInfoRow = sheet.createRow(1);
-      constructionInfoRow.createCell(0).setCellValue(calculation.getName());
-      constructionInfoRow.createCell(1).setCellValue(calculation.getNumberOfRooms());
-      constructionInfoRow.createCell(2).setCellValue(calculation.getSquareMeters());
-      constructionInfoRow.createCell(3).setCellValue(calculation.getCalculationPrice());
-      constructionInfoRow
-          .createCell(4)
-          .setCellValue(calculation.getDate().toString().replace("T", " "));
-
-      Row emptyRow = sheet.createRow(2);
-      Row roomInfoHeader = sheet.createRow(3);
-      roomInfoHeader.createCell(0).setCellValue("Room");
-      roomInfoHeader.createCell(1).setCellValue("Floor material");
-      roomInfoHeader.createCell(2).setCellValue("Wall material");
-      roomInfoHeader.createCell(3).setCellValue("Ceiling material");
-      roomInfoHeader.createCell(4).setCellValue("Floor area");
-      roomInfoHeader.createCell(5).setCellValue("Wall area");
-      roomInfoHeader.createCell(6).setCellValue("Ceiling area");
-      roomInfoHeader.createCell(7).setCellValue("Floor price");
-      roomInfoHeader.createCell(8).setCellValue("Wall price");
-      roomInfoHeader.createCell(9).setCellValue("Ceiling price");
-      roomInfoHeader.createCell(10).setCellValue("Total area");
-      roomInfoHeader.createCell(11).setCellValue("Total price");
-
-      int rowNum = 4;
-      for (RoomCalculation room : calculation.getRoomCalculations()) {
-        Row roomInfoRow = sheet.createRow(rowNum);
-        roomInfoRow.createCell(0).setCellValue(room.getRoomNumber());
-        roomInfoRow.createCell(1).setCellValue(room.getFloorMaterial());
-        roomInfoRow.createCell(2).setCellValue(room.getWallMaterial());
-        roomInfoRow.createCell(3).setCellValue(room.getCeilingMaterial());
-        roomInfoRow.createCell(4).setCellValue(room.getFloorSqM());
-        roomInfoRow.createCell(5).setCellValue(room.getWallSqM());
-        roomInfoRow.createCell(6).setCellValue(room.getCeilingSqM());
-        roomInfoRow.createCell(7).setCellValue(room.getFloorMaterialPrice());
-        roomInfoRow.createCell(8).setCellValue(room.getWallMaterialPrice());
-        roomInfoRow.createCell(9).setCellValue(room.getCeilingMaterialPrice());
-        roomInfoRow.createCell(10).setCellValue(room.getRoomArea());
-        roomInfoRow.createCell(11).setCellValue(room.getRoomPrice());
-        rowNum++;
-      }
+  /**
+   * Prices a calculation of the pricing API against the user's catalog and saves it when asked to.
+   * A quote only reads the cached catalog, so it never touches the database.
+   *
+   * @param index the position of the calculation in the request.
+   * @param persist whether the priced calculation is saved.
+   * @return the priced calculation or why it could not be priced.
+   */
+  public CalculationQuoteView quoteConstructionCalculation(
+      int index, PricingRequest.CalculationRequest request, User user, boolean persist) {
+    if (request.rooms() == null || request.rooms().isEmpty()) {
+      return CalculationQuoteView.rejected(
+          index, request.name(), "A calculation needs at least one room.");
+    }
+    int maxRooms = calculatorProperties.getLargeProjects().getMaxRooms();
+    if (request.rooms().size() > maxRooms) {
+      return CalculationQuoteView.rejected(
+          index, request.name(), String.format("A calculation can have up to %s rooms.", maxRooms));
+    }
+    ConstructionCalculation calculation = new ConstructionCalculation();
+    calculation.setName(request.name());
+    List<RoomCalculation> rooms =
+        request.rooms().stream().map(PricingRequest.RoomRequest::toRoomCalculation).toList();
+    String errMsg = priceConstructionCalculation(calculation, rooms, user);
+    if (errMsg != null) {
+      return CalculationQuoteView.rejected(index, request.name(), errMsg);
+    }
+    if (persist) {
+      saveConstructionCalculation(calculation);
+    }
+    return CalculationQuoteView.of(index, calculation, rooms, persist);
+  }
 
-      workbook.write(outputStream);
-      return new ByteArrayInputStream(outputStream.toByteArray());
-    } catch (IOException ex) {
-      return null;
+  /**
+   * Prices the rooms of a calculation like {@link #handleConstructionCalculationCreation} without
+   * saving it. A material name that is not in the catalog is reported instead of thrown.
+   *
+   * @param rooms the rooms in the order they are numbered, with their areas and material names.
+   * @return String containing why the calculation cannot be priced or {@code null} if it was.
+   */
+  public String priceConstructionCalculation(
+      ConstructionCalculation calculation, List<RoomCalculation> rooms, User user) {
+    MaterialCatalog catalog = materialCatalogCache.getCatalog(user);
+    for (int i = 0; i < rooms.size(); i++) {
+      String materialErrMsg = validateRoomMaterials(rooms.get(i), i + 1, catalog);
+      if (materialErrMsg != null) {
+        return materialErrMsg;
+      }
+    }
+    calculateRoomDetails(rooms, user, catalog);
+    setRoomNumbers(rooms);
+    String errMsg = roomValidator.validateRooms(rooms);
+    if (errMsg == null) {
+      setConstructionRooms(calculation, rooms);
+      calculateConstructionDetails(calculation);
+      calculation.setUser(user);
     }
+    return errMsg;
   }
 
-  public void updateRoomsAndCalculationsOnMaterialUpdate(Material material, User user) {
-    List<RoomCalculation> roomCalculations = new ArrayList<>();
-    switch (material.getType()) {
-      case WALL:
-        {
-          roomCalculations =
-              roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndWallMaterial(
-                  user.getUserId(), material.getName());
-          if (!roomCalculations.isEmpty()) {
-            roomCalculations.forEach(x -> x.setWallMaterialPrice(material.getPricePerSqMeter()));
-          } else {
-            return;
-          }
-          break;
-        }
-      case FLOOR:
-        {
-          roomCalculations =
-              roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndFloorMaterial(
-                  user.getUserId(), material.getName());
-          if (!roomCalculations.isEmpty()) {
-            roomCalculations.forEach(x -> x.setFloorMaterialPrice(material.getPricePerSqMeter()));
-          } else {
-            return;
-          }
+  /**
+   * Writes the calculation and its rooms to the stream as a workbook, the rooms must be loaded
+   * before as the stream may be written after the transaction has ended.
+   */
+  public void writeExcelExport(ConstructionCalculation calculation, OutputStream outputStream)
+      throws IOException {
+    ExcelSheetWriter.writeSheet(
+        calculation.getName(),
+        calculatorProperties.getExport().getRowWindow(),
+        sheet -> {
+          Row constructionInfoHeader = sheet.createRow(0);
+          constructionInfoHeader.createCell(0).setCellValue("Name");
+          constructionInfoHeader.createCell(1).setCellValue("Room count");
+          constructionInfoHeader.createCell(2).setCellValue("Total area");
+          constructionInfoHeader.createCell(3).setCellValue("Total price");
+          constructionInfoHeader.createCell(4).setCellValue("Date of calculation");
 
-          break;
-        }
-      case CEILING:
-        {
-          roomCalculations =
-              roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndCeilingMaterial(
-                  user.getUserId(), material.getName());
-          if (!roomCalculations.isEmpty()) {
-            roomCalculations.forEach(x -> x.setCeilingMaterialPrice(material.getPricePerSqMeter()));
-          } else {
-            return;
+          Row constructionInfoRow = sheet.createRow(1);
+          constructionInfoRow.createCell(0).setCellValue(calculation.getName());
+          constructionInfoRow.createCell(1).setCellValue(calculation.getNumberOfRooms());
+          constructionInfoRow.createCell(2).setCellValue(calculation.getSquareMeters());
+          constructionInfoRow.createCell(3).setCellValue(calculation.getCalculationPrice());
+          constructionInfoRow
+              .createCell(4)
+              .setCellValue(calculation.getDate().toString().replace("T", " "));
+
+          Row roomInfoHeader = sheet.createRow(3);
+          roomInfoHeader.createCell(0).setCellValue("Room");
+          roomInfoHeader.createCell(1).setCellValue("Floor material");
+          roomInfoHeader.createCell(2).setCellValue("Wall material");
+          roomInfoHeader.createCell(3).setCellValue("Ceiling material");
+          roomInfoHeader.createCell(4).setCellValue("Floor area");
+          roomInfoHeader.createCell(5).setCellValue("Wall area");
+          roomInfoHeader.createCell(6).setCellValue("Ceiling area");
+          roomInfoHeader.createCell(7).setCellValue("Floor price");
+          roomInfoHeader.createCell(8).setCellValue("Wall price");
+          roomInfoHeader.createCell(9).setCellValue("Ceiling price");
+          roomInfoHeader.createCell(10).setCellValue("Total area");
+          roomInfoHeader.createCell(11).setCellValue("Total price");
+
+          int rowNum = 4;
+          for (RoomCalculation room : calculation.getRoomCalculations()) {
+            Row roomInfoRow = sheet.createRow(rowNum);
+            roomInfoRow.createCell(0).setCellValue(room.getRoomNumber());
+            roomInfoRow.createCell(1).setCellValue(room.getFloorMaterial());
+            roomInfoRow.createCell(2).setCellValue(room.getWallMaterial());
+            roomInfoRow.createCell(3).setCellValue(room.getCeilingMaterial());
+            roomInfoRow.createCell(4).setCellValue(room.getFloorSqM());
+            roomInfoRow.createCell(5).setCellValue(room.getWallSqM());
+            roomInfoRow.createCell(6).setCellValue(room.getCeilingSqM());
+            roomInfoRow.createCell(7).setCellValue(room.getFloorMaterialPrice());
+            roomInfoRow.createCell(8).setCellValue(room.getWallMaterialPrice());
+            roomInfoRow.createCell(9).setCellValue(room.getCeilingMaterialPrice());
+            roomInfoRow.createCell(10).setCellValue(room.getRoomArea());
+            roomInfoRow.createCell(11).setCellValue(room.getRoomPrice());
+            rowNum++;
           }
-          break;
+        },
+        outputStream);
+  }
+
+  @Transactional
+  public void updateRoomsAndCalculationsOnMaterialUpdate(Material material, User user) {
+    // The affected calculations are loaded with all their rooms, their totals need every room.
+    List<ConstructionCalculation> calculations =
+        constructionCalculationRepository.findWithRoomsByMaterialId(material.getMaterialId());
+    List<RoomCalculation> roomCalculations = new ArrayList<>();
+    for (ConstructionCalculation calculation : calculations) {
+      for (RoomCalculation room : calculation.getRoomCalculations()) {
+        if (setMaterialNames(room, material)) {
+          roomCalculations.add(room);
         }
+      }
+    }
+    if (roomCalculations.isEmpty()) {
+      return;
     }
     calculateRoomDetails(roomCalculations, user);
-    Set<ConstructionCalculation> uniqueConstructionCalculations = new HashSet<>();
-    roomCalculations.forEach(
-        x -> uniqueConstructionCalculations.add(x.getConstructionCalculation()));
-    uniqueConstructionCalculations.forEach(this::calculateConstructionDetails);
-    constructionCalculationRepository.saveAll(uniqueConstructionCalculations);
+    calculations.forEach(this::calculateConstructionDetails);
+    constructionCalculationRepository.saveAll(calculations);
+  }
+
+  /**
+   * Reprices the active rooms using a material when only its price has changed. Each room gets the
+   * difference between the new and the old price of the surface covered with the material and each
+   * affected calculation gets the sum of its rooms' differences, so no other surface, room or
+   * material is looked at.
+   *
+   * @param material the {@link Material} with its new price.
+   */
+  @Transactional
+  public void updateRoomsAndCalculationsOnMaterialPriceChange(Material material) {
+    List<RoomCalculation> roomCalculations = findActiveRoomsUsingMaterial(material);
+    if (roomCalculations.isEmpty()) {
+      return;
+    }
+    Map<ConstructionCalculation, Double> calculationDeltas = new HashMap<>();
+    for (RoomCalculation room : roomCalculations) {
+      double delta = repriceSurface(room, material);
+      room.setRoomPrice(pricingEngine.add(room.getRoomPrice(), delta));
+      calculationDeltas.merge(room.getConstructionCalculation(), delta, pricingEngine::add);
+    }
+    LocalDateTime now = LocalDateTime.now();
+    calculationDeltas.forEach(
+        (calculation, delta) -> {
+          calculation.setCalculationPrice(
+              pricingEngine.add(calculation.getCalculationPrice(), delta));
+          calculation.setDate(now);
+        });
+    roomCalculationRepository.saveAll(roomCalculations);
+    constructionCalculationRepository.saveAll(calculationDeltas.keySet());
+  }
+
+  /**
+   * Reprices the active rooms using a material, and the calculations they belong to, with two bulk
+   * UPDATE statements so the rooms are never loaded into the application. The database applies the
+   * same {@code HALF_UP} rounding to two decimals as the {@link PricingEngine}.
+   *
+   * @param material the {@link Material} with its new price.
+   */
+  @Transactional
+  public void updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(Material material) {
+    UUID materialId = material.getMaterialId();
+    double pricePerSqMeter = material.getPricePerSqMeter();
+    int updatedRooms =
+        switch (material.getType()) {
+          case WALL ->
+              roomCalculationRepository.updateWallPricesByWallMaterialId(
+                  materialId, pricePerSqMeter);
+          case FLOOR ->
+              roomCalculationRepository.updateFloorPricesByFloorMaterialId(
+                  materialId, pricePerSqMeter);
+          case CEILING ->
+              roomCalculationRepository.updateCeilingPricesByCeilingMaterialId(
+                  materialId, pricePerSqMeter);
+        };
+    if (updatedRooms > 0) {
+      constructionCalculationRepository.updateCalculationPricesByMaterialId(
+          materialId, LocalDateTime.now());
+    }
+  }
+
+  /**
+   * Writes the new name of a material to the rooms referencing it. Only the name columns change, so
+   * no room has to be loaded or repriced.
+   *
+   * @param material the renamed {@link Material}.
+   */
+  @Transactional
+  public void renameMaterialInRooms(Material material) {
+    UUID materialId = material.getMaterialId();
+    roomCalculationRepository.renameFloorMaterial(materialId, material.getName());
+    roomCalculationRepository.renameWallMaterial(materialId, material.getName());
+    roomCalculationRepository.renameCeilingMaterial(materialId, material.getName());
   }
 
+  /**
+   * Removes the references to a material that is about to be deleted. The rooms keep the name and
+   * prices they were calculated with.
+   *
+   * @param materialId the id of the {@link Material}.
+   */
+  @Transactional
+  public void releaseMaterial(UUID materialId) {
+    roomCalculationRepository.clearFloorMaterialRef(materialId);
+    roomCalculationRepository.clearWallMaterialRef(materialId);
+    roomCalculationRepository.clearCeilingMaterialRef(materialId);
+  }
+
+  /**
+   * Removes the references to materials that are about to be deleted with three statements for all
+   * of them, see {@link #releaseMaterial(UUID)}.
+   *
+   * @param materialIds the ids of the {@link Material}s.
+   */
+  @Transactional
+  public void releaseMaterials(Collection<UUID> materialIds) {
+    roomCalculationRepository.clearFloorMaterialRefs(materialIds);
+    roomCalculationRepository.clearWallMaterialRefs(materialIds);
+    roomCalculationRepository.clearCeilingMaterialRefs(materialIds);
+  }
+
+  @Transactional
   public String setCalculationActivity(ConstructionActivityRequest request) {
     UUID calcId = request.getConstructionId();
     ConstructionCalculation calcToUpdate = getCalculation(calcId);
@@ -172,92 +326,223 @@ public class CalculationService {
     }
   }
 
+  @Transactional
   public void deleteCalculationById(UUID id) {
     constructionCalculationRepository.deleteById(id);
   }
 
+  /**
+   * Saves the calculation together with its rooms. New large calculations are saved in chunks by
+   * the {@link LargeCalculationWriter}. Stored calculations are decided by their number of rooms,
+   * so their lazy rooms are not loaded, and are always saved by the repository: the writer only
+   * inserts.
+   */
   public void saveConstructionCalculation(ConstructionCalculation calculation) {
-    constructionCalculationRepository.save(calculation);
+    if (calculation.isNew()
+        && calculation.getNumberOfRooms()
+            >= calculatorProperties.getLargeProjects().getThreshold()) {
+      largeCalculationWriter.save(calculation);
+    } else {
+      constructionCalculationRepository.save(calculation);
+    }
   }
 
+  @Transactional(readOnly = true)
   public List<ConstructionCalculation> getAllCalculations(User user) {
     return constructionCalculationRepository.findConstructionCalculationsByUserOrderByDate(user);
   }
 
+  /**
+   * Returns a page of the user's calculations. Pages are read with keyset pagination, so reading a
+   * page costs the same no matter how far into the list it is.
+   *
+   * @param after the id of the last calculation of the previous page or {@code null} for the first
+   *     page.
+   * @param sort the order of the calculations.
+   * @param active only returns active or inactive calculations, {@code null} returns both.
+   * @return the calculations of the page and the cursor of the next one.
+   */
+  @Transactional(readOnly = true)
+  public PageView<CalculationRowView> getCalculations(
+      User user, UUID after, CalculationSort sort, Boolean active) {
+    ScrollPosition position = ScrollPosition.keyset();
+    if (after != null) {
+      position =
+          constructionCalculationRepository
+              .findByCalculationIdAndUser(after, user)
+              .<ScrollPosition>map(last -> ScrollPosition.forward(sort.keysOf(last)))
+              .orElse(position);
+    }
+    Limit limit = Limit.of(calculatorProperties.getListing().getPageSize());
+    Window<CalculationSummary> calculations =
+        active == null
+            ? constructionCalculationRepository.findByUser(user, position, sort.getSort(), limit)
+            : constructionCalculationRepository.findByUserAndActive(
+                user, active, position, sort.getSort(), limit);
+    return PageView.of(calculations, CalculationRowView::of, CalculationRowView::calculationId);
+  }
+
+  @Transactional(readOnly = true)
   public ConstructionCalculation getCalculation(UUID id) {
     Optional<ConstructionCalculation> calculation = constructionCalculationRepository.findById(id);
     return calculation.orElse(null);
   }
 
+  /** Loads a calculation together with all its rooms in a single query. */
+  @Transactional(readOnly = true)
+  public ConstructionCalculation getCalculationWithRooms(UUID id) {
+    return constructionCalculationRepository.findWithRoomsByCalculationId(id).orElse(null);
+  }
+
+  /**
+   * Assembles the details page of a calculation. The view is built while the rooms are still
+   * attached, so rendering it never goes back to the database.
+   */
+  @Transactional(readOnly = true)
+  public CalculationDetailsView getCalculationDetails(UUID id) {
+    return constructionCalculationRepository
+        .findWithRoomsByCalculationId(id)
+        .map(CalculationDetailsView::of)
+        .orElse(null);
+  }
+
   private void calculateConstructionDetails(ConstructionCalculation calculation) {
     List<RoomCalculation> roomCalculations = calculation.getRoomCalculations().stream().toList();
-    int numberOfRooms = roomCalculations.size();
-    BigDecimal price = BigDecimal.ZERO;
-    BigDecimal sqM = BigDecimal.ZERO;
-    for (RoomCalculation roomCalculation : roomCalculations) {
-      price =
-          price
-              .add(BigDecimal.valueOf(roomCalculation.getRoomPrice()))
-              .setScale(2, RoundingMode.HALF_UP);
-      sqM =
-          sqM.add(BigDecimal.valueOf(roomCalculation.getRoomArea()))
-              .setScale(2, RoundingMode.HALF_UP);
+    if (isLargeProject(roomCalculations)) {
+      parallelRoomPricer.calculateConstructionTotals(calculation, roomCalculations);
+    } else {
+      pricingEngine.calculateConstructionTotals(calculation, roomCalculations);
     }
-    calculation.setCalculationPrice(price.doubleValue());
-    calculation.setSquareMeters(sqM.doubleValue());
-    calculation.setNumberOfRooms(numberOfRooms);
+    calculation.setNumberOfRooms(roomCalculations.size());
     calculation.setDate(LocalDateTime.now());
   }
 
   private void calculateRoomDetails(List<RoomCalculation> rooms, User user) {
-    List<Material> materials = materialRepository.findAllByUserOrderByType(user);
+    calculateRoomDetails(rooms, user, materialCatalogCache.getCatalog(user));
+  }
+
+  private void calculateRoomDetails(
+      List<RoomCalculation> rooms, User user, MaterialCatalog catalog) {
+    if (isLargeProject(rooms)) {
+      parallelRoomPricer.priceRooms(rooms, slice -> priceRooms(slice, user, catalog));
+    } else {
+      priceRooms(rooms, user, catalog);
+    }
+  }
+
+  /** Sets the materials of the rooms from the catalog and prices the rooms as one batch. */
+  private void priceRooms(List<RoomCalculation> rooms, User user, MaterialCatalog catalog) {
     for (RoomCalculation room : rooms) {
       room.setUserUUID(user.getUserId());
-      Material wallMaterial =
-          materials.stream()
-              .filter(m -> m.getName().equals(room.getWallMaterial()))
-              .findFirst()
-              .orElse(null);
-      Material floorMaterial =
-          materials.stream()
-              .filter(m -> m.getName().equals(room.getFloorMaterial()))
-              .findFirst()
-              .orElse(null);
-      Material ceilingMaterial =
-          materials.stream()
-              .filter(m -> m.getName().equals(room.getCeilingMaterial()))
-              .findFirst()
-              .orElse(null);
+      Material wallMaterial = catalog.findByName(room.getWallMaterial());
+      Material floorMaterial = catalog.findByName(room.getFloorMaterial());
+      Material ceilingMaterial = catalog.findByName(room.getCeilingMaterial());
       if (wallMaterial == null || floorMaterial == null || ceilingMaterial == null) {
         throw new RuntimeException(
             String.format(
                 "Error occurred while trying to set material price for room `%s`",
                 room.getRoomId()));
       }
-      BigDecimal wallSqM = BigDecimal.valueOf(room.getWallSqM());
-      BigDecimal wallPrice =
-          BigDecimal.valueOf(wallMaterial.getPricePerSqMeter())
-              .multiply(wallSqM)
-              .setScale(2, RoundingMode.HALF_UP);
-      BigDecimal ceilingSqM = BigDecimal.valueOf(room.getCeilingSqM());
-      BigDecimal ceilingPrice =
-          BigDecimal.valueOf(ceilingMaterial.getPricePerSqMeter())
-              .multiply(ceilingSqM)
-              .setScale(2, RoundingMode.HALF_UP);
-      BigDecimal floorSqM = BigDecimal.valueOf(room.getFloorSqM());
-      BigDecimal floorPrice =
-          BigDecimal.valueOf(floorMaterial.getPricePerSqMeter())
-              .multiply(floorSqM)
-              .setScale(2, RoundingMode.HALF_UP);
-      BigDecimal roomPrice =
-          wallPrice.add(ceilingPrice).add(floorPrice).setScale(2, RoundingMode.HALF_UP);
-      BigDecimal roomArea = wallSqM.add(ceilingSqM).add(floorSqM).setScale(2, RoundingMode.HALF_UP);
-      room.setWallMaterialPrice(wallPrice.doubleValue());
-      room.setCeilingMaterialPrice(ceilingPrice.doubleValue());
-      room.setFloorMaterialPrice(floorPrice.doubleValue());
-      room.setRoomPrice(roomPrice.doubleValue());
-      room.setRoomArea(roomArea.doubleValue());
+      room.setWallMaterialRef(wallMaterial);
+      room.setFloorMaterialRef(floorMaterial);
+      room.setCeilingMaterialRef(ceilingMaterial);
+    }
+    pricingEngine.calculateRoomPrices(rooms);
+  }
+
+  /** Large projects are priced in parallel and saved in chunks. */
+  private boolean isLargeProject(Collection<RoomCalculation> rooms) {
+    return rooms != null && rooms.size() >= calculatorProperties.getLargeProjects().getThreshold();
+  }
+
+  /**
+   * Checks that every surface of the room uses a material of the catalog with the type of the
+   * surface, repricing finds the rooms of a material by the surface it is used for.
+   *
+   * @return String containing what is wrong with the materials of the room or {@code null} if
+   *     nothing is.
+   */
+  private static String validateRoomMaterials(
+      RoomCalculation room, int roomNumber, MaterialCatalog catalog) {
+    String[] names = {room.getFloorMaterial(), room.getWallMaterial(), room.getCeilingMaterial()};
+    MaterialType[] types = {MaterialType.FLOOR, MaterialType.WALL, MaterialType.CEILING};
+    for (int i = 0; i < names.length; i++) {
+      Material material = catalog.findByName(names[i]);
+      if (material == null) {
+        return String.format("Unknown material '%s' in room %s.", names[i], roomNumber);
+      }
+      if (material.getType() != types[i]) {
+        return String.format(
+            "Material '%s' in room %s is not a %s material.",
+            names[i], roomNumber, types[i].name().toLowerCase(Locale.ROOT));
+      }
+    }
+    return null;
+  }
+
+  private List<RoomCalculation> findActiveRoomsUsingMaterial(Material material) {
+    UUID materialId = material.getMaterialId();
+    return switch (material.getType()) {
+      case WALL -> roomCalculationRepository.findRoomCalculationsByWallMaterialId(materialId);
+      case FLOOR -> roomCalculationRepository.findRoomCalculationsByFloorMaterialId(materialId);
+      case CEILING -> roomCalculationRepository.findRoomCalculationsByCeilingMaterialId(materialId);
+    };
+  }
+
+  /**
+   * Sets the current name of the material on the surfaces of the room referencing it.
+   *
+   * @return whether the room references the material.
+   */
+  private boolean setMaterialNames(RoomCalculation room, Material material) {
+    UUID materialId = material.getMaterialId();
+    boolean referenced = false;
+    if (references(room.getFloorMaterialRef(), materialId)) {
+      room.setFloorMaterial(material.getName());
+      referenced = true;
+    }
+    if (references(room.getWallMaterialRef(), materialId)) {
+      room.setWallMaterial(material.getName());
+      referenced = true;
+    }
+    if (references(room.getCeilingMaterialRef(), materialId)) {
+      room.setCeilingMaterial(material.getName());
+      referenced = true;
+    }
+    return referenced;
+  }
+
+  private boolean references(Material materialRef, UUID materialId) {
+    return materialRef != null && materialId.equals(materialRef.getMaterialId());
+  }
+
+  /**
+   * Sets the new price of the room's surface covered with the material.
+   *
+   * @return the difference between the new and the old price of the surface.
+   */
+  private double repriceSurface(RoomCalculation room, Material material) {
+    double pricePerSqM = material.getPricePerSqMeter();
+    double oldPrice;
+    double newPrice;
+    switch (material.getType()) {
+      case WALL -> {
+        oldPrice = room.getWallMaterialPrice();
+        newPrice = pricingEngine.calculateSurfacePrice(pricePerSqM, room.getWallSqM());
+        room.setWallMaterialPrice(newPrice);
+      }
+      case FLOOR -> {
+        oldPrice = room.getFloorMaterialPrice();
+        newPrice = pricingEngine.calculateSurfacePrice(pricePerSqM, room.getFloorSqM());
+        room.setFloorMaterialPrice(newPrice);
+      }
+      default -> {
+        oldPrice = room.getCeilingMaterialPrice();
+        newPrice = pricingEngine.calculateSurfacePrice(pricePerSqM, room.getCeilingSqM());
+        room.setCeilingMaterialPrice(newPrice);
+      }
     }
+    return pricingEngine.add(newPrice, -oldPrice);
   }
 
   private void setRoomNumbers(List<RoomCalculation> rooms) {
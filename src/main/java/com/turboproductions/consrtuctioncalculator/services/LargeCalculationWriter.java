@@ -0,0 +1,54 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.dao.RoomCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Saves calculations with thousands of rooms. Cascading the rooms would keep every one of them and
+ * its snapshot in the persistence context until the transaction commits. The calculation is
+ * inserted on its own instead, and its rooms follow in chunks of {@code
+ * calculator.large-projects.chunk-size} that are flushed as JDBC batches and detached.
+ */
+@Service
+@RequiredArgsConstructor
+public class LargeCalculationWriter {
+  private final ConstructionCalculationRepository constructionCalculationRepository;
+  private final RoomCalculationRepository roomCalculationRepository;
+  private final EntityManager entityManager;
+  private final CalculatorProperties calculatorProperties;
+
+  /**
+   * Saves the calculation and its rooms in one transaction. The calculation is detached afterwards
+   * and keeps its rooms.
+   *
+   * @param calculation a new, priced calculation whose rooms reference it.
+   */
+  @Transactional
+  public void save(ConstructionCalculation calculation) {
+    Set<RoomCalculation> roomCalculations = calculation.getRoomCalculations();
+    calculation.setRoomCalculations(null);
+    constructionCalculationRepository.save(calculation);
+
+    List<RoomCalculation> rooms = List.copyOf(roomCalculations);
+    int chunkSize = calculatorProperties.getLargeProjects().getChunkSize();
+    for (int from = 0; from < rooms.size(); from += chunkSize) {
+      List<RoomCalculation> chunk = rooms.subList(from, Math.min(from + chunkSize, rooms.size()));
+      roomCalculationRepository.saveAll(chunk);
+      roomCalculationRepository.flush();
+      chunk.forEach(entityManager::detach);
+    }
+    // Setting the rooms on the managed calculation would cascade them again when it is flushed.
+    entityManager.detach(calculation);
+    calculation.setRoomCalculations(roomCalculations);
+  }
+}
@@ -0,0 +1,207 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJob;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialFileFormat;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialImportDiff;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
+import com.turboproductions.consrtuctioncalculator.services.helpers.SpooledUpload;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Runs imports in the background so the request that uploads a file returns at once. The upload
+ * is spooled to a temporary file and handed to a bounded pool of workers, which parse it and save
+ * the materials in chunks of one transaction each. Jobs are kept in memory and their status can be
+ * polled until {@code calculator.imports.retention} after they finished.
+ */
+@Service
+public class MaterialImportJobService {
+  private static final String DUPLICATES_ERR_MSG = "Import names cannot contain any duplicates.";
+
+  private final MaterialValidator materialValidator;
+  private final ExcelParser excelParser;
+  private final CsvParser csvParser;
+  private final MaterialImportService materialImportService;
+  private final CalculatorProperties calculatorProperties;
+  private final Executor executor;
+  private final ConcurrentMap<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+  @Autowired
+  public MaterialImportJobService(
+      MaterialValidator materialValidator,
+      ExcelParser excelParser,
+      CsvParser csvParser,
+      MaterialImportService materialImportService,
+      CalculatorProperties calculatorProperties) {
+    this(
+        materialValidator,
+        excelParser,
+        csvParser,
+        materialImportService,
+        calculatorProperties,
+        newWorkerPool(calculatorProperties.getImports()));
+  }
+
+  MaterialImportJobService(
+      MaterialValidator materialValidator,
+      ExcelParser excelParser,
+      CsvParser csvParser,
+      MaterialImportService materialImportService,
+      CalculatorProperties calculatorProperties,
+      Executor executor) {
+    this.materialValidator = materialValidator;
+    this.excelParser = excelParser;
+    this.csvParser = csvParser;
+    this.materialImportService = materialImportService;
+    this.calculatorProperties = calculatorProperties;
+    this.executor = executor;
+  }
+
+  /**
+   * Validates the file type and queues the import. A file that is rejected before it is queued
+   * returns a job that already failed, so clients always poll the status the same way.
+   *
+   * @param excelFile the uploaded file, it is copied before this method returns.
+   * @return the {@link ImportJob}.
+   */
+  public ImportJob submit(MultipartFile excelFile, User user, ImportMode mode) {
+    removeExpiredJobs();
+    ImportJob job = new ImportJob(user.getUserId(), excelFile.getOriginalFilename(), mode);
+    jobs.put(job.getJobId(), job);
+    String errMsg = materialValidator.validateExcelDataTemplate(excelFile);
+    if (errMsg != null) {
+      job.fail(errMsg);
+      return job;
+    }
+    SpooledUpload upload;
+    try {
+      upload =
+          SpooledUpload.of(excelFile, calculatorProperties.getUploads().getSpoolDirectory());
+    } catch (IOException ex) {
+      job.fail("Error in import file.");
+      return job;
+    }
+    try {
+      executor.execute(() -> run(job, upload, user));
+    } catch (RejectedExecutionException ex) {
+      upload.close();
+      job.fail("Too many imports are running, please try again later.");
+    }
+    return job;
+  }
+
+  /** Returns the job if it belongs to the user and was not removed yet. */
+  public Optional<ImportJob> getJob(UUID jobId, User user) {
+    return Optional.ofNullable(jobs.get(jobId))
+        .filter(job -> job.getUserId().equals(user.getUserId()));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor instanceof ExecutorService executorService) {
+      // Queued imports would start after the data source is closed.
+      executorService.shutdownNow();
+    }
+  }
+
+  private void run(ImportJob job, SpooledUpload upload, User user) {
+    try {
+      job.parsing();
+      ExcelImportResult importResult =
+          MaterialFileFormat.of(upload) == MaterialFileFormat.CSV
+              ? csvParser.parseCsv(upload, job::parsed)
+              : excelParser.parseExcelSheet(upload, job::parsed);
+      // The file is not needed while the materials are saved.
+      upload.close();
+      if (importResult.getErrorMessage() != null) {
+        job.fail(importResult.getErrorMessage());
+        return;
+      }
+      job.saving();
+      String errMsg =
+          job.getMode() == ImportMode.APPEND
+              ? appendInChunks(job, importResult.getRows(), user)
+              : applyImport(job, importResult.getRows(), user);
+      if (errMsg != null) {
+        job.fail(errMsg);
+      } else {
+        job.done();
+      }
+    } catch (RuntimeException ex) {
+      job.fail("The import stopped because of an unexpected error.");
+    } finally {
+      upload.close();
+    }
+  }
+
+  /**
+   * Checks all names against the stored ones first, so a duplicate fails the import before any
+   * chunk is committed.
+   */
+  private String appendInChunks(ImportJob job, List<ImportedRow> rows, User user) {
+    MaterialImportDiff diff = materialImportService.diff(rows, user, ImportMode.APPEND);
+    if (diff.getDuplicateName() != null || diff.getInserts().size() != rows.size()) {
+      return DUPLICATES_ERR_MSG;
+    }
+    List<Material> materials = diff.getInserts();
+    int chunkSize = calculatorProperties.getImports().getChunkSize();
+    for (int from = 0; from < materials.size(); from += chunkSize) {
+      int to = Math.min(from + chunkSize, materials.size());
+      String errMsg = materialImportService.appendMaterials(materials.subList(from, to), user);
+      if (errMsg != null) {
+        return errMsg;
+      }
+      job.saved(to);
+    }
+    return null;
+  }
+
+  /** Upserts and replacements compare the whole file with the catalog in one transaction. */
+  private String applyImport(ImportJob job, List<ImportedRow> rows, User user) {
+    String errMsg = materialImportService.applyImport(rows, user, job.getMode());
+    if (errMsg == null) {
+      job.saved(rows.size());
+    }
+    return errMsg;
+  }
+
+  private void removeExpiredJobs() {
+    Instant expired = Instant.now().minus(calculatorProperties.getImports().getRetention());
+    jobs.values()
+        .removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(expired));
+  }
+
+  private static ExecutorService newWorkerPool(CalculatorProperties.Imports imports) {
+    return new ThreadPoolExecutor(
+        imports.getWorkers(),
+        imports.getWorkers(),
+        0,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(imports.getQueueCapacity()),
+        Thread.ofPlatform().name("material-import-", 0).factory());
+  }
+}
@@ -0,0 +1,137 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.config.RepricingMode;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialImportDiff;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class MaterialImportService {
+  /** SQL Server accepts up to 2100 parameters per statement. */
+  private static final int ID_CHUNK_SIZE = 1_000;
+
+  private final MaterialRepository materialRepository;
+  private final CalculationService calculationService;
+  private final MaterialCatalogCache materialCatalogCache;
+  private final CalculatorProperties calculatorProperties;
+
+  /**
+   * Applies the rows of an imported file as a {@link MaterialImportDiff} against the user's stored
+   * materials in one transaction. New names are inserted and changed materials are updated in JDBC
+   * batches, missing ones are deleted with one statement per chunk, and only the calculations using
+   * a material whose type or price changed are repriced.
+   *
+   * @param rows the validated rows of the file.
+   * @param mode {@link ImportMode#UPSERT} or {@link ImportMode#REPLACE}, a replacement needs at
+   *     least one row.
+   * @return String containing why the import failed or {@code null} if it was applied.
+   */
+  @Transactional
+  public String applyImport(List<ImportedRow> rows, User user, ImportMode mode) {
+    if (mode == ImportMode.REPLACE && rows.isEmpty()) {
+      // An empty file would delete every material of the user.
+      return "A replacing import needs at least one material.";
+    }
+    MaterialImportDiff diff =
+        MaterialImportDiff.of(
+            materialRepository.findAllByUserOrderByType(user), rows, mode == ImportMode.REPLACE);
+    if (diff.getDuplicateName() != null) {
+      return "Import names cannot contain any duplicates.";
+    }
+    if (diff.isEmpty()) {
+      return null;
+    }
+
+    diff.getInserts().forEach(material -> material.setUser(user));
+    diff.getUpdates().forEach(MaterialImportDiff.Update::apply);
+    try {
+      materialRepository.saveAll(diff.getInserts());
+      // Sends the inserts and the updates of the changed materials as batches.
+      materialRepository.flush();
+    } catch (DataIntegrityViolationException ex) {
+      setRollbackOnly();
+      return "Import names cannot contain any duplicates.";
+    }
+    materialCatalogCache.invalidate(user);
+
+    for (MaterialImportDiff.Update update : diff.getUpdates()) {
+      Material material = update.material();
+      if (update.typeChanged()) {
+        calculationService.updateRoomsAndCalculationsOnMaterialUpdate(material, user);
+        continue;
+      }
+      if (update.nameChanged()) {
+        calculationService.renameMaterialInRooms(material);
+      }
+      if (update.priceChanged()
+          && calculatorProperties.getRepricing().getMode() == RepricingMode.SQL) {
+        calculationService.updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(material);
+      } else if (update.priceChanged()) {
+        calculationService.updateRoomsAndCalculationsOnMaterialPriceChange(material);
+      }
+    }
+
+    // Last, releasing the deleted materials clears the persistence context.
+    List<UUID> deletedIds = diff.getDeletions().stream().map(Material::getMaterialId).toList();
+    for (int from = 0; from < deletedIds.size(); from += ID_CHUNK_SIZE) {
+      List<UUID> chunk =
+          deletedIds.subList(from, Math.min(from + ID_CHUNK_SIZE, deletedIds.size()));
+      calculationService.releaseMaterials(chunk);
+      materialRepository.deleteAllByIdInBatch(chunk);
+    }
+    return null;
+  }
+
+  /**
+   * Compares the rows of an imported file with the user's stored materials without changing them.
+   *
+   * @see MaterialImportDiff#of(List, List, boolean)
+   */
+  @Transactional(readOnly = true)
+  public MaterialImportDiff diff(List<ImportedRow> rows, User user, ImportMode mode) {
+    return MaterialImportDiff.of(
+        materialRepository.findAllByUserOrderByType(user), rows, mode == ImportMode.REPLACE);
+  }
+
+  /**
+   * Inserts new materials of an imported file in one transaction, imports that run in the
+   * background call it once per chunk of the file.
+   *
+   * @param materials the new materials, without a user.
+   * @return String containing why the materials were not saved or {@code null} if they were.
+   */
+  @Transactional
+  public String appendMaterials(List<Material> materials, User user) {
+    materials.forEach(material -> material.setUser(user));
+    try {
+      materialRepository.saveAll(materials);
+      materialRepository.flush();
+    } catch (DataIntegrityViolationException ex) {
+      setRollbackOnly();
+      return "Import names cannot contain any duplicates.";
+    }
+    materialCatalogCache.invalidate(user);
+    return null;
+  }
+
+  private void setRollbackOnly() {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+    }
+  }
+}
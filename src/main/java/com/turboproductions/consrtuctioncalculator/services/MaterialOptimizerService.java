@@ -0,0 +1,226 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.OptimizationRequest;
+import com.turboproductions.consrtuctioncalculator.models.views.OptimizationView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.AssignmentSearch;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import com.turboproductions.consrtuctioncalculator.services.helpers.PricingEngine;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds the cheapest materials from the user's catalog for a set of rooms. Every surface of every
+ * room is a slot of an {@link AssignmentSearch}, or one slot for all rooms when they have to share
+ * a material. The price of a surface only grows with the price of its material, so the options of
+ * a slot are read from the catalog's price ordering, and only as many of them are kept as
+ * combinations were asked for: a combination using a more expensive option could be made cheaper
+ * in that many ways.
+ */
+@Service
+public class MaterialOptimizerService {
+  private final MaterialCatalogCache materialCatalogCache;
+  private final PricingEngine pricingEngine;
+  private final CalculatorProperties calculatorProperties;
+  private final ForkJoinPool pool;
+
+  public MaterialOptimizerService(
+      MaterialCatalogCache materialCatalogCache,
+      PricingEngine pricingEngine,
+      CalculatorProperties calculatorProperties) {
+    this.materialCatalogCache = materialCatalogCache;
+    this.pricingEngine = pricingEngine;
+    this.calculatorProperties = calculatorProperties;
+    this.pool = new ForkJoinPool(calculatorProperties.getOptimizer().getParallelism());
+  }
+
+  /**
+   * Searches the cheapest material combinations that meet the constraints of the request. When
+   * {@code calculator.optimizer.time-limit} passes first, the best combinations found so far are
+   * returned.
+   *
+   * @return the combinations from the cheapest or why the request cannot be optimized.
+   */
+  public OptimizationView optimize(OptimizationRequest request, User user) {
+    long deadlineNanos =
+        System.nanoTime() + calculatorProperties.getOptimizer().getTimeLimit().toNanos();
+    String errMsg = validateRequest(request);
+    if (errMsg != null) {
+      return OptimizationView.rejected(errMsg);
+    }
+    MaterialCatalog catalog = materialCatalogCache.getCatalog(user);
+    List<OptimizationRequest.RoomRequest> rooms = request.rooms();
+    List<Slot> slots = new ArrayList<>();
+    // The slot of each surface type and room.
+    int[][] slotIndexes = new int[MaterialType.values().length][rooms.size()];
+    for (MaterialType type : MaterialType.values()) {
+      if (isSameMaterial(request, type)) {
+        Slot slot = createSlot(catalog, rooms, type, -1, request.results());
+        if (slot.materials().isEmpty()) {
+          return OptimizationView.rejected(
+              String.format("No %s material is allowed in every room.", nameOf(type)));
+        }
+        Arrays.fill(slotIndexes[type.ordinal()], slots.size());
+        slots.add(slot);
+        continue;
+      }
+      for (int room = 0; room < rooms.size(); room++) {
+        Slot slot = createSlot(catalog, rooms, type, room, request.results());
+        if (slot.materials().isEmpty()) {
+          return OptimizationView.rejected(
+              String.format("No allowed %s material for room %s.", nameOf(type), room + 1));
+        }
+        slotIndexes[type.ordinal()][room] = slots.size();
+        slots.add(slot);
+      }
+    }
+
+    long[][] costs = slots.stream().map(Slot::costs).toArray(long[][]::new);
+    long budget = request.budget() == null ? Long.MAX_VALUE : Math.round(request.budget() * 100);
+    AssignmentSearch.Result result =
+        AssignmentSearch.search(costs, budget, request.results(), deadlineNanos, pool);
+    List<OptimizationView.Combination> combinations = new ArrayList<>();
+    for (AssignmentSearch.Assignment assignment : result.assignments()) {
+      combinations.add(toCombination(assignment, slots, slotIndexes, rooms));
+    }
+    return new OptimizationView(combinations, result.complete(), null);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private String validateRequest(OptimizationRequest request) {
+    List<OptimizationRequest.RoomRequest> rooms = request.rooms();
+    if (rooms == null || rooms.isEmpty() || rooms.contains(null)) {
+      return "An optimization needs at least one room.";
+    }
+    int maxRooms = calculatorProperties.getLargeProjects().getMaxRooms();
+    if (rooms.size() > maxRooms) {
+      return String.format("An optimization can have up to %s rooms.", maxRooms);
+    }
+    int maxResults = calculatorProperties.getOptimizer().getMaxResults();
+    if (request.results() < 1 || request.results() > maxResults) {
+      return String.format("The number of results must be between 1 and %s.", maxResults);
+    }
+    for (int i = 0; i < rooms.size(); i++) {
+      OptimizationRequest.RoomRequest room = rooms.get(i);
+      if (room.floorSqM() < 0 || room.wallSqM() < 0 || room.ceilingSqM() < 0) {
+        return String.format("Room %s has an area lower than 0.", i + 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Collects the cheapest allowed materials of the type and the price of the surface with each.
+   *
+   * @param room the index of the room or {@code -1} for one slot shared by all rooms.
+   */
+  private Slot createSlot(
+      MaterialCatalog catalog,
+      List<OptimizationRequest.RoomRequest> rooms,
+      MaterialType type,
+      int room,
+      int limit) {
+    List<OptimizationRequest.RoomRequest> slotRooms = room < 0 ? rooms : List.of(rooms.get(room));
+    List<Set<String>> allowedNames = new ArrayList<>();
+    for (OptimizationRequest.RoomRequest slotRoom : slotRooms) {
+      List<String> names = allowedMaterialsOf(slotRoom, type);
+      if (names != null && !names.isEmpty()) {
+        allowedNames.add(new HashSet<>(names));
+      }
+    }
+    List<Material> materials = new ArrayList<>(limit);
+    for (Material material : catalog.getMaterialsByPrice(type)) {
+      if (materials.size() == limit) {
+        break;
+      }
+      if (allowedNames.stream().allMatch(names -> names.contains(material.getName()))) {
+        materials.add(material);
+      }
+    }
+    long[] costs = new long[materials.size()];
+    for (int option = 0; option < costs.length; option++) {
+      for (OptimizationRequest.RoomRequest slotRoom : slotRooms) {
+        costs[option] += surfaceCost(materials.get(option), slotRoom, type);
+      }
+    }
+    return new Slot(materials, costs);
+  }
+
+  private OptimizationView.Combination toCombination(
+      AssignmentSearch.Assignment assignment,
+      List<Slot> slots,
+      int[][] slotIndexes,
+      List<OptimizationRequest.RoomRequest> rooms) {
+    List<OptimizationView.RoomMaterials> roomMaterials = new ArrayList<>(rooms.size());
+    for (int room = 0; room < rooms.size(); room++) {
+      Material[] materials = new Material[MaterialType.values().length];
+      long price = 0;
+      for (MaterialType type : MaterialType.values()) {
+        int slot = slotIndexes[type.ordinal()][room];
+        Material material = slots.get(slot).materials().get(assignment.choices()[slot]);
+        materials[type.ordinal()] = material;
+        price += surfaceCost(material, rooms.get(room), type);
+      }
+      roomMaterials.add(
+          new OptimizationView.RoomMaterials(
+              materials[MaterialType.FLOOR.ordinal()].getName(),
+              materials[MaterialType.WALL.ordinal()].getName(),
+              materials[MaterialType.CEILING.ordinal()].getName(),
+              price / 100.0));
+    }
+    return new OptimizationView.Combination(assignment.cost() / 100.0, roomMaterials);
+  }
+
+  /** Returns the price of the surface covered with the material in hundredths. */
+  private long surfaceCost(
+      Material material, OptimizationRequest.RoomRequest room, MaterialType type) {
+    double sqM =
+        switch (type) {
+          case FLOOR -> room.floorSqM();
+          case WALL -> room.wallSqM();
+          case CEILING -> room.ceilingSqM();
+        };
+    double price = pricingEngine.calculateSurfacePrice(material.getPricePerSqMeter(), sqM);
+    return Math.round(price * 100);
+  }
+
+  private static List<String> allowedMaterialsOf(
+      OptimizationRequest.RoomRequest room, MaterialType type) {
+    return switch (type) {
+      case FLOOR -> room.floorMaterials();
+      case WALL -> room.wallMaterials();
+      case CEILING -> room.ceilingMaterials();
+    };
+  }
+
+  private static boolean isSameMaterial(OptimizationRequest request, MaterialType type) {
+    return switch (type) {
+      case FLOOR -> request.sameFloorMaterial();
+      case WALL -> request.sameWallMaterial();
+      case CEILING -> request.sameCeilingMaterial();
+    };
+  }
+
+  private static String nameOf(MaterialType type) {
+    return type.name().toLowerCase(Locale.ROOT);
+  }
+
+  /** The cheapest materials of a slot and the price of its surfaces with each, in hundredths. */
+  private record Slot(List<Material> materials, long[] costs) {}
+}
@@ -1,28 +1,48 @@
 /* Construction Calculator - Alexander Stoyanov! 2024 */
 package com.turboproductions.consrtuctioncalculator.services;
 
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.config.RepricingMode;
 import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
 import com.turboproductions.consrtuctioncalculator.models.Material;
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.User;
 import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
 import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialFileFormat;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialSort;
+import com.turboproductions.consrtuctioncalculator.models.projections.MaterialOption;
+import com.turboproductions.consrtuctioncalculator.models.views.MaterialRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
 import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelSheetWriter;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
 import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import com.turboproductions.consrtuctioncalculator.services.helpers.SpooledUpload;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 @RequiredArgsConstructor
@@ -32,58 +52,86 @@ public class MaterialService {
   private final CalculationService calculationService;
   private final MaterialValidator materialValidator;
   private final ExcelParser excelParser;
+  private final CsvParser csvParser;
+  private final MaterialImportService materialImportService;
+  private final MaterialCatalogCache materialCatalogCache;
+  private final CalculatorProperties calculatorProperties;
 
-  public ByteArrayInputStream handleExcelExport(List<Material> materials) {
-    try (Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-      Sheet sheet = workbook.createSheet("Materials");
-      int rowNum = 0;
-      for (Material material : materials) {
-        Row row = sheet.createRow(rowNum++);
-        row.createCell(0, CellType.STRING).setCellValue(material.getName());
-        row.createCell(1, CellType.STRING).setCellValue(material.getType().toString());
-        row.createCell(2, CellType.NUMERIC).setCellValue(material.getPricePerSqMeter());
-      }
-      workbook.write(outputStream);
-      return new ByteArrayInputStream(outputStream.toByteArray());
-    } catch (IOException ex) {
-      return null;
-    }
+  /** Writes the materials to the stream as a workbook with one row per material. */
+  public void writeExcelExport(List<Material> materials, OutputStream outputStream)
+      throws IOException {
+    writeMaterialSheet("Materials", materials, outputStream);
   }
 
-  public ByteArrayInputStream getTemplate() {
-    try (Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-      Sheet sheet = workbook.createSheet("Template for importing");
-      List<Material> materials = loadDataForTemplate();
-      int rowNum = 0;
-      for (Material material : materials) {
-        Row row = sheet.createRow(rowNum++);
-        row.createCell(0, CellType.STRING).setCellValue(material.getName());
-        row.createCell(1, CellType.STRING).setCellValue(material.getType().toString());
-        row.createCell(2, CellType.NUMERIC).setCellValue(material.getPricePerSqMeter());
-      }
-      workbook.write(outputStream);
-      return new ByteArrayInputStream(outputStream.toByteArray());
-    } catch (IOException ex) {
-      return null;
+  /** Writes an example import file to the stream. */
+  public void writeTemplate(OutputStream outputStream) throws IOException {
+    writeMaterialSheet("Template for importing", loadDataForTemplate(), outputStream);
+  }
+
+  /**
+   * Writes the materials to the stream as CSV lines of name, type and price, the format {@link
+   * #handleExcelImport(MultipartFile, User)} reads back.
+   */
+  public void writeCsvExport(List<Material> materials, OutputStream outputStream)
+      throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    for (Material material : materials) {
+      writer.write(toCsvField(material.getName()));
+      writer.write(',');
+      writer.write(material.getType().name());
+      writer.write(',');
+      writer.write(BigDecimal.valueOf(material.getPricePerSqMeter()).toPlainString());
+      writer.write("\r\n");
     }
+    writer.flush();
   }
 
+  /** Imports the file in {@link ImportMode#APPEND} mode. */
   public String handleExcelImport(MultipartFile excelFile, User user) {
+    return handleExcelImport(excelFile, user, ImportMode.APPEND);
+  }
+
+  /**
+   * Reads and validates the file in a single streaming pass and then applies all its materials in
+   * one transaction, so no connection is held while the file is read. The file is spooled to disk
+   * once and read from there. CSV files are told apart from workbooks by their extension or content
+   * type.
+   *
+   * @param mode whether the rows are only inserted or merged into the stored materials.
+   */
+  public String handleExcelImport(MultipartFile excelFile, User user, ImportMode mode) {
     String errMessage = materialValidator.validateExcelDataTemplate(excelFile);
     if (errMessage == null) {
-      ExcelImportResult importResult = excelParser.parseExcelSheet(excelFile).orElse(null);
-      if (importResult != null) {
+      ExcelImportResult importResult;
+      try (SpooledUpload upload =
+          SpooledUpload.of(excelFile, calculatorProperties.getUploads().getSpoolDirectory())) {
+        importResult =
+            MaterialFileFormat.of(upload) == MaterialFileFormat.CSV
+                ? csvParser.parseCsv(upload)
+                : excelParser.parseExcelSheet(upload);
+      } catch (IOException ex) {
+        return "Error in import file.";
+      }
+      errMessage = importResult.getErrorMessage();
+      if (errMessage == null && mode != ImportMode.APPEND) {
+        errMessage = materialImportService.applyImport(importResult.getRows(), user, mode);
+      } else if (errMessage == null) {
         List<Material> materialsToBeSaved =
             importResult.getRows().stream().map(this::toMaterial).toList();
         materialsToBeSaved.forEach(x -> x.setUser(user));
         errMessage = saveAllMaterials(materialsToBeSaved);
+        materialCatalogCache.invalidate(user);
       }
     }
     return errMessage;
   }
 
+  /**
+   * Updates a material and reprices the calculations using it in one transaction, a failure leaves
+   * neither the material nor the calculations changed.
+   */
+  @Transactional
   public String handleUpdateMaterial(Material material, User user) {
     Material toBeUpdated = getMaterial(material.getMaterialId());
     if (toBeUpdated != null) {
@@ -91,15 +139,39 @@ public class MaterialService {
           materialValidator.validateMaterialProperties(
               material.getName(), material.getPricePerSqMeter());
       if (errMsg == null) {
-        material.setUser(user);
-        errMsg = saveMaterial(material);
-        calculationService.updateRoomsAndCalculationsOnMaterialUpdate(material, user);
+        boolean nameChanged = !toBeUpdated.getName().equals(material.getName());
+        boolean typeChanged = toBeUpdated.getType() != material.getType();
+        boolean priceChanged = toBeUpdated.getPricePerSqMeter() != material.getPricePerSqMeter();
+        // The submitted material is a new instance, update the stored one so it is not inserted.
+        toBeUpdated.setName(material.getName());
+        toBeUpdated.setType(material.getType());
+        toBeUpdated.setPricePerSqMeter(material.getPricePerSqMeter());
+        toBeUpdated.setUser(user);
+        errMsg = saveMaterial(toBeUpdated);
+        materialCatalogCache.invalidate(user);
+        if (errMsg != null) {
+          return errMsg;
+        }
+        if (typeChanged) {
+          calculationService.updateRoomsAndCalculationsOnMaterialUpdate(toBeUpdated, user);
+          return null;
+        }
+        if (nameChanged) {
+          calculationService.renameMaterialInRooms(toBeUpdated);
+        }
+        if (priceChanged && calculatorProperties.getRepricing().getMode() == RepricingMode.SQL) {
+          calculationService.updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(
+              toBeUpdated);
+        } else if (priceChanged) {
+          calculationService.updateRoomsAndCalculationsOnMaterialPriceChange(toBeUpdated);
+        }
       }
       return errMsg;
     }
     return "Error with Material";
   }
 
+  @Transactional
   public String handleCreateMaterial(Material material, User user) {
     if (material != null) {
       String msg =
@@ -108,33 +180,78 @@ public class MaterialService {
       if (msg == null) {
         material.setUser(user);
         msg = saveMaterial(material);
+        materialCatalogCache.invalidate(user);
       }
       return msg;
     }
     return "Error with Material";
   }
 
+  @Transactional(readOnly = true)
   public Material getMaterial(UUID id) {
     Optional<Material> material = materialRepository.findById(id);
     return material.orElse(null);
   }
 
-  public void deleteMaterialById(UUID id) {
+  @Transactional
+  public void deleteMaterialById(UUID id, User user) {
     if (id != null) {
+      calculationService.releaseMaterial(id);
       materialRepository.deleteById(id);
+      materialCatalogCache.invalidate(user);
     }
   }
 
+  @Transactional(readOnly = true)
   public List<Material> getAllMaterials(User user) {
     return materialRepository.findAllByUserOrderByType(user);
   }
 
+  /**
+   * Returns a page of the user's materials. Pages are read with keyset pagination, so reading a
+   * page costs the same no matter how far into the list it is.
+   *
+   * @param after the id of the last material of the previous page or {@code null} for the first
+   *     page.
+   * @param sort the order of the materials.
+   * @param type only returns materials of this type, {@code null} returns all.
+   * @return the materials of the page and the cursor of the next one.
+   */
+  @Transactional(readOnly = true)
+  public PageView<MaterialRowView> getMaterials(
+      User user, UUID after, MaterialSort sort, MaterialType type) {
+    ScrollPosition position = ScrollPosition.keyset();
+    if (after != null) {
+      position =
+          materialRepository
+              .findByMaterialIdAndUser(after, user)
+              .<ScrollPosition>map(last -> ScrollPosition.forward(sort.keysOf(last)))
+              .orElse(position);
+    }
+    Limit limit = Limit.of(calculatorProperties.getListing().getPageSize());
+    Window<MaterialOption> materials =
+        type == null
+            ? materialRepository.findByUser(user, position, sort.getSort(), limit)
+            : materialRepository.findByUserAndType(user, type, position, sort.getSort(), limit);
+    return PageView.of(materials, MaterialRowView::of, MaterialRowView::materialId);
+  }
+
+  @Transactional(readOnly = true)
+  public boolean hasMaterials(User user) {
+    return materialRepository.existsByUser(user);
+  }
+
+  public MaterialCatalog getCatalog(User user) {
+    return materialCatalogCache.getCatalog(user);
+  }
+
   public List<Material> filterByType(List<Material> materials, MaterialType materialType) {
     return materials.stream().filter(m -> m.getType() == materialType).toList();
   }
 
   private String saveAllMaterials(List<Material> materials) {
     try {
+      // One transaction for the whole file, the inserts are sent in JDBC batches.
       materialRepository.saveAll(materials);
       return null;
     } catch (DataIntegrityViolationException ex) {
@@ -144,13 +261,48 @@ public class MaterialService {
 
   private String saveMaterial(Material material) {
     try {
-      materialRepository.save(material);
+      // Flushed here so a duplicate name is reported instead of failing the commit.
+      materialRepository.saveAndFlush(material);
       return null;
     } catch (DataIntegrityViolationException ex) {
+      setRollbackOnly();
       return String.format("A material with name '%s' already exists.", material.getName());
     }
   }
 
+  private void setRollbackOnly() {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+    }
+  }
+
+  private void writeMaterialSheet(
+      String sheetName, List<Material> materials, OutputStream outputStream) throws IOException {
+    ExcelSheetWriter.writeSheet(
+        sheetName,
+        calculatorProperties.getExport().getRowWindow(),
+        sheet -> {
+          int rowNum = 0;
+          for (Material material : materials) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0, CellType.STRING).setCellValue(material.getName());
+            row.createCell(1, CellType.STRING).setCellValue(material.getType().toString());
+            row.createCell(2, CellType.NUMERIC).setCellValue(material.getPricePerSqMeter());
+          }
+        },
+        outputStream);
+  }
+
+  private static String toCsvField(String value) {
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
   private List<Material> loadDataForTemplate() {
     return List.of(
         new Material("Blue Paint", MaterialType.WALL, 0.40),
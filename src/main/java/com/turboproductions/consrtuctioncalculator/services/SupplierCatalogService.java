@@ -0,0 +1,232 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialFileFormat;
+import com.turboproductions.consrtuctioncalculator.models.views.RequoteView;
+import com.turboproductions.consrtuctioncalculator.models.views.SupplierCatalogView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
+import com.turboproductions.consrtuctioncalculator.services.helpers.PricingEngine;
+import com.turboproductions.consrtuctioncalculator.services.helpers.RoomSurfaces;
+import com.turboproductions.consrtuctioncalculator.services.helpers.SpooledUpload;
+import com.turboproductions.consrtuctioncalculator.services.helpers.SupplierCatalog;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Keeps the price lists of suppliers and prices saved calculations against them. Catalogs are
+ * imported from files in the material import format and held in memory as {@link
+ * SupplierCatalog}s until they are removed or the application stops, they never change the
+ * user's materials or calculations. A re-quote reads the surfaces of the calculation once and
+ * prices them against every catalog in parallel.
+ */
+@Service
+public class SupplierCatalogService {
+  private final MaterialValidator materialValidator;
+  private final ExcelParser excelParser;
+  private final CsvParser csvParser;
+  private final CalculationService calculationService;
+  private final PricingEngine pricingEngine;
+  private final CalculatorProperties calculatorProperties;
+  private final ForkJoinPool pool;
+  private final ConcurrentMap<UUID, Map<String, SupplierCatalog>> catalogs =
+      new ConcurrentHashMap<>();
+
+  public SupplierCatalogService(
+      MaterialValidator materialValidator,
+      ExcelParser excelParser,
+      CsvParser csvParser,
+      CalculationService calculationService,
+      PricingEngine pricingEngine,
+      CalculatorProperties calculatorProperties) {
+    this.materialValidator = materialValidator;
+    this.excelParser = excelParser;
+    this.csvParser = csvParser;
+    this.calculationService = calculationService;
+    this.pricingEngine = pricingEngine;
+    this.calculatorProperties = calculatorProperties;
+    this.pool = new ForkJoinPool(calculatorProperties.getSupplierCatalogs().getParallelism());
+  }
+
+  /**
+   * Reads a catalog from the file, it replaces the user's catalog with the same name.
+   *
+   * @param name the name of the catalog, the name of the file without its extension when blank.
+   * @return the {@link SupplierCatalogView}, with an error if the file was rejected.
+   */
+  public SupplierCatalogView importCatalog(MultipartFile file, String name, User user) {
+    String catalogName = name == null || name.isBlank() ? nameOf(file) : name.trim();
+    String errMsg = materialValidator.validateExcelDataTemplate(file);
+    if (errMsg != null) {
+      return SupplierCatalogView.rejected(catalogName, errMsg);
+    }
+    Map<String, SupplierCatalog> userCatalogs = getUserCatalogs(user);
+    // Checked again when the catalog is added, this saves reading a file that cannot be kept.
+    errMsg = checkCatalogLimit(userCatalogs, catalogName);
+    if (errMsg != null) {
+      return SupplierCatalogView.rejected(catalogName, errMsg);
+    }
+
+    ExcelImportResult importResult;
+    try (SpooledUpload upload =
+        SpooledUpload.of(file, calculatorProperties.getUploads().getSpoolDirectory())) {
+      importResult =
+          MaterialFileFormat.of(upload) == MaterialFileFormat.CSV
+              ? csvParser.parseCsv(upload)
+              : excelParser.parseExcelSheet(upload);
+    } catch (IOException ex) {
+      return SupplierCatalogView.rejected(catalogName, "Error in import file.");
+    }
+    if (importResult.getErrorMessage() != null) {
+      return SupplierCatalogView.rejected(catalogName, importResult.getErrorMessage());
+    }
+    int maxMaterials = calculatorProperties.getSupplierCatalogs().getMaxMaterials();
+    if (importResult.getRows().size() > maxMaterials) {
+      return SupplierCatalogView.rejected(
+          catalogName, String.format("A catalog can have up to %s materials.", maxMaterials));
+    }
+    SupplierCatalog catalog = SupplierCatalog.of(catalogName, importResult.getRows());
+    if (catalog == null) {
+      return SupplierCatalogView.rejected(
+          catalogName, "Import names cannot contain any duplicates.");
+    }
+    // Concurrent imports of the same user add their catalogs one at a time, so they cannot go
+    // over the limit together.
+    synchronized (userCatalogs) {
+      errMsg = checkCatalogLimit(userCatalogs, catalogName);
+      if (errMsg != null) {
+        return SupplierCatalogView.rejected(catalogName, errMsg);
+      }
+      userCatalogs.put(keyOf(catalogName), catalog);
+    }
+    return SupplierCatalogView.of(catalog);
+  }
+
+  /** Returns the user's catalogs ordered by name. */
+  public List<SupplierCatalogView> getCatalogs(User user) {
+    return getUserCatalogs(user).values().stream()
+        .sorted(Comparator.comparing(catalog -> keyOf(catalog.getName())))
+        .map(SupplierCatalogView::of)
+        .toList();
+  }
+
+  /**
+   * @param name the name of the catalog, in any case.
+   * @return whether the user had a catalog with the name.
+   */
+  public boolean removeCatalog(String name, User user) {
+    return getUserCatalogs(user).remove(keyOf(name)) != null;
+  }
+
+  /**
+   * Prices a saved calculation against the user's catalogs. Rooms are priced with the area they
+   * were saved with and the catalog's price of the material with the same name and type.
+   *
+   * @param catalogNames the catalogs to compare, all of the user's catalogs when empty.
+   * @return the {@link RequoteView}, with an error if a catalog does not exist, or {@code null}
+   *     if the user has no calculation with the id.
+   */
+  public RequoteView requote(UUID calculationId, List<String> catalogNames, User user) {
+    ConstructionCalculation calculation = calculationService.getCalculationWithRooms(calculationId);
+    if (calculation == null
+        || calculation.getUser() == null
+        || !calculation.getUser().getUserId().equals(user.getUserId())) {
+      return null;
+    }
+    Map<String, SupplierCatalog> userCatalogs = getUserCatalogs(user);
+    List<SupplierCatalog> selected = new ArrayList<>();
+    if (catalogNames == null || catalogNames.isEmpty()) {
+      selected.addAll(userCatalogs.values());
+    } else {
+      for (String catalogName : catalogNames) {
+        SupplierCatalog catalog = userCatalogs.get(keyOf(catalogName));
+        if (catalog == null) {
+          return RequoteView.rejected(String.format("Unknown catalog '%s'.", catalogName));
+        }
+        selected.add(catalog);
+      }
+    }
+    if (selected.isEmpty()) {
+      return RequoteView.rejected("Import a catalog to re-quote calculations.");
+    }
+
+    RoomSurfaces surfaces = RoomSurfaces.of(calculation.getRoomCalculations());
+    double currentPrice = calculation.getCalculationPrice();
+    List<RequoteView.CatalogQuote> quotes =
+        pool.submit(
+                () ->
+                    selected.parallelStream()
+                        .distinct()
+                        .map(catalog -> quote(catalog, surfaces, currentPrice))
+                        .sorted(
+                            Comparator.comparing(
+                                    RequoteView.CatalogQuote::price,
+                                    Comparator.nullsLast(Comparator.naturalOrder()))
+                                .thenComparing(quote -> keyOf(quote.catalog())))
+                        .toList())
+            .join();
+    return RequoteView.of(calculation, quotes);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private RequoteView.CatalogQuote quote(
+      SupplierCatalog catalog, RoomSurfaces surfaces, double currentPrice) {
+    double[] prices = surfaces.getPrices(catalog);
+    List<String> missingMaterials = surfaces.getMissingMaterials(prices);
+    if (!missingMaterials.isEmpty()) {
+      return new RequoteView.CatalogQuote(catalog.getName(), null, null, missingMaterials);
+    }
+    double price = surfaces.price(prices, pricingEngine);
+    return new RequoteView.CatalogQuote(
+        catalog.getName(), price, pricingEngine.add(price, -currentPrice), List.of());
+  }
+
+  /**
+   * @return String containing why the catalog cannot be added or {@code null} if it can, a catalog
+   *     replacing one with the same name is always accepted.
+   */
+  private String checkCatalogLimit(Map<String, SupplierCatalog> userCatalogs, String catalogName) {
+    int maxCatalogs = calculatorProperties.getSupplierCatalogs().getMaxCatalogs();
+    if (!userCatalogs.containsKey(keyOf(catalogName)) && userCatalogs.size() >= maxCatalogs) {
+      return String.format("You can keep up to %s catalogs.", maxCatalogs);
+    }
+    return null;
+  }
+
+  private Map<String, SupplierCatalog> getUserCatalogs(User user) {
+    return catalogs.computeIfAbsent(user.getUserId(), userId -> new ConcurrentHashMap<>());
+  }
+
+  private static String nameOf(MultipartFile file) {
+    String fileName = file.getOriginalFilename();
+    if (fileName == null) {
+      return "";
+    }
+    int extension = fileName.lastIndexOf('.');
+    return extension > 0 ? fileName.substring(0, extension) : fileName;
+  }
+
+  private static String keyOf(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
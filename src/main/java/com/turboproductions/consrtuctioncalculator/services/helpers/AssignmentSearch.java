@@ -0,0 +1,237 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Branch-and-bound search for the cheapest ways to pick one option per slot, where every option has
+ * a fixed cost and the cost of a pick is the sum of its options. A partial pick is pruned as soon
+ * as its cost plus the cheapest options of the remaining slots cannot beat the results found so
+ * far. The first levels of the search tree are expanded up front and their subtrees are searched
+ * in parallel, sharing the results so every thread prunes with the best bound known.
+ */
+public final class AssignmentSearch {
+  /** How many nodes are visited between two looks at the clock. */
+  private static final int DEADLINE_CHECK_INTERVAL = 4_096;
+
+  /** The number of subtrees per thread, so threads that finish early can take another one. */
+  private static final int SUBTREES_PER_THREAD = 4;
+
+  /** The deepest level expanded into subtrees, only slots without alternatives are left below. */
+  private static final int MAX_EXPANDED_DEPTH = 64;
+
+  private final long[][] costs;
+  private final int[] slotOrder;
+  private final long[] remainingMinimum;
+  private final Results results;
+  private final long deadlineNanos;
+  private final AtomicBoolean timedOut = new AtomicBoolean();
+
+  private AssignmentSearch(long[][] costs, long budget, int limit, long deadlineNanos) {
+    int slots = costs.length;
+    // Slots whose second option costs much more than the first are decided first, the cheap
+    // alternatives deep in the tree are then found with short descents. Slots with a single option
+    // come last.
+    this.slotOrder =
+        IntStream.range(0, slots)
+            .boxed()
+            .sorted(Comparator.comparingLong((Integer slot) -> gapOf(costs[slot])).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray();
+    this.costs = new long[slots][];
+    for (int depth = 0; depth < slots; depth++) {
+      this.costs[depth] = costs[slotOrder[depth]];
+    }
+    this.remainingMinimum = new long[slots + 1];
+    for (int depth = slots - 1; depth >= 0; depth--) {
+      remainingMinimum[depth] = remainingMinimum[depth + 1] + this.costs[depth][0];
+    }
+    this.results = new Results(limit, budget);
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * Finds the cheapest picks that fit the budget.
+   *
+   * @param costs the costs of the options of every slot, each sorted from the cheapest and with at
+   *     least one option.
+   * @param budget the highest cost a pick can have.
+   * @param limit the number of picks to return.
+   * @param deadlineNanos the {@link System#nanoTime()} after which the best picks found so far are
+   *     returned.
+   * @param executor runs the subtrees of the search.
+   * @return the picks from the cheapest, the option index of each slot in the order of the slots.
+   */
+  public static Result search(
+      long[][] costs, long budget, int limit, long deadlineNanos, ExecutorService executor) {
+    AssignmentSearch search = new AssignmentSearch(costs, budget, limit, deadlineNanos);
+    if (search.remainingMinimum[0] > budget) {
+      return new Result(List.of(), true);
+    }
+    int threads = executor instanceof ForkJoinPool pool ? pool.getParallelism() : 1;
+    List<Prefix> subtrees = search.expand(threads * SUBTREES_PER_THREAD);
+    List<Callable<Void>> tasks = new ArrayList<>(subtrees.size());
+    for (Prefix subtree : subtrees) {
+      tasks.add(
+          () -> {
+            search.searchFrom(subtree);
+            return null;
+          });
+    }
+    try {
+      for (Future<Void> task : executor.invokeAll(tasks)) {
+        task.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      search.timedOut.set(true);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+    return new Result(search.results.toAssignments(search.slotOrder), !search.timedOut.get());
+  }
+
+  /** Expands the shallowest levels of the tree until there are enough subtrees to share. */
+  private List<Prefix> expand(int subtrees) {
+    List<Prefix> frontier = List.of(new Prefix(new int[0], 0));
+    int depth = 0;
+    while (frontier.size() < subtrees && depth < Math.min(costs.length, MAX_EXPANDED_DEPTH)) {
+      List<Prefix> next = new ArrayList<>();
+      for (Prefix prefix : frontier) {
+        for (int option = 0; option < costs[depth].length; option++) {
+          long cost = prefix.cost() + costs[depth][option];
+          if (cost + remainingMinimum[depth + 1] > results.threshold()) {
+            break;
+          }
+          int[] choices = Arrays.copyOf(prefix.choices(), depth + 1);
+          choices[depth] = option;
+          next.add(new Prefix(choices, cost));
+        }
+      }
+      frontier = next;
+      depth++;
+    }
+    // The cheapest subtrees are searched first and fill the results with a tight bound.
+    return frontier.stream().sorted(Comparator.comparingLong(Prefix::cost)).toList();
+  }
+
+  private void searchFrom(Prefix prefix) {
+    if (timedOut.get()) {
+      return;
+    }
+    int slots = costs.length;
+    int start = prefix.choices().length;
+    if (start == slots) {
+      results.offer(prefix.cost(), prefix.choices());
+      return;
+    }
+    int[] choices = Arrays.copyOf(prefix.choices(), slots);
+    long[] partialCosts = new long[slots + 1];
+    partialCosts[start] = prefix.cost();
+    choices[start] = -1;
+    int depth = start;
+    int visited = 0;
+    while (depth >= start) {
+      if (++visited % DEADLINE_CHECK_INTERVAL == 0
+          && (timedOut.get() || System.nanoTime() - deadlineNanos > 0)) {
+        timedOut.set(true);
+        return;
+      }
+      int option = ++choices[depth];
+      if (option >= costs[depth].length) {
+        depth--;
+        continue;
+      }
+      long cost = partialCosts[depth] + costs[depth][option];
+      if (cost + remainingMinimum[depth + 1] > results.threshold()) {
+        // The options are sorted, the next ones of this slot cost even more.
+        depth--;
+        continue;
+      }
+      if (depth + 1 == slots) {
+        results.offer(cost, choices);
+        continue;
+      }
+      partialCosts[depth + 1] = cost;
+      depth++;
+      choices[depth] = -1;
+    }
+  }
+
+  private static long gapOf(long[] options) {
+    return options.length > 1 ? options[1] - options[0] : -1;
+  }
+
+  /**
+   * @param assignments the picks from the cheapest one.
+   * @param complete whether the whole tree was searched, {@code false} if the deadline passed.
+   */
+  public record Result(List<Assignment> assignments, boolean complete) {}
+
+  /**
+   * @param cost the sum of the costs of the picked options.
+   * @param choices the index of the option picked for every slot.
+   */
+  public record Assignment(long cost, int[] choices) {}
+
+  private record Prefix(int[] choices, long cost) {}
+
+  /** The cheapest picks found by all threads, the most expensive one on top. */
+  private static final class Results {
+    private final int limit;
+    private final long budget;
+    private final PriorityQueue<Assignment> picks =
+        new PriorityQueue<>(Comparator.comparingLong(Assignment::cost).reversed());
+    private volatile long threshold;
+
+    private Results(int limit, long budget) {
+      this.limit = limit;
+      this.budget = budget;
+      this.threshold = budget;
+    }
+
+    /** The highest cost a pick can have to make it into the results. */
+    long threshold() {
+      return threshold;
+    }
+
+    synchronized void offer(long cost, int[] choices) {
+      if (cost > threshold) {
+        return;
+      }
+      picks.add(new Assignment(cost, choices.clone()));
+      if (picks.size() > limit) {
+        picks.poll();
+      }
+      if (picks.size() == limit) {
+        threshold = Math.min(budget, picks.peek().cost() - 1);
+      }
+    }
+
+    /** Returns the picks from the cheapest, with the choices in the order of the given slots. */
+    synchronized List<Assignment> toAssignments(int[] slotOrder) {
+      return picks.stream()
+          .sorted(Comparator.comparingLong(Assignment::cost))
+          .map(
+              pick -> {
+                int[] choices = new int[slotOrder.length];
+                for (int depth = 0; depth < slotOrder.length; depth++) {
+                  choices[slotOrder[depth]] = pick.choices()[depth];
+                }
+                return new Assignment(pick.cost(), choices);
+              })
+          .toList();
+    }
+  }
+}
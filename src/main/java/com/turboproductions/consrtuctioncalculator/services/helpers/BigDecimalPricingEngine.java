@@ -0,0 +1,80 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(
+    prefix = "calculator.pricing",
+    name = "engine",
+    havingValue = "big-decimal",
+    matchIfMissing = true)
+public class BigDecimalPricingEngine implements PricingEngine {
+
+  @Override
+  public void calculateRoomPrices(
+      RoomCalculation room,
+      double wallPricePerSqM,
+      double floorPricePerSqM,
+      double ceilingPricePerSqM) {
+    BigDecimal wallSqM = BigDecimal.valueOf(room.getWallSqM());
+    BigDecimal wallPrice =
+        BigDecimal.valueOf(wallPricePerSqM).multiply(wallSqM).setScale(2, RoundingMode.HALF_UP);
+    BigDecimal ceilingSqM = BigDecimal.valueOf(room.getCeilingSqM());
+    BigDecimal ceilingPrice =
+        BigDecimal.valueOf(ceilingPricePerSqM)
+            .multiply(ceilingSqM)
+            .setScale(2, RoundingMode.HALF_UP);
+    BigDecimal floorSqM = BigDecimal.valueOf(room.getFloorSqM());
+    BigDecimal floorPrice =
+        BigDecimal.valueOf(floorPricePerSqM).multiply(floorSqM).setScale(2, RoundingMode.HALF_UP);
+    BigDecimal roomPrice =
+        wallPrice.add(ceilingPrice).add(floorPrice).setScale(2, RoundingMode.HALF_UP);
+    BigDecimal roomArea = wallSqM.add(ceilingSqM).add(floorSqM).setScale(2, RoundingMode.HALF_UP);
+    room.setWallMaterialPrice(wallPrice.doubleValue());
+    room.setCeilingMaterialPrice(ceilingPrice.doubleValue());
+    room.setFloorMaterialPrice(floorPrice.doubleValue());
+    room.setRoomPrice(roomPrice.doubleValue());
+    room.setRoomArea(roomArea.doubleValue());
+  }
+
+  @Override
+  public double calculateSurfacePrice(double pricePerSqM, double sqM) {
+    return BigDecimal.valueOf(pricePerSqM)
+        .multiply(BigDecimal.valueOf(sqM))
+        .setScale(2, RoundingMode.HALF_UP)
+        .doubleValue();
+  }
+
+  @Override
+  public double add(double augend, double addend) {
+    return BigDecimal.valueOf(augend)
+        .add(BigDecimal.valueOf(addend))
+        .setScale(2, RoundingMode.HALF_UP)
+        .doubleValue();
+  }
+
+  @Override
+  public void calculateConstructionTotals(
+      ConstructionCalculation calculation, Collection<RoomCalculation> rooms) {
+    BigDecimal price = BigDecimal.ZERO;
+    BigDecimal sqM = BigDecimal.ZERO;
+    for (RoomCalculation roomCalculation : rooms) {
+      price =
+          price
+              .add(BigDecimal.valueOf(roomCalculation.getRoomPrice()))
+              .setScale(2, RoundingMode.HALF_UP);
+      sqM =
+          sqM.add(BigDecimal.valueOf(roomCalculation.getRoomArea()))
+              .setScale(2, RoundingMode.HALF_UP);
+    }
+    calculation.setCalculationPrice(price.doubleValue());
+    calculation.setSquareMeters(sqM.doubleValue());
+  }
+}
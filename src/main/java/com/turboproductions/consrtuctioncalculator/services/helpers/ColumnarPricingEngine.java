@@ -0,0 +1,62 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PricingEngine} that prices batches of rooms as {@link RoomColumns}. Single rooms, surfaces
+ * and totals are priced by the {@link FixedPointPricingEngine}, whose arithmetic the columns use,
+ * so every result is identical to the {@link BigDecimalPricingEngine}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "calculator.pricing", name = "engine", havingValue = "columnar")
+public class ColumnarPricingEngine implements PricingEngine {
+  private final FixedPointPricingEngine roomEngine = new FixedPointPricingEngine();
+
+  @Override
+  public void calculateRoomPrices(
+      RoomCalculation room,
+      double wallPricePerSqM,
+      double floorPricePerSqM,
+      double ceilingPricePerSqM) {
+    roomEngine.calculateRoomPrices(room, wallPricePerSqM, floorPricePerSqM, ceilingPricePerSqM);
+  }
+
+  @Override
+  public void calculateRoomPrices(List<RoomCalculation> rooms) {
+    RoomColumns columns = RoomColumns.of(rooms);
+    columns.price();
+    columns.writeTo(rooms);
+    BitSet fallbackRooms = columns.getFallbackRooms();
+    for (int i = fallbackRooms.nextSetBit(0); i >= 0; i = fallbackRooms.nextSetBit(i + 1)) {
+      RoomCalculation room = rooms.get(i);
+      roomEngine.calculateRoomPrices(
+          room,
+          room.getWallMaterialRef().getPricePerSqMeter(),
+          room.getFloorMaterialRef().getPricePerSqMeter(),
+          room.getCeilingMaterialRef().getPricePerSqMeter());
+    }
+  }
+
+  @Override
+  public double calculateSurfacePrice(double pricePerSqM, double sqM) {
+    return roomEngine.calculateSurfacePrice(pricePerSqM, sqM);
+  }
+
+  @Override
+  public double add(double augend, double addend) {
+    return roomEngine.add(augend, addend);
+  }
+
+  @Override
+  public void calculateConstructionTotals(
+      ConstructionCalculation calculation, Collection<RoomCalculation> rooms) {
+    roomEngine.calculateConstructionTotals(calculation, rooms);
+  }
+}
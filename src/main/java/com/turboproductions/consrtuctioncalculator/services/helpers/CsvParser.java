@@ -0,0 +1,362 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Reads materials from UTF-8 CSV files with the columns name, type and price and no header, as
+ * sent by systems that sync their catalog. The upload is read in blocks into one buffer and the
+ * fields are parsed where they are, only the name of a material is copied into a string.
+ */
+@RequiredArgsConstructor
+@Component
+public class CsvParser {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final MaterialType[] TYPES = MaterialType.values();
+  private static final byte[][] TYPE_NAMES =
+      Arrays.stream(TYPES)
+          .map(type -> type.name().getBytes(StandardCharsets.US_ASCII))
+          .toArray(byte[][]::new);
+
+  /** Doubles up to 10^22 are exact, so are longs of up to 15 digits. */
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private static final int MAX_EXACT_DIGITS = 15;
+
+  private final MaterialValidator materialValidator;
+
+  /**
+   * Reads the materials of an imported CSV file, every row is validated as soon as it is read.
+   *
+   * @param csvFile the imported {@link MultipartFile}, already checked with {@link
+   *     MaterialValidator#validateExcelDataTemplate(MultipartFile)}.
+   * @return the rows of the file or the error of the first invalid row.
+   */
+  public ExcelImportResult parseCsv(MultipartFile csvFile) {
+    return parseCsv(csvFile, rows -> {});
+  }
+
+  /**
+   * Reads the materials of an imported CSV file and reports the progress.
+   *
+   * @param progress called with the number of rows read so far after every valid row.
+   */
+  public ExcelImportResult parseCsv(MultipartFile csvFile, IntConsumer progress) {
+    String fileName = csvFile.getOriginalFilename();
+    List<ImportedRow> rows = new ArrayList<>();
+    try (InputStream inputStream = csvFile.getInputStream()) {
+      CsvReader reader = new CsvReader(inputStream);
+      while (reader.nextRecord()) {
+        if (reader.isEmptyLine()) {
+          continue;
+        }
+        boolean complete = reader.fieldCount == 3;
+        String name = complete ? reader.text(0) : null;
+        String type = complete ? reader.materialType() : null;
+        double price = complete ? reader.number(2) : Double.NaN;
+        String errMsg =
+            materialValidator.validateCsvDataRow(
+                reader.rowNumber, reader.fieldCount, name, type, price, fileName);
+        if (errMsg != null) {
+          return ExcelImportResult.rejected(errMsg);
+        }
+        rows.add(new ImportedRow(name, type, price));
+        progress.accept(rows.size());
+      }
+    } catch (IOException ex) {
+      return ExcelImportResult.rejected(
+          String.format("Unsupported file type for '%s'.", fileName));
+    }
+    return new ExcelImportResult(rows);
+  }
+
+  /**
+   * Parses a decimal number such as {@code 12.69}, {@code -3} or {@code 1.5E3} from ASCII bytes.
+   * Numbers of up to 15 significant digits and exponents of up to 22 are computed with one exact
+   * multiplication or division, which rounds like {@link Double#parseDouble(String)}, all others
+   * fall back to it.
+   *
+   * @return the number or {@link Double#NaN} when the bytes are not a decimal number.
+   */
+  static double parseDecimal(byte[] bytes, int from, int to) {
+    int position = from;
+    boolean negative = false;
+    if (position < to && (bytes[position] == '-' || bytes[position] == '+')) {
+      negative = bytes[position] == '-';
+      position++;
+    }
+    long mantissa = 0;
+    int significantDigits = 0;
+    int exponent = 0;
+    boolean hasDigits = false;
+    boolean inFraction = false;
+    for (; position < to; position++) {
+      byte current = bytes[position];
+      if (current == '.' && !inFraction) {
+        inFraction = true;
+      } else if (current >= '0' && current <= '9') {
+        hasDigits = true;
+        if (mantissa != 0 || current != '0') {
+          significantDigits++;
+          if (significantDigits <= MAX_EXACT_DIGITS) {
+            mantissa = mantissa * 10 + (current - '0');
+          } else if (!inFraction) {
+            exponent++;
+          }
+        }
+        if (inFraction && significantDigits <= MAX_EXACT_DIGITS) {
+          exponent--;
+        }
+      } else {
+        break;
+      }
+    }
+    if (!hasDigits) {
+      return Double.NaN;
+    }
+    if (position < to) {
+      if (bytes[position] != 'e' && bytes[position] != 'E') {
+        return Double.NaN;
+      }
+      position++;
+      boolean negativeExponent = false;
+      if (position < to && (bytes[position] == '-' || bytes[position] == '+')) {
+        negativeExponent = bytes[position] == '-';
+        position++;
+      }
+      if (position == to) {
+        return Double.NaN;
+      }
+      int explicitExponent = 0;
+      for (; position < to; position++) {
+        byte current = bytes[position];
+        if (current < '0' || current > '9') {
+          return Double.NaN;
+        }
+        explicitExponent = Math.min(explicitExponent * 10 + (current - '0'), 10_000);
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+    if (mantissa == 0) {
+      return negative ? -0.0 : 0.0;
+    }
+    if (significantDigits > MAX_EXACT_DIGITS || Math.abs(exponent) >= POWERS_OF_TEN.length) {
+      double value =
+          Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+      return Double.isInfinite(value) ? Double.NaN : value;
+    }
+    double value =
+        exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+    return negative ? -value : value;
+  }
+
+  /**
+   * Splits the input into records of comma separated fields as described by RFC 4180. Only the
+   * bounds of the first three fields of the current record are kept, they point into the buffer.
+   */
+  private static final class CsvReader {
+    private final InputStream inputStream;
+    private final int[] fieldStart = new int[3];
+    private final int[] fieldEnd = new int[3];
+    private final boolean[] fieldEscaped = new boolean[3];
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int limit;
+    private int recordStart;
+    private boolean endOfInput;
+    private boolean quotedField;
+    private int nextLine = 1;
+    private int newLinesInQuotes;
+
+    private int rowNumber;
+    private int fieldCount;
+
+    private CsvReader(InputStream inputStream) throws IOException {
+      this.inputStream = inputStream;
+      fill();
+      if (limit >= 3
+          && buffer[0] == (byte) 0xEF
+          && buffer[1] == (byte) 0xBB
+          && buffer[2] == (byte) 0xBF) {
+        recordStart = 3;
+      }
+    }
+
+    /** Moves to the next record, {@code false} at the end of the input. */
+    private boolean nextRecord() throws IOException {
+      while (true) {
+        if (recordStart == limit && endOfInput) {
+          return false;
+        }
+        int recordEnd = scanRecord();
+        if (recordEnd >= 0) {
+          rowNumber = nextLine;
+          nextLine += 1 + newLinesInQuotes;
+          recordStart = recordEnd;
+          return true;
+        }
+        fill();
+      }
+    }
+
+    private boolean isEmptyLine() {
+      return fieldCount == 1 && !quotedField && fieldStart[0] == fieldEnd[0];
+    }
+
+    private String text(int field) {
+      String text =
+          new String(
+              buffer,
+              fieldStart[field],
+              fieldEnd[field] - fieldStart[field],
+              StandardCharsets.UTF_8);
+      return fieldEscaped[field] ? text.replace("\"\"", "\"") : text;
+    }
+
+    /** The name of the material type of the record without creating a string when it is valid. */
+    private String materialType() {
+      if (!fieldEscaped[1]) {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+          if (Arrays.equals(
+              buffer, fieldStart[1], fieldEnd[1], TYPE_NAMES[i], 0, TYPE_NAMES[i].length)) {
+            return TYPES[i].name();
+          }
+        }
+      }
+      return text(1);
+    }
+
+    private double number(int field) {
+      return fieldEscaped[field]
+          ? Double.NaN
+          : parseDecimal(buffer, fieldStart[field], fieldEnd[field]);
+    }
+
+    /**
+     * Finds the fields of the record at {@link #recordStart}.
+     *
+     * @return the start of the next record or {@code -1} when more input is needed.
+     */
+    private int scanRecord() {
+      int position = recordStart;
+      fieldCount = 0;
+      quotedField = false;
+      newLinesInQuotes = 0;
+      boolean malformed = false;
+      while (true) {
+        int start;
+        int end;
+        boolean escaped = false;
+        if (position < limit && buffer[position] == '"') {
+          quotedField = true;
+          start = ++position;
+          while (true) {
+            if (position == limit) {
+              if (!endOfInput) {
+                return -1;
+              }
+              // The closing quote is missing.
+              malformed = true;
+              end = position;
+              break;
+            }
+            byte current = buffer[position];
+            if (current == '"') {
+              if (position + 1 == limit && !endOfInput) {
+                return -1;
+              }
+              if (position + 1 < limit && buffer[position + 1] == '"') {
+                escaped = true;
+                position += 2;
+                continue;
+              }
+              end = position++;
+              break;
+            }
+            if (current == '\n') {
+              newLinesInQuotes++;
+            }
+            position++;
+          }
+          if (position < limit && !isDelimiter(buffer[position])) {
+            malformed = true;
+            while (position < limit && !isDelimiter(buffer[position])) {
+              position++;
+            }
+          }
+        } else {
+          start = position;
+          while (position < limit && !isDelimiter(buffer[position])) {
+            position++;
+          }
+          end = position;
+        }
+        if (position == limit && !endOfInput) {
+          return -1;
+        }
+        if (fieldCount < 3) {
+          fieldStart[fieldCount] = start;
+          fieldEnd[fieldCount] = end;
+          fieldEscaped[fieldCount] = escaped;
+        }
+        fieldCount++;
+        if (position == limit) {
+          break;
+        }
+        byte delimiter = buffer[position++];
+        if (delimiter == ',') {
+          continue;
+        }
+        if (delimiter == '\r') {
+          if (position == limit && !endOfInput) {
+            return -1;
+          }
+          if (position < limit && buffer[position] == '\n') {
+            position++;
+          }
+        }
+        break;
+      }
+      if (malformed) {
+        fieldCount = -1;
+      }
+      return position;
+    }
+
+    private static boolean isDelimiter(byte current) {
+      return current == ',' || current == '\n' || current == '\r';
+    }
+
+    /** Keeps the unread part of the buffer and reads more input after it. */
+    private void fill() throws IOException {
+      int unread = limit - recordStart;
+      if (recordStart == 0 && limit == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      } else if (recordStart > 0) {
+        System.arraycopy(buffer, recordStart, buffer, 0, unread);
+      }
+      recordStart = 0;
+      limit = unread;
+      int read = inputStream.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        limit += read;
+      }
+    }
+  }
+}
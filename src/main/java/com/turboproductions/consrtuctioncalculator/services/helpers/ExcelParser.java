@@ -6,31 +6,68 @@ import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+@RequiredArgsConstructor
 @Component
 public class ExcelParser {
-  public Optional<ExcelImportResult> parseExcelSheet(MultipartFile excelFile) {
-    try (Workbook workbook = WorkbookFactory.create(excelFile.getInputStream())) {
-      List<ImportedRow> results = new ArrayList<>();
-      Sheet sheet = workbook.getSheetAt(0);
-      for (Row row : sheet) {
-        ImportedRow importedRow =
-            new ImportedRow(
-                row.getCell(0).getStringCellValue(),
-                row.getCell(1).getStringCellValue(),
-                row.getCell(2).getNumericCellValue());
-        results.add(importedRow);
-      }
-      return Optional.of(new ExcelImportResult(results));
+  private final MaterialValidator materialValidator;
+
+  /**
+   * Reads the materials of the first sheet of an imported file. Every row is validated and
+   * converted as soon as it is read, so the file is read once and never held in memory as a whole.
+   *
+   * @param excelFile the imported {@link MultipartFile}, already checked with {@link
+   *     MaterialValidator#validateExcelDataTemplate(MultipartFile)}.
+   * @return the rows of the file or the error of the first invalid row.
+   */
+  public ExcelImportResult parseExcelSheet(MultipartFile excelFile) {
+    return parseExcelSheet(excelFile, rows -> {});
+  }
+
+  /**
+   * Reads the materials of the first sheet of an imported file and reports the progress.
+   *
+   * @param progress called with the number of rows read so far after every valid row.
+   */
+  public ExcelImportResult parseExcelSheet(MultipartFile excelFile, IntConsumer progress) {
+    MaterialRows materialRows = new MaterialRows(excelFile.getOriginalFilename(), progress);
+    try {
+      ExcelSheetReader.readFirstSheet(excelFile, materialRows);
     } catch (IOException ex) {
-      return Optional.empty();
+      return ExcelImportResult.rejected(
+          String.format("Unsupported file type for '%s'.", excelFile.getOriginalFilename()));
+    }
+    return materialRows.errMsg != null
+        ? ExcelImportResult.rejected(materialRows.errMsg)
+        : new ExcelImportResult(materialRows.rows);
+  }
+
+  /** Collects the rows of the file until the first invalid one. */
+  private class MaterialRows implements Predicate<SheetRow> {
+    private final String fileName;
+    private final IntConsumer progress;
+    private final List<ImportedRow> rows = new ArrayList<>();
+    private String errMsg;
+
+    private MaterialRows(String fileName, IntConsumer progress) {
+      this.fileName = fileName;
+      this.progress = progress;
+    }
+
+    @Override
+    public boolean test(SheetRow row) {
+      errMsg = materialValidator.validateExcelDataRow(row, fileName);
+      if (errMsg != null) {
+        return false;
+      }
+      rows.add(new ImportedRow(row.cell(0).text(), row.cell(1).text(), row.cell(2).number()));
+      progress.accept(rows.size());
+      return true;
     }
   }
 }
@@ -0,0 +1,246 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the rows of the first sheet of an import file one at a time. Excel 2007+ files are parsed
+ * with the SAX event API of POI, so only the current row and the shared strings are in memory
+ * instead of the whole workbook. Legacy {@code .xls} files are limited to 65,536 rows and are still
+ * read into a {@link Workbook}.
+ */
+final class ExcelSheetReader {
+
+  private ExcelSheetReader() {}
+
+  /**
+   * @param excelFile the uploaded file. The package is read from a file without inflating it in
+   *     memory, a {@link SpooledUpload} is read where it is and other uploads are copied to a
+   *     temporary file first.
+   * @param rowConsumer called with every row in order, returning {@code false} stops the reading.
+   * @throws IOException when the file is not a readable workbook.
+   */
+  static void readFirstSheet(MultipartFile excelFile, Predicate<SheetRow> rowConsumer)
+      throws IOException {
+    if (excelFile instanceof SpooledUpload spooledUpload) {
+      readFirstSheet(spooledUpload.getFile(), rowConsumer);
+      return;
+    }
+    Path file = Files.createTempFile("material-import", ".tmp");
+    try {
+      excelFile.transferTo(file);
+      readFirstSheet(file, rowConsumer);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static void readFirstSheet(Path file, Predicate<SheetRow> rowConsumer)
+      throws IOException {
+    FileMagic fileMagic = FileMagic.valueOf(file.toFile());
+    if (fileMagic == FileMagic.OOXML) {
+      readOfficeOpenXml(file, rowConsumer);
+    } else if (fileMagic == FileMagic.OLE2) {
+      readWorkbook(file, rowConsumer);
+    } else {
+      throw new IOException("Not a workbook: " + fileMagic);
+    }
+  }
+
+  private static void readOfficeOpenXml(Path file, Predicate<SheetRow> rowConsumer)
+      throws IOException {
+    OPCPackage officePackage = null;
+    try {
+      officePackage = OPCPackage.open(file.toFile(), PackageAccess.READ);
+      XSSFReader reader = new XSSFReader(officePackage);
+      ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(officePackage);
+      Iterator<InputStream> sheets = reader.getSheetsData();
+      if (!sheets.hasNext()) {
+        return;
+      }
+      try (InputStream sheet = sheets.next()) {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetHandler(strings, rowConsumer));
+        parser.parse(new InputSource(sheet));
+      }
+    } catch (StopReading ex) {
+      // The consumer does not need the remaining rows.
+    } catch (OpenXML4JException
+        | SAXException
+        | ParserConfigurationException
+        | UnsupportedFileFormatException
+        | POIXMLException ex) {
+      throw new IOException(ex);
+    } finally {
+      if (officePackage != null) {
+        // Closing a package saves it, a package opened for reading is reverted instead.
+        officePackage.revert();
+      }
+    }
+  }
+
+  private static void readWorkbook(Path file, Predicate<SheetRow> rowConsumer) throws IOException {
+    try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+      if (workbook.getNumberOfSheets() == 0) {
+        return;
+      }
+      for (Row row : workbook.getSheetAt(0)) {
+        List<SheetCell> cells = new ArrayList<>();
+        for (int column = 0; column < row.getLastCellNum(); column++) {
+          cells.add(toSheetCell(row.getCell(column)));
+        }
+        if (!rowConsumer.test(new SheetRow(row.getRowNum() + 1, cells))) {
+          return;
+        }
+      }
+    } catch (EncryptedDocumentException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  private static SheetCell toSheetCell(Cell cell) {
+    if (cell == null) {
+      return SheetCell.BLANK;
+    }
+    return switch (cell.getCellType()) {
+      case STRING -> SheetCell.ofText(cell.getStringCellValue());
+      case NUMERIC -> SheetCell.ofNumber(cell.getNumericCellValue());
+      default -> SheetCell.ofType(cell.getCellType());
+    };
+  }
+
+  /** Thrown by the handler to end the parsing once the consumer returns {@code false}. */
+  private static final class StopReading extends SAXException {}
+
+  /**
+   * Turns the {@code <row>} and {@code <c>} elements of a worksheet part into {@link SheetRow}s,
+   * typing the cells the same way the {@code XSSFCell} of the workbook API does.
+   */
+  private static final class SheetHandler extends DefaultHandler {
+    private final ReadOnlySharedStringsTable strings;
+    private final Predicate<SheetRow> rowConsumer;
+    private final StringBuilder value = new StringBuilder();
+    private List<SheetCell> cells = new ArrayList<>();
+    private int rowNumber;
+    private int column;
+    private String cellType;
+    private boolean formula;
+    private boolean hasValue;
+    private boolean inValue;
+
+    private SheetHandler(ReadOnlySharedStringsTable strings, Predicate<SheetRow> rowConsumer) {
+      this.strings = strings;
+      this.rowConsumer = rowConsumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      switch (localName) {
+        case "row" -> {
+          String reference = attributes.getValue("r");
+          rowNumber = reference != null ? Integer.parseInt(reference) : rowNumber + 1;
+          cells = new ArrayList<>();
+          column = -1;
+        }
+        case "c" -> {
+          String reference = attributes.getValue("r");
+          column = reference != null ? new CellReference(reference).getCol() : column + 1;
+          cellType = attributes.getValue("t");
+          formula = false;
+          hasValue = false;
+          value.setLength(0);
+        }
+        case "f" -> formula = true;
+        // <t> only appears inside the <is> element of an inline string.
+        case "v", "t" -> {
+          inValue = true;
+          hasValue = true;
+        }
+        default -> {}
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (inValue) {
+        value.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      switch (localName) {
+        case "v", "t" -> inValue = false;
+        case "c" -> setCell(toSheetCell());
+        case "row" -> {
+          if (!rowConsumer.test(new SheetRow(rowNumber, cells))) {
+            throw new StopReading();
+          }
+        }
+        default -> {}
+      }
+    }
+
+    private void setCell(SheetCell cell) {
+      while (cells.size() < column) {
+        cells.add(SheetCell.BLANK);
+      }
+      if (column < cells.size()) {
+        cells.set(column, cell);
+      } else {
+        cells.add(cell);
+      }
+    }
+
+    private SheetCell toSheetCell() {
+      if (formula) {
+        return SheetCell.ofType(CellType.FORMULA);
+      }
+      if (!hasValue) {
+        return SheetCell.BLANK;
+      }
+      String text = value.toString();
+      try {
+        return switch (cellType == null ? "n" : cellType) {
+          case "s" -> SheetCell.ofText(strings.getItemAt(Integer.parseInt(text)).getString());
+          case "inlineStr", "str" -> SheetCell.ofText(text);
+          case "n" -> SheetCell.ofNumber(Double.parseDouble(text));
+          case "b" -> SheetCell.ofType(CellType.BOOLEAN);
+          default -> SheetCell.ofType(CellType.ERROR);
+        };
+      } catch (NumberFormatException ex) {
+        return SheetCell.ofType(CellType.ERROR);
+      }
+    }
+  }
+}
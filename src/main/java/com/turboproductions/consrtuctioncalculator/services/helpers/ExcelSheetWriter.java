@@ -0,0 +1,37 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes a single sheet workbook straight to an output stream. Rows are created with the streaming
+ * API of POI, only the last {@code rowWindow} rows are kept in memory and older ones are flushed to
+ * a temporary file, so the size of an export does not change the heap it needs.
+ */
+public final class ExcelSheetWriter {
+
+  private ExcelSheetWriter() {}
+
+  /**
+   * @param rowWindow the number of rows kept in memory, rows must be created in order once they
+   *     have left the window.
+   * @param sheetContent creates the rows of the sheet.
+   * @param outputStream the stream the workbook is written to, it is not closed.
+   */
+  public static void writeSheet(
+      String sheetName, int rowWindow, Consumer<Sheet> sheetContent, OutputStream outputStream)
+      throws IOException {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+    try {
+      sheetContent.accept(workbook.createSheet(sheetName));
+      workbook.write(outputStream);
+    } finally {
+      workbook.dispose();
+      workbook.close();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.Collection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PricingEngine} that works on prices and areas scaled to hundredths and stored in a {@code
+ * long}, so pricing a room does not allocate. Values that cannot be represented with two decimals
+ * (or are too large to multiply without overflowing) are handed to the {@link
+ * BigDecimalPricingEngine}, which keeps the results identical to it for every input.
+ */
+@Component
+@ConditionalOnProperty(prefix = "calculator.pricing", name = "engine", havingValue = "fixed-point")
+public class FixedPointPricingEngine implements PricingEngine {
+  static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+  private static final long SCALE = 100;
+  // Keeps the product of two scaled values below Long.MAX_VALUE.
+  private static final double MAX_VALUE = 10_000_000;
+  private final BigDecimalPricingEngine fallbackEngine = new BigDecimalPricingEngine();
+
+  @Override
+  public void calculateRoomPrices(
+      RoomCalculation room,
+      double wallPricePerSqM,
+      double floorPricePerSqM,
+      double ceilingPricePerSqM) {
+    long wallSqM = toHundredths(room.getWallSqM());
+    long floorSqM = toHundredths(room.getFloorSqM());
+    long ceilingSqM = toHundredths(room.getCeilingSqM());
+    long wallPrice = toHundredths(wallPricePerSqM);
+    long floorPrice = toHundredths(floorPricePerSqM);
+    long ceilingPrice = toHundredths(ceilingPricePerSqM);
+    if (wallSqM == NOT_REPRESENTABLE
+        || floorSqM == NOT_REPRESENTABLE
+        || ceilingSqM == NOT_REPRESENTABLE
+        || wallPrice == NOT_REPRESENTABLE
+        || floorPrice == NOT_REPRESENTABLE
+        || ceilingPrice == NOT_REPRESENTABLE) {
+      fallbackEngine.calculateRoomPrices(
+          room, wallPricePerSqM, floorPricePerSqM, ceilingPricePerSqM);
+      return;
+    }
+    long wallTotal = multiplyHalfUp(wallPrice, wallSqM);
+    long floorTotal = multiplyHalfUp(floorPrice, floorSqM);
+    long ceilingTotal = multiplyHalfUp(ceilingPrice, ceilingSqM);
+    room.setWallMaterialPrice(toDouble(wallTotal));
+    room.setCeilingMaterialPrice(toDouble(ceilingTotal));
+    room.setFloorMaterialPrice(toDouble(floorTotal));
+    room.setRoomPrice(toDouble(wallTotal + ceilingTotal + floorTotal));
+    room.setRoomArea(toDouble(wallSqM + ceilingSqM + floorSqM));
+  }
+
+  @Override
+  public double calculateSurfacePrice(double pricePerSqM, double sqM) {
+    long price = toHundredths(pricePerSqM);
+    long area = toHundredths(sqM);
+    if (price == NOT_REPRESENTABLE || area == NOT_REPRESENTABLE) {
+      return fallbackEngine.calculateSurfacePrice(pricePerSqM, sqM);
+    }
+    return toDouble(multiplyHalfUp(price, area));
+  }
+
+  @Override
+  public double add(double augend, double addend) {
+    long first = toHundredths(augend);
+    long second = toHundredths(addend);
+    if (first == NOT_REPRESENTABLE || second == NOT_REPRESENTABLE) {
+      return fallbackEngine.add(augend, addend);
+    }
+    return toDouble(first + second);
+  }
+
+  @Override
+  public void calculateConstructionTotals(
+      ConstructionCalculation calculation, Collection<RoomCalculation> rooms) {
+    long price = 0;
+    long sqM = 0;
+    for (RoomCalculation roomCalculation : rooms) {
+      long roomPrice = toHundredths(roomCalculation.getRoomPrice());
+      long roomArea = toHundredths(roomCalculation.getRoomArea());
+      if (roomPrice == NOT_REPRESENTABLE || roomArea == NOT_REPRESENTABLE) {
+        fallbackEngine.calculateConstructionTotals(calculation, rooms);
+        return;
+      }
+      price += roomPrice;
+      sqM += roomArea;
+    }
+    calculation.setCalculationPrice(toDouble(price));
+    calculation.setSquareMeters(toDouble(sqM));
+  }
+
+  /**
+   * Converts a value to hundredths. A {@code double} is only accepted when it is the closest double
+   * to a decimal with at most two fraction digits, which is exactly the decimal {@link
+   * java.math.BigDecimal#valueOf(double)} reads from it.
+   *
+   * @return the value in hundredths or {@link #NOT_REPRESENTABLE}.
+   */
+  static long toHundredths(double value) {
+    if (!(Math.abs(value) <= MAX_VALUE)) {
+      return NOT_REPRESENTABLE;
+    }
+    long scaled = Math.round(value * SCALE);
+    return scaled / (double) SCALE == value ? scaled : NOT_REPRESENTABLE;
+  }
+
+  /** Multiplies two values in hundredths and rounds the product {@code HALF_UP} to hundredths. */
+  static long multiplyHalfUp(long first, long second) {
+    long product = first * second;
+    return product >= 0 ? (product + SCALE / 2) / SCALE : -((-product + SCALE / 2) / SCALE);
+  }
+
+  static double toDouble(long hundredths) {
+    return hundredths / (double) SCALE;
+  }
+}
@@ -0,0 +1,84 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of a user's materials, partitioned by {@link MaterialType} and indexed by
+ * name. Snapshots are built by the {@link MaterialCatalogCache} and replaced as a whole whenever the
+ * user's materials change.
+ */
+public final class MaterialCatalog {
+  @Getter private final long version;
+  @Getter private final List<Material> materials;
+  private final Map<MaterialType, List<Material>> materialsByType;
+  private final Map<MaterialType, List<Material>> materialsByPrice;
+  private final Map<String, Material> materialsByName;
+
+  private MaterialCatalog(long version, List<Material> materials) {
+    this.version = version;
+    this.materials = List.copyOf(materials);
+    Map<MaterialType, List<Material>> partitions = new EnumMap<>(MaterialType.class);
+    for (MaterialType type : MaterialType.values()) {
+      partitions.put(type, new ArrayList<>());
+    }
+    Map<String, Material> index = HashMap.newHashMap(materials.size());
+    for (Material material : this.materials) {
+      if (material.getType() != null) {
+        partitions.get(material.getType()).add(material);
+      }
+      index.putIfAbsent(material.getName(), material);
+    }
+    partitions.replaceAll((type, partition) -> Collections.unmodifiableList(partition));
+    this.materialsByType = Collections.unmodifiableMap(partitions);
+    Map<MaterialType, List<Material>> orderings = new EnumMap<>(MaterialType.class);
+    partitions.forEach(
+        (type, partition) ->
+            orderings.put(
+                type,
+                partition.stream()
+                    .sorted(
+                        Comparator.comparingDouble(Material::getPricePerSqMeter)
+                            .thenComparing(Material::getName))
+                    .toList()));
+    this.materialsByPrice = Collections.unmodifiableMap(orderings);
+    this.materialsByName = Collections.unmodifiableMap(index);
+  }
+
+  /**
+   * Creates a snapshot of the given materials.
+   *
+   * @param version the version of the snapshot.
+   * @param materials the user's materials in the order they should be listed.
+   * @return the {@link MaterialCatalog}.
+   */
+  public static MaterialCatalog of(long version, List<Material> materials) {
+    return new MaterialCatalog(version, materials);
+  }
+
+  public List<Material> getMaterials(MaterialType type) {
+    return materialsByType.get(type);
+  }
+
+  /** Returns the materials of the type from the cheapest to the most expensive one. */
+  public List<Material> getMaterialsByPrice(MaterialType type) {
+    return materialsByPrice.get(type);
+  }
+
+  /**
+   * @param name the name of the material.
+   * @return the {@link Material} with the given name or {@code null} if there is none.
+   */
+  public Material findByName(String name) {
+    return name == null ? null : materialsByName.get(name);
+  }
+}
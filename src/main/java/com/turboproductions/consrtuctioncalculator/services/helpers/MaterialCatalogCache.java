@@ -0,0 +1,92 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds one {@link MaterialCatalog} per user. A catalog is loaded on first use and kept until {@link
+ * #invalidate(User)} is called after the user's materials change, for at most {@code
+ * calculator.cache.materials.ttl} and for the {@code calculator.cache.materials.max-size} most
+ * recently used users.
+ */
+@Component
+public class MaterialCatalogCache {
+  /** The number of invalidation counters, users share them by the hash of their id. */
+  private static final int STRIPES = 64;
+
+  private final MaterialRepository materialRepository;
+  private final Cache<UUID, MaterialCatalog> catalogs;
+  private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+  private final AtomicLong versions = new AtomicLong();
+
+  public MaterialCatalogCache(
+      MaterialRepository materialRepository, CalculatorProperties calculatorProperties) {
+    this.materialRepository = materialRepository;
+    CalculatorProperties.Region region = calculatorProperties.getCache().getMaterials();
+    this.catalogs =
+        Caffeine.newBuilder()
+            .expireAfterWrite(region.getTtl())
+            .maximumSize(region.getMaxSize())
+            .build();
+  }
+
+  public MaterialCatalog getCatalog(User user) {
+    UUID userId = user.getUserId();
+    MaterialCatalog catalog = catalogs.getIfPresent(userId);
+    if (catalog != null) {
+      return catalog;
+    }
+    // The materials are read without holding a lock. The catalog is only cached if the user's
+    // materials were not invalidated meanwhile, since it may have been read before the change.
+    int stripe = stripeOf(userId);
+    long invalidationsBefore = invalidations.get(stripe);
+    MaterialCatalog loaded =
+        MaterialCatalog.of(
+            versions.incrementAndGet(), materialRepository.findAllByUserOrderByType(user));
+    catalogs
+        .asMap()
+        .compute(
+            userId,
+            (id, current) ->
+                invalidations.get(stripe) == invalidationsBefore ? loaded : current);
+    return loaded;
+  }
+
+  /**
+   * Drops the user's catalog. Inside a transaction it is dropped again once the transaction
+   * completes, since a catalog loaded by another request before the commit misses the change.
+   */
+  public void invalidate(User user) {
+    UUID userId = user.getUserId();
+    drop(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              drop(userId);
+            }
+          });
+    }
+  }
+
+  private void drop(UUID userId) {
+    // Counted before the removal, so a load that caches its catalog after it sees the new count.
+    invalidations.incrementAndGet(stripeOf(userId));
+    catalogs.invalidate(userId);
+  }
+
+  private static int stripeOf(UUID userId) {
+    return Math.floorMod(userId.hashCode(), STRIPES);
+  }
+}
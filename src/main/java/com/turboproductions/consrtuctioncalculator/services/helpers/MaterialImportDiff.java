@@ -0,0 +1,129 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * The changes that turn a user's stored materials into the rows of an imported file. Rows are
+ * matched to materials by name, ignoring case like the unique constraint of the database does, so
+ * a file that is sent again only changes the materials whose values differ.
+ */
+@Getter
+public final class MaterialImportDiff {
+  /** New materials for the names that are not stored yet, without a user. */
+  private final List<Material> inserts;
+
+  private final List<Update> updates;
+
+  /** Stored materials missing from the file, only filled when deletions were requested. */
+  private final List<Material> deletions;
+
+  /** The first name that is in the file more than once, {@code null} if there is none. */
+  private final String duplicateName;
+
+  private MaterialImportDiff(
+      List<Material> inserts,
+      List<Update> updates,
+      List<Material> deletions,
+      String duplicateName) {
+    this.inserts = Collections.unmodifiableList(inserts);
+    this.updates = Collections.unmodifiableList(updates);
+    this.deletions = Collections.unmodifiableList(deletions);
+    this.duplicateName = duplicateName;
+  }
+
+  /**
+   * Compares the imported rows with the stored materials.
+   *
+   * @param storedMaterials all materials of the user.
+   * @param rows the validated rows of the imported file.
+   * @param deleteMissing whether stored materials missing from the file are deleted.
+   * @return the {@link MaterialImportDiff}.
+   */
+  public static MaterialImportDiff of(
+      List<Material> storedMaterials, List<ImportedRow> rows, boolean deleteMissing) {
+    // Keeps the stored order, so materials are deleted in the order they are listed.
+    Map<String, Material> storedByName =
+        LinkedHashMap.newLinkedHashMap(storedMaterials.size());
+    for (Material material : storedMaterials) {
+      storedByName.put(keyOf(material.getName()), material);
+    }
+    List<Material> inserts = new ArrayList<>();
+    List<Update> updates = new ArrayList<>();
+    Set<String> importedNames = HashSet.newHashSet(rows.size());
+    for (ImportedRow row : rows) {
+      String key = keyOf(row.getName());
+      if (!importedNames.add(key)) {
+        return new MaterialImportDiff(List.of(), List.of(), List.of(), row.getName());
+      }
+      MaterialType type = MaterialType.valueOf(row.getType());
+      Material stored = storedByName.get(key);
+      if (stored == null) {
+        inserts.add(new Material(row.getName(), type, row.getValue()));
+      } else {
+        Update update =
+            new Update(
+                stored,
+                row.getName(),
+                type,
+                row.getValue(),
+                !stored.getName().equals(row.getName()),
+                stored.getType() != type,
+                stored.getPricePerSqMeter() != row.getValue());
+        if (update.nameChanged() || update.typeChanged() || update.priceChanged()) {
+          updates.add(update);
+        }
+      }
+    }
+    List<Material> deletions = new ArrayList<>();
+    if (deleteMissing) {
+      for (Map.Entry<String, Material> stored : storedByName.entrySet()) {
+        if (!importedNames.contains(stored.getKey())) {
+          deletions.add(stored.getValue());
+        }
+      }
+    }
+    return new MaterialImportDiff(inserts, updates, deletions, null);
+  }
+
+  public boolean isEmpty() {
+    return inserts.isEmpty() && updates.isEmpty() && deletions.isEmpty();
+  }
+
+  private static String keyOf(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * New values for a stored material and which of them differ from the stored ones.
+   *
+   * @param material the stored {@link Material}, it keeps its old values until {@link #apply()}.
+   */
+  public record Update(
+      Material material,
+      String name,
+      MaterialType type,
+      double pricePerSqMeter,
+      boolean nameChanged,
+      boolean typeChanged,
+      boolean priceChanged) {
+
+    /** Writes the new values to the stored material. */
+    public void apply() {
+      material.setName(name);
+      material.setType(type);
+      material.setPricePerSqMeter(pricePerSqMeter);
+    }
+  }
+}
@@ -2,24 +2,23 @@
 package com.turboproductions.consrtuctioncalculator.services.helpers;
 
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
-import java.io.IOException;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialFileFormat;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 @Component
 public class MaterialValidator {
   private static final String BAD_CELL_ERR_MSG = "Bad cell at cell row '%s'.";
+  private static final String BAD_ROW_ERR_MSG = "Problem with file '%s' in row number '%s'.";
 
   /**
    * Method to validate the file that was imported to make sure it adheres to all the requirements
-   * for importing.
+   * for importing. Its rows are checked with {@link #validateExcelDataRow(SheetRow, String)} or
+   * {@link #validateCsvDataRow(int, int, String, String, double, String)} while {@link ExcelParser}
+   * or {@link CsvParser} reads them.
    *
    * @param excelFile the imported {@link MultipartFile}.
    * @return String containing whatever is wrong with the file imported or {@code null} if the file
@@ -35,27 +34,55 @@ public class MaterialValidator {
       return "Error in import file.";
     }
 
-    String errMsg = validateExcelFileType(fileName);
-    if (errMsg != null) {
-      return errMsg;
+    return validateImportFileType(excelFile, fileName);
+  }
+
+  /**
+   * Method to validate a row of an imported file.
+   *
+   * @param row the row read from the file.
+   * @param fileName the name of the imported file.
+   * @return String containing whatever is wrong with the row or {@code null} if the row passes all
+   *     checks
+   */
+  public String validateExcelDataRow(SheetRow row, String fileName) {
+    if (row.cellCount() != 3) {
+      return String.format(BAD_ROW_ERR_MSG, fileName, row.rowNumber());
+    }
+    SheetCell name = row.cell(0);
+    SheetCell type = row.cell(1);
+    SheetCell price = row.cell(2);
+    if (name.type() != CellType.STRING) {
+      return String.format(BAD_CELL_ERR_MSG, row.rowNumber());
+    }
+    if (type.type() != CellType.STRING) {
+      return String.format(BAD_CELL_ERR_MSG, row.rowNumber());
     }
+    if (price.type() != CellType.NUMERIC) {
+      return String.format(BAD_CELL_ERR_MSG, row.rowNumber());
+    }
+    return validateRowValues(row.rowNumber(), name.text(), type.text(), price.number());
+  }
 
-    try (Workbook workbook = WorkbookFactory.create(excelFile.getInputStream())) {
-      Sheet sheet = workbook.getSheetAt(0);
-      for (Row row : sheet) {
-        if (row.getLastCellNum() != 3) {
-          return String.format(
-              "Problem with file '%s' in row number '%s'.", fileName, row.getRowNum() + 1);
-        }
-        errMsg = validateExcelDataRow(row);
-        if (errMsg != null) {
-          return errMsg;
-        }
-      }
-    } catch (IOException ex) {
-      return String.format("Unsupported file type for '%s'.", fileName);
+  /**
+   * Method to validate a row of an imported CSV file. All its fields are text, so only the price
+   * has to be a number.
+   *
+   * @param rowNumber the line the row starts at.
+   * @param fieldCount the number of fields of the row or {@code -1} when its quoting is broken.
+   * @param price the price of the row or {@link Double#NaN} when the field is not a number.
+   * @return String containing whatever is wrong with the row or {@code null} if the row passes all
+   *     checks
+   */
+  public String validateCsvDataRow(
+      int rowNumber, int fieldCount, String name, String type, double price, String fileName) {
+    if (fieldCount != 3) {
+      return String.format(BAD_ROW_ERR_MSG, fileName, rowNumber);
     }
-    return null;
+    if (Double.isNaN(price)) {
+      return String.format(BAD_CELL_ERR_MSG, rowNumber);
+    }
+    return validateRowValues(rowNumber, name, type, price);
   }
 
   /**
@@ -77,43 +104,33 @@ public class MaterialValidator {
     return null;
   }
 
-  private static String validateExcelFileType(String fileName) {
-    return fileName.endsWith(".xls") || fileName.endsWith(".xlsx")
-        ? null
-        : String.format("Incorrect file format for file '%s'.", fileName);
-  }
-
-  private static String validateExcelDataRow(Row row) {
-    if (row.getCell(0).getCellType() != CellType.STRING) {
-      return String.format(BAD_CELL_ERR_MSG, row.getRowNum() + 1);
-    }
-    if (row.getCell(1).getCellType() != CellType.STRING) {
-      return String.format(BAD_CELL_ERR_MSG, row.getRowNum() + 1);
+  private static String validateRowValues(int rowNumber, String name, String type, double price) {
+    if (name.isEmpty() || name.isBlank()) {
+      return String.format(BAD_CELL_ERR_MSG, rowNumber);
     }
-    if (row.getCell(2).getCellType() != CellType.NUMERIC) {
-      return String.format(BAD_CELL_ERR_MSG, row.getRowNum() + 1);
+    if (type.isEmpty() || type.isBlank()) {
+      return String.format(BAD_CELL_ERR_MSG, rowNumber);
     }
-    if (row.getCell(0).getStringCellValue().isEmpty()
-        || row.getCell(0).getStringCellValue().isBlank()) {
-      return String.format(BAD_CELL_ERR_MSG, row.getRowNum() + 1);
-    }
-    if (row.getCell(1).getStringCellValue().isEmpty()
-        || row.getCell(1).getStringCellValue().isBlank()) {
-      return String.format(BAD_CELL_ERR_MSG, row.getRowNum() + 1);
-    }
-    if (!isValidMaterialType(row.getCell(1).getStringCellValue())) {
+    if (!isValidMaterialType(type)) {
       return String.format(
           "Value '%s' at row '%s' is an invalid Material type. Types can be FLOOR, WALL and CEILING.",
-          row.getCell(1).getStringCellValue(), row.getRowNum() + 1);
+          type, rowNumber);
     }
-    if (!isValidBigDecimal(row.getCell(2).getNumericCellValue())) {
+    if (!isValidBigDecimal(price)) {
       return String.format(
-          "Value '%s' invalid for price of item '%s' at row '%s'.",
-          row.getCell(2), row.getCell(0), row.getRowNum() + 1);
+          "Value '%s' invalid for price of item '%s' at row '%s'.", price, name, rowNumber);
     }
     return null;
   }
 
+  private static String validateImportFileType(MultipartFile file, String fileName) {
+    return fileName.endsWith(".xls")
+            || fileName.endsWith(".xlsx")
+            || MaterialFileFormat.of(file) == MaterialFileFormat.CSV
+        ? null
+        : String.format("Incorrect file format for file '%s'.", fileName);
+  }
+
   private static boolean isValidMaterialType(String value) {
     return Arrays.stream(MaterialType.values()).anyMatch(x -> x.toString().equals(value));
   }
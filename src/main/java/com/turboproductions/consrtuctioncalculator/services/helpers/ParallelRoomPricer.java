@@ -0,0 +1,123 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prices the rooms of large projects on a fork-join pool shared by all requests. The rooms are
+ * split in halves until a slice is small enough for one thread, and the totals of the slices are
+ * added up the same way. Every room price and area has two decimals, so adding them in any order
+ * gives the same totals as {@link PricingEngine#calculateConstructionTotals}.
+ */
+@Component
+public class ParallelRoomPricer {
+  /** The number of rooms handled by one task, large enough to outweigh the cost of forking. */
+  static final int SLICE_SIZE = 256;
+
+  private final PricingEngine pricingEngine;
+  private final ForkJoinPool pool;
+
+  public ParallelRoomPricer(
+      PricingEngine pricingEngine, CalculatorProperties calculatorProperties) {
+    this.pricingEngine = pricingEngine;
+    this.pool = new ForkJoinPool(calculatorProperties.getLargeProjects().getParallelism());
+  }
+
+  /**
+   * Splits the rooms in slices and prices them with the given function, the rooms are independent
+   * of each other.
+   *
+   * @param pricer prices a slice of the rooms, it is called from several threads at once.
+   */
+  public void priceRooms(List<RoomCalculation> rooms, Consumer<List<RoomCalculation>> pricer) {
+    pool.invoke(new PriceRooms(rooms, pricer, 0, rooms.size()));
+  }
+
+  /**
+   * Sets the total price and area of a construction from its already priced rooms.
+   *
+   * @see PricingEngine#calculateConstructionTotals
+   */
+  public void calculateConstructionTotals(
+      ConstructionCalculation calculation, List<RoomCalculation> rooms) {
+    Totals totals = pool.invoke(new SumRooms(rooms, 0, rooms.size()));
+    calculation.setCalculationPrice(totals.price());
+    calculation.setSquareMeters(totals.area());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private record Totals(double price, double area) {}
+
+  private static final class PriceRooms extends RecursiveAction {
+    private final List<RoomCalculation> rooms;
+    private final Consumer<List<RoomCalculation>> pricer;
+    private final int from;
+    private final int to;
+
+    private PriceRooms(
+        List<RoomCalculation> rooms, Consumer<List<RoomCalculation>> pricer, int from, int to) {
+      this.rooms = rooms;
+      this.pricer = pricer;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SLICE_SIZE) {
+        pricer.accept(rooms.subList(from, to));
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new PriceRooms(rooms, pricer, from, middle), new PriceRooms(rooms, pricer, middle, to));
+    }
+  }
+
+  private final class SumRooms extends RecursiveTask<Totals> {
+    private final List<RoomCalculation> rooms;
+    private final int from;
+    private final int to;
+
+    private SumRooms(List<RoomCalculation> rooms, int from, int to) {
+      this.rooms = rooms;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Totals compute() {
+      if (to - from <= SLICE_SIZE) {
+        double price = 0;
+        double area = 0;
+        for (int i = from; i < to; i++) {
+          RoomCalculation room = rooms.get(i);
+          price = pricingEngine.add(price, room.getRoomPrice());
+          area = pricingEngine.add(area, room.getRoomArea());
+        }
+        return new Totals(price, area);
+      }
+      int middle = (from + to) >>> 1;
+      SumRooms left = new SumRooms(rooms, from, middle);
+      left.fork();
+      Totals right = new SumRooms(rooms, middle, to).compute();
+      Totals leftTotals = left.join();
+      return new Totals(
+          pricingEngine.add(leftTotals.price(), right.price()),
+          pricingEngine.add(leftTotals.area(), right.area()));
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Arithmetic used to price rooms and constructions. Every amount is rounded {@code HALF_UP} to two
+ * decimals. The active implementation is selected with the {@code calculator.pricing.engine}
+ * property.
+ */
+public interface PricingEngine {
+  /**
+   * Sets the wall, floor and ceiling prices as well as the total price and area of a room.
+   *
+   * @param room the room to price, its surface areas must already be set.
+   * @param wallPricePerSqM the price per square meter of the wall material.
+   * @param floorPricePerSqM the price per square meter of the floor material.
+   * @param ceilingPricePerSqM the price per square meter of the ceiling material.
+   */
+  void calculateRoomPrices(
+      RoomCalculation room,
+      double wallPricePerSqM,
+      double floorPricePerSqM,
+      double ceilingPricePerSqM);
+
+  /**
+   * Prices a batch of rooms like {@link #calculateRoomPrices(RoomCalculation, double, double,
+   * double)} with the prices of the materials they reference. Engines that work on whole batches
+   * override it.
+   *
+   * @param rooms the rooms to price, their surface areas and material references must be set.
+   */
+  default void calculateRoomPrices(List<RoomCalculation> rooms) {
+    for (RoomCalculation room : rooms) {
+      calculateRoomPrices(
+          room,
+          room.getWallMaterialRef().getPricePerSqMeter(),
+          room.getFloorMaterialRef().getPricePerSqMeter(),
+          room.getCeilingMaterialRef().getPricePerSqMeter());
+    }
+  }
+
+  /**
+   * @param pricePerSqM the price per square meter of a material.
+   * @param sqM the area covered with the material.
+   * @return the price of the surface.
+   */
+  double calculateSurfacePrice(double pricePerSqM, double sqM);
+
+  /**
+   * Adds two amounts, used to apply price differences to already priced rooms and constructions.
+   *
+   * @return the rounded sum.
+   */
+  double add(double augend, double addend);
+
+  /**
+   * Sets the total price and area of a construction from its already priced rooms.
+   *
+   * @param calculation the {@link ConstructionCalculation} to update.
+   * @param rooms the priced rooms of the calculation.
+   */
+  void calculateConstructionTotals(
+      ConstructionCalculation calculation, Collection<RoomCalculation> rooms);
+}
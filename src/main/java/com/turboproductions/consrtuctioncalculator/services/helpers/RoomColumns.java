@@ -0,0 +1,148 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static com.turboproductions.consrtuctioncalculator.services.helpers.FixedPointPricingEngine.NOT_REPRESENTABLE;
+import static com.turboproductions.consrtuctioncalculator.services.helpers.FixedPointPricingEngine.multiplyHalfUp;
+import static com.turboproductions.consrtuctioncalculator.services.helpers.FixedPointPricingEngine.toDouble;
+import static com.turboproductions.consrtuctioncalculator.services.helpers.FixedPointPricingEngine.toHundredths;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of rooms stored column by column. Areas and prices are kept in hundredths like in the
+ * {@link FixedPointPricingEngine}, and each surface holds the index of its material in one price
+ * column shared by the batch. Pricing the batch is a few loops over primitive arrays without
+ * branches or allocations, which the JIT unrolls and partly vectorizes.
+ *
+ * <p>Rooms with an area or material price that has more than two decimals cannot be priced in
+ * hundredths. They are left out of the columns and listed in {@link #getFallbackRooms()}.
+ */
+public final class RoomColumns {
+  private final int size;
+  private final long[] wallSqM;
+  private final long[] floorSqM;
+  private final long[] ceilingSqM;
+  private final int[] wallMaterials;
+  private final int[] floorMaterials;
+  private final int[] ceilingMaterials;
+  private final long[] materialPrices;
+  private final long[] wallPrices;
+  private final long[] floorPrices;
+  private final long[] ceilingPrices;
+  private final long[] roomPrices;
+  private final long[] roomAreas;
+  private final BitSet fallbackRooms;
+
+  private RoomColumns(int size, int materialCount) {
+    this.size = size;
+    this.wallSqM = new long[size];
+    this.floorSqM = new long[size];
+    this.ceilingSqM = new long[size];
+    this.wallMaterials = new int[size];
+    this.floorMaterials = new int[size];
+    this.ceilingMaterials = new int[size];
+    this.materialPrices = new long[materialCount];
+    this.wallPrices = new long[size];
+    this.floorPrices = new long[size];
+    this.ceilingPrices = new long[size];
+    this.roomPrices = new long[size];
+    this.roomAreas = new long[size];
+    this.fallbackRooms = new BitSet(size);
+  }
+
+  /**
+   * Reads the areas and materials of the rooms into columns.
+   *
+   * @param rooms rooms whose material references are set.
+   * @return the {@link RoomColumns}, not priced yet.
+   */
+  public static RoomColumns of(List<RoomCalculation> rooms) {
+    Map<Material, Integer> materialIndexes = new IdentityHashMap<>();
+    for (RoomCalculation room : rooms) {
+      materialIndexes.putIfAbsent(room.getWallMaterialRef(), materialIndexes.size());
+      materialIndexes.putIfAbsent(room.getFloorMaterialRef(), materialIndexes.size());
+      materialIndexes.putIfAbsent(room.getCeilingMaterialRef(), materialIndexes.size());
+    }
+    RoomColumns columns = new RoomColumns(rooms.size(), materialIndexes.size());
+    materialIndexes.forEach(
+        (material, index) ->
+            columns.materialPrices[index] = toHundredths(material.getPricePerSqMeter()));
+
+    for (int i = 0; i < columns.size; i++) {
+      RoomCalculation room = rooms.get(i);
+      long wallSqM = toHundredths(room.getWallSqM());
+      long floorSqM = toHundredths(room.getFloorSqM());
+      long ceilingSqM = toHundredths(room.getCeilingSqM());
+      int wallMaterial = materialIndexes.get(room.getWallMaterialRef());
+      int floorMaterial = materialIndexes.get(room.getFloorMaterialRef());
+      int ceilingMaterial = materialIndexes.get(room.getCeilingMaterialRef());
+      if (wallSqM == NOT_REPRESENTABLE
+          || floorSqM == NOT_REPRESENTABLE
+          || ceilingSqM == NOT_REPRESENTABLE
+          || columns.materialPrices[wallMaterial] == NOT_REPRESENTABLE
+          || columns.materialPrices[floorMaterial] == NOT_REPRESENTABLE
+          || columns.materialPrices[ceilingMaterial] == NOT_REPRESENTABLE) {
+        // Priced as an empty room with the first material, its results are never read.
+        columns.fallbackRooms.set(i);
+        continue;
+      }
+      columns.wallSqM[i] = wallSqM;
+      columns.floorSqM[i] = floorSqM;
+      columns.ceilingSqM[i] = ceilingSqM;
+      columns.wallMaterials[i] = wallMaterial;
+      columns.floorMaterials[i] = floorMaterial;
+      columns.ceilingMaterials[i] = ceilingMaterial;
+    }
+    for (int index = 0; index < columns.materialPrices.length; index++) {
+      if (columns.materialPrices[index] == NOT_REPRESENTABLE) {
+        columns.materialPrices[index] = 0;
+      }
+    }
+    return columns;
+  }
+
+  /** Prices the surfaces and the rooms, rounding every product {@code HALF_UP} to hundredths. */
+  public void price() {
+    for (int i = 0; i < size; i++) {
+      wallPrices[i] = multiplyHalfUp(materialPrices[wallMaterials[i]], wallSqM[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      floorPrices[i] = multiplyHalfUp(materialPrices[floorMaterials[i]], floorSqM[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      ceilingPrices[i] = multiplyHalfUp(materialPrices[ceilingMaterials[i]], ceilingSqM[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      roomPrices[i] = wallPrices[i] + floorPrices[i] + ceilingPrices[i];
+      roomAreas[i] = wallSqM[i] + floorSqM[i] + ceilingSqM[i];
+    }
+  }
+
+  /**
+   * Sets the prices and areas of the priced rooms on the rooms the columns were read from. The
+   * fallback rooms are not changed.
+   */
+  public void writeTo(List<RoomCalculation> rooms) {
+    for (int i = 0; i < size; i++) {
+      if (fallbackRooms.get(i)) {
+        continue;
+      }
+      RoomCalculation room = rooms.get(i);
+      room.setWallMaterialPrice(toDouble(wallPrices[i]));
+      room.setFloorMaterialPrice(toDouble(floorPrices[i]));
+      room.setCeilingMaterialPrice(toDouble(ceilingPrices[i]));
+      room.setRoomPrice(toDouble(roomPrices[i]));
+      room.setRoomArea(toDouble(roomAreas[i]));
+    }
+  }
+
+  /** The indexes of the rooms that have to be priced by another engine. */
+  public BitSet getFallbackRooms() {
+    return (BitSet) fallbackRooms.clone();
+  }
+}
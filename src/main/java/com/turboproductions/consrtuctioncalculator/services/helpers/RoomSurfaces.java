@@ -0,0 +1,130 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The surfaces of a calculation's rooms, read once to be priced against many {@link
+ * SupplierCatalog}s. Surfaces with the same material and area cost the same, so they are kept
+ * once with their count: rooms built from a few plans are priced in a handful of multiplications
+ * per catalog, and the rounding of every surface stays the one of {@link
+ * PricingEngine#calculateSurfacePrice(double, double)}. Surfaces without an area are left out,
+ * their material does not change the price.
+ */
+public final class RoomSurfaces {
+  private final List<MaterialKey> materials;
+  private final int[] surfaceMaterials;
+  private final double[] surfaceSqM;
+  private final int[] surfaceCounts;
+
+  private RoomSurfaces(List<MaterialKey> materials, Map<Surface, int[]> surfaces) {
+    this.materials = List.copyOf(materials);
+    this.surfaceMaterials = new int[surfaces.size()];
+    this.surfaceSqM = new double[surfaces.size()];
+    this.surfaceCounts = new int[surfaces.size()];
+    int i = 0;
+    for (Map.Entry<Surface, int[]> surface : surfaces.entrySet()) {
+      surfaceMaterials[i] = surface.getKey().material();
+      surfaceSqM[i] = surface.getKey().sqM();
+      surfaceCounts[i] = surface.getValue()[0];
+      i++;
+    }
+  }
+
+  /**
+   * Groups the surfaces of the rooms.
+   *
+   * @param rooms the rooms of a calculation, their areas and material names must be set.
+   * @return the {@link RoomSurfaces}.
+   */
+  public static RoomSurfaces of(Collection<RoomCalculation> rooms) {
+    Map<MaterialKey, Integer> materialIndexes = new LinkedHashMap<>();
+    Map<Surface, int[]> surfaces = new LinkedHashMap<>();
+    for (RoomCalculation room : rooms) {
+      add(
+          materialIndexes,
+          surfaces,
+          MaterialType.FLOOR,
+          room.getFloorMaterial(),
+          room.getFloorSqM());
+      add(materialIndexes, surfaces, MaterialType.WALL, room.getWallMaterial(), room.getWallSqM());
+      add(
+          materialIndexes,
+          surfaces,
+          MaterialType.CEILING,
+          room.getCeilingMaterial(),
+          room.getCeilingSqM());
+    }
+    return new RoomSurfaces(new ArrayList<>(materialIndexes.keySet()), surfaces);
+  }
+
+  /**
+   * Looks up the materials of the surfaces in a catalog.
+   *
+   * @return the prices per square meter by material index, {@code NaN} for the materials the
+   *     catalog does not have.
+   */
+  public double[] getPrices(SupplierCatalog catalog) {
+    double[] prices = new double[materials.size()];
+    for (int index = 0; index < prices.length; index++) {
+      MaterialKey material = materials.get(index);
+      prices[index] = catalog.getPrice(material.name(), material.type());
+    }
+    return prices;
+  }
+
+  /** The names of the materials whose price is {@code NaN}, in the order they are first used. */
+  public List<String> getMissingMaterials(double[] prices) {
+    List<String> missing = new ArrayList<>();
+    for (int index = 0; index < prices.length; index++) {
+      String name = materials.get(index).name();
+      if (Double.isNaN(prices[index]) && !missing.contains(name)) {
+        missing.add(name);
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Prices all surfaces with the engine.
+   *
+   * @param prices the prices per square meter by material index, none of them {@code NaN}.
+   * @return the total price, equal to the sum of the prices of the rooms.
+   */
+  public double price(double[] prices, PricingEngine pricingEngine) {
+    double total = 0;
+    for (int i = 0; i < surfaceCounts.length; i++) {
+      double surfacePrice =
+          pricingEngine.calculateSurfacePrice(prices[surfaceMaterials[i]], surfaceSqM[i]);
+      total =
+          pricingEngine.add(
+              total, pricingEngine.calculateSurfacePrice(surfacePrice, surfaceCounts[i]));
+    }
+    return total;
+  }
+
+  private static void add(
+      Map<MaterialKey, Integer> materialIndexes,
+      Map<Surface, int[]> surfaces,
+      MaterialType type,
+      String materialName,
+      double sqM) {
+    if (sqM == 0) {
+      return;
+    }
+    int material =
+        materialIndexes.computeIfAbsent(
+            new MaterialKey(type, materialName), key -> materialIndexes.size());
+    surfaces.computeIfAbsent(new Surface(material, sqM), surface -> new int[1])[0]++;
+  }
+
+  private record MaterialKey(MaterialType type, String name) {}
+
+  private record Surface(int material, double sqM) {}
+}
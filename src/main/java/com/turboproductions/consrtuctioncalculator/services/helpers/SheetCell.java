@@ -0,0 +1,27 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * The value of a cell read from an import file.
+ *
+ * @param type the type of the cell, {@link CellType#BLANK} for cells without a value.
+ * @param text the value of a {@link CellType#STRING} cell.
+ * @param number the value of a {@link CellType#NUMERIC} cell.
+ */
+public record SheetCell(CellType type, String text, double number) {
+  public static final SheetCell BLANK = new SheetCell(CellType.BLANK, null, 0);
+
+  public static SheetCell ofText(String text) {
+    return new SheetCell(CellType.STRING, text, 0);
+  }
+
+  public static SheetCell ofNumber(double number) {
+    return new SheetCell(CellType.NUMERIC, null, number);
+  }
+
+  public static SheetCell ofType(CellType type) {
+    return new SheetCell(type, null, 0);
+  }
+}
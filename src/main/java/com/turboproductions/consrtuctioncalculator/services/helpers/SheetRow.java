@@ -0,0 +1,22 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import java.util.List;
+
+/**
+ * A row read from an import file.
+ *
+ * @param rowNumber the number of the row as shown by Excel, starting at 1.
+ * @param cells the cells up to the last one present in the file, missing ones are {@link
+ *     SheetCell#BLANK}.
+ */
+public record SheetRow(int rowNumber, List<SheetCell> cells) {
+
+  public int cellCount() {
+    return cells.size();
+  }
+
+  public SheetCell cell(int column) {
+    return column < cells.size() ? cells.get(column) : SheetCell.BLANK;
+  }
+}
@@ -0,0 +1,119 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * An upload copied to a temporary file. The servlet container deletes the parts of a multipart
+ * request once it completed, a spooled copy can still be read afterwards and is deleted on {@link
+ * #close()}. The parsers read a spooled upload straight from its file, so it is written to disk
+ * once and never held in memory.
+ */
+public final class SpooledUpload implements MultipartFile, Closeable {
+  private final String name;
+  private final String originalFilename;
+  private final String contentType;
+  private final Path file;
+  private final long size;
+
+  private SpooledUpload(
+      String name, String originalFilename, String contentType, Path file, long size) {
+    this.name = name;
+    this.originalFilename = originalFilename;
+    this.contentType = contentType;
+    this.file = file;
+    this.size = size;
+  }
+
+  /**
+   * Moves the upload into the directory. The container keeps large parts on disk and writing a
+   * part to a {@link java.io.File} renames it when the directory is on the same file system, other
+   * uploads are copied.
+   *
+   * @param directory the directory of the temporary file, created if it does not exist.
+   */
+  public static SpooledUpload of(MultipartFile upload, Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Path file = Files.createTempFile(directory, "material-upload", ".tmp");
+    try {
+      // transferTo(Path) always copies the content, only transferTo(File) writes the part.
+      upload.transferTo(file.toFile());
+      return new SpooledUpload(
+          upload.getName(),
+          upload.getOriginalFilename(),
+          upload.getContentType(),
+          file,
+          Files.size(file));
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(file);
+      throw ex;
+    }
+  }
+
+  /** The temporary file holding the upload. */
+  public Path getFile() {
+    return file;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getOriginalFilename() {
+    return originalFilename;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public byte[] getBytes() throws IOException {
+    return Files.readAllBytes(file);
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return Files.newInputStream(file);
+  }
+
+  @Override
+  public void transferTo(File dest) throws IOException {
+    transferTo(dest.toPath());
+  }
+
+  @Override
+  public void transferTo(Path dest) throws IOException {
+    Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /** Deletes the file, a file that is still open elsewhere is deleted when the JVM exits. */
+  @Override
+  public void close() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      file.toFile().deleteOnExit();
+    }
+  }
+}
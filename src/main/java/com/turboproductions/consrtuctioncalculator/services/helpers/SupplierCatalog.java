@@ -0,0 +1,88 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import lombok.Getter;
+
+/**
+ * The price list of a supplier, read from a file in the material import format. It is not stored
+ * as materials: names are kept in one sorted array with the types and prices in parallel arrays,
+ * so a catalog of a few thousand materials takes a few hundred kilobytes and a lookup is a binary
+ * search. Names are matched ignoring case like the unique constraint of the materials does.
+ */
+public final class SupplierCatalog {
+  @Getter private final String name;
+  @Getter private final Instant importedAt;
+  private final String[] keys;
+  private final MaterialType[] types;
+  private final double[] prices;
+
+  private SupplierCatalog(String name, String[] keys, MaterialType[] types, double[] prices) {
+    this.name = name;
+    this.importedAt = Instant.now();
+    this.keys = keys;
+    this.types = types;
+    this.prices = prices;
+  }
+
+  /**
+   * Builds the index of the rows.
+   *
+   * @param name the name of the catalog.
+   * @param rows the validated rows of the imported file.
+   * @return the {@link SupplierCatalog} or {@code null} if a name is in the rows more than once.
+   */
+  public static SupplierCatalog of(String name, List<ImportedRow> rows) {
+    int size = rows.size();
+    Integer[] order = new Integer[size];
+    String[] rowKeys = new String[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+      rowKeys[i] = keyOf(rows.get(i).getName());
+    }
+    Arrays.sort(order, Comparator.comparing(i -> rowKeys[i]));
+
+    String[] keys = new String[size];
+    MaterialType[] types = new MaterialType[size];
+    double[] prices = new double[size];
+    for (int i = 0; i < size; i++) {
+      ImportedRow row = rows.get(order[i]);
+      keys[i] = rowKeys[order[i]];
+      if (i > 0 && keys[i].equals(keys[i - 1])) {
+        return null;
+      }
+      types[i] = MaterialType.valueOf(row.getType());
+      prices[i] = row.getValue();
+    }
+    return new SupplierCatalog(name, keys, types, prices);
+  }
+
+  /**
+   * @param materialName the name of a material, in any case.
+   * @param type the surface the material is used for.
+   * @return the price per square meter or {@code NaN} if the catalog has no material of the type
+   *     with the name.
+   */
+  public double getPrice(String materialName, MaterialType type) {
+    if (materialName == null) {
+      return Double.NaN;
+    }
+    int index = Arrays.binarySearch(keys, keyOf(materialName));
+    return index >= 0 && types[index] == type ? prices[index] : Double.NaN;
+  }
+
+  /** The number of materials of the catalog. */
+  public int size() {
+    return keys.length;
+  }
+
+  private static String keyOf(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,81 @@
+CREATE TABLE tb_usr_details
+(
+    usr_id       UNIQUEIDENTIFIER NOT NULL,
+    usr_name     VARCHAR(255)     NOT NULL,
+    usr_password VARCHAR(255)     NOT NULL,
+    CONSTRAINT pk_usr_details PRIMARY KEY CLUSTERED (usr_id),
+    CONSTRAINT uq_usr_details_name UNIQUE (usr_name)
+);
+
+CREATE TABLE tb_material
+(
+    material_id            UNIQUEIDENTIFIER NOT NULL,
+    material_name          VARCHAR(255)     NOT NULL,
+    material_type          TINYINT,
+    material_price_per_sqm FLOAT(53)        NOT NULL,
+    user_id                UNIQUEIDENTIFIER NOT NULL,
+    CONSTRAINT pk_material PRIMARY KEY CLUSTERED (material_id),
+    CONSTRAINT fk_material_user FOREIGN KEY (user_id) REFERENCES tb_usr_details (usr_id),
+    CONSTRAINT uq_material_user_name UNIQUE (user_id, material_name),
+    CONSTRAINT ck_material_type CHECK (material_type BETWEEN 0 AND 2)
+);
+
+-- Materials page and the material dropdowns, ordered and filtered by type.
+CREATE INDEX ix_material_user_type
+    ON tb_material (user_id, material_type) INCLUDE (material_name, material_price_per_sqm);
+
+CREATE TABLE tb_calculation
+(
+    calculation_id      UNIQUEIDENTIFIER NOT NULL,
+    calculation_name    VARCHAR(255),
+    room_numbers        INT              NOT NULL,
+    calculation_sq_m    FLOAT(53)        NOT NULL,
+    calculation_price   FLOAT(53)        NOT NULL,
+    time_of_calculation DATETIME2(6),
+    active              BIT              NOT NULL,
+    user_id             UNIQUEIDENTIFIER,
+    CONSTRAINT pk_calculation PRIMARY KEY CLUSTERED (calculation_id),
+    CONSTRAINT fk_calculation_user FOREIGN KEY (user_id) REFERENCES tb_usr_details (usr_id)
+);
+
+-- Calculations page, ordered by the time of calculation.
+CREATE INDEX ix_calculation_user_time
+    ON tb_calculation (user_id, time_of_calculation)
+    INCLUDE (calculation_name, room_numbers, calculation_sq_m, calculation_price, active);
+
+CREATE TABLE tb_room
+(
+    room_id             UNIQUEIDENTIFIER NOT NULL,
+    room_number         VARCHAR(255),
+    floor_material      VARCHAR(255),
+    floor_area          FLOAT(53)        NOT NULL,
+    floor_price         FLOAT(53)        NOT NULL,
+    wall_material       VARCHAR(255),
+    wall_area           FLOAT(53)        NOT NULL,
+    wall_price          FLOAT(53)        NOT NULL,
+    ceiling_material    VARCHAR(255),
+    ceiling_area        FLOAT(53)        NOT NULL,
+    ceiling_price       FLOAT(53)        NOT NULL,
+    room_area           FLOAT(53)        NOT NULL,
+    room_price          FLOAT(53)        NOT NULL,
+    user_id             UNIQUEIDENTIFIER,
+    floor_material_id   UNIQUEIDENTIFIER,
+    wall_material_id    UNIQUEIDENTIFIER,
+    ceiling_material_id UNIQUEIDENTIFIER,
+    calculation_id      UNIQUEIDENTIFIER NOT NULL,
+    CONSTRAINT pk_room PRIMARY KEY CLUSTERED (room_id),
+    CONSTRAINT fk_room_calculation FOREIGN KEY (calculation_id) REFERENCES tb_calculation (calculation_id),
+    -- No cascading actions, SQL Server does not allow several cascade paths between two tables.
+    -- References are cleared by the application before a material is deleted.
+    CONSTRAINT fk_room_floor_material FOREIGN KEY (floor_material_id) REFERENCES tb_material (material_id),
+    CONSTRAINT fk_room_wall_material FOREIGN KEY (wall_material_id) REFERENCES tb_material (material_id),
+    CONSTRAINT fk_room_ceiling_material FOREIGN KEY (ceiling_material_id) REFERENCES tb_material (material_id)
+);
+
+-- Rooms of a calculation (details page, export and totals).
+CREATE INDEX ix_room_calculation ON tb_room (calculation_id);
+CREATE INDEX ix_room_user ON tb_room (user_id);
+-- Rooms using a material (repricing, renames and material deletion).
+CREATE INDEX ix_room_floor_material ON tb_room (floor_material_id) INCLUDE (calculation_id);
+CREATE INDEX ix_room_wall_material ON tb_room (wall_material_id) INCLUDE (calculation_id);
+CREATE INDEX ix_room_ceiling_material ON tb_room (ceiling_material_id) INCLUDE (calculation_id);
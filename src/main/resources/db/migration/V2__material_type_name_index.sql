@@ -0,0 +1,6 @@
+-- The materials list scrolls by (type, name, id), the name is part of the key so every page is
+-- read in index order. The clustered key material_id is appended to the key by SQL Server.
+DROP INDEX ix_material_user_type ON tb_material;
+
+CREATE INDEX ix_material_user_type_name
+    ON tb_material (user_id, material_type, material_name) INCLUDE (material_price_per_sqm);
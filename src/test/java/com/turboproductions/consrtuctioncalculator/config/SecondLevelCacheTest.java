@@ -0,0 +1,111 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.dao.UserRepository;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.services.MaterialService;
+import com.turboproductions.consrtuctioncalculator.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+    })
+@AutoConfigureTestDatabase
+class SecondLevelCacheTest {
+  @Autowired private MaterialService materialService;
+  @Autowired private UserService userService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MaterialRepository materialRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  private User owner;
+  private Material wallpaper;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    owner = new User();
+    owner.setUsername("owner");
+    owner.setPassword("password");
+    userRepository.save(owner);
+    wallpaper = new Material("Wallpaper", MaterialType.WALL, 5.2);
+    wallpaper.setUser(owner);
+    materialRepository.save(wallpaper);
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM tb_material");
+    jdbcTemplate.update("DELETE FROM tb_usr_details");
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void getMaterialIsServedFromCache() {
+    Material loaded = materialService.getMaterial(wallpaper.getMaterialId());
+
+    assertEquals("Wallpaper", loaded.getName());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getSecondLevelCacheHitCount());
+  }
+
+  @Test
+  void updatedMaterialIsServedFromCache() {
+    Material changed = new Material("Wallpaper", MaterialType.WALL, 6.1);
+    changed.setMaterialId(wallpaper.getMaterialId());
+    assertNull(materialService.handleUpdateMaterial(changed, owner));
+    statistics.clear();
+
+    assertEquals(6.1, materialService.getMaterial(wallpaper.getMaterialId()).getPricePerSqMeter());
+    assertEquals(0, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void materialQueryIsCachedUntilMaterialsChange() {
+    materialService.getAllMaterials(owner);
+    statistics.clear();
+
+    assertEquals(1, materialService.getAllMaterials(owner).size());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+
+    assertNull(
+        materialService.handleCreateMaterial(
+            new Material("Drywall", MaterialType.WALL, 4.2), owner));
+    List<Material> materials = materialService.getAllMaterials(owner);
+
+    assertEquals(2, materials.size());
+  }
+
+  @Test
+  void userLookupIsCached() {
+    userService.loadUserByUsername("owner");
+    statistics.clear();
+
+    assertEquals("owner", userService.loadUserByUsername("owner").getUsername());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+  }
+}
@@ -0,0 +1,145 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.dao.UserRepository;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Renders the pages with open-session-in-view disabled. Touching a lazy association while a
+ * template is rendered fails the request, and the statistics show that the page was read with the
+ * statements of the service alone.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class PageRenderingTest {
+  @Autowired private MockMvc mockMvc;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MaterialRepository materialRepository;
+  @Autowired private ConstructionCalculationRepository constructionCalculationRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  private User owner;
+  private ConstructionCalculation calculation;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    owner = new User();
+    owner.setUsername("owner");
+    owner.setPassword("password");
+    userRepository.save(owner);
+    Material floorTiles = new Material("Floor Tiles", MaterialType.FLOOR, 4.12);
+    Material wallpaper = new Material("Wallpaper", MaterialType.WALL, 5.2);
+    Material ceilingTile = new Material("Ceiling Tile", MaterialType.CEILING, 3.99);
+    List<Material> materials = List.of(floorTiles, wallpaper, ceilingTile);
+    materials.forEach(material -> material.setUser(owner));
+    materialRepository.saveAll(materials);
+
+    calculation = new ConstructionCalculation();
+    calculation.setName("Apartment");
+    calculation.setUser(owner);
+    calculation.setDate(LocalDateTime.now());
+    calculation.setActive(true);
+    Set<RoomCalculation> rooms = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      RoomCalculation room =
+          new RoomCalculation(
+              calculation, "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8);
+      room.setRoomNumber("Room " + (i + 1));
+      room.setFloorMaterialRef(floorTiles);
+      room.setWallMaterialRef(wallpaper);
+      room.setCeilingMaterialRef(ceilingTile);
+      room.setUserUUID(owner.getUserId());
+      rooms.add(room);
+    }
+    calculation.setRoomCalculations(rooms);
+    calculation.setNumberOfRooms(rooms.size());
+    constructionCalculationRepository.save(calculation);
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (String table : List.of("tb_room", "tb_calculation", "tb_material", "tb_usr_details")) {
+      jdbcTemplate.update("DELETE FROM " + table);
+    }
+  }
+
+  @Test
+  void calculationDetailsPageDoesNotLoadLazily() throws Exception {
+    mockMvc
+        .perform(get("/calculation/info/{id}", calculation.getCalculationId()).with(user(owner)))
+        .andExpect(status().isOk())
+        .andExpect(view().name("calculation-details-page"))
+        .andExpect(content().string(containsString("Room 3")));
+
+    assertNoLazyLoading();
+  }
+
+  @Test
+  void calculationsPageDoesNotLoadLazily() throws Exception {
+    mockMvc
+        .perform(get("/calculation/calculations").with(user(owner)))
+        .andExpect(status().isOk())
+        .andExpect(view().name("calculations-page"))
+        .andExpect(content().string(containsString("Apartment")));
+
+    assertNoLazyLoading();
+  }
+
+  @Test
+  void materialsPageDoesNotLoadLazily() throws Exception {
+    mockMvc
+        .perform(get("/material/materials").with(user(owner)))
+        .andExpect(status().isOk())
+        .andExpect(view().name("materials-page"))
+        .andExpect(content().string(containsString("Wallpaper")));
+
+    assertNoLazyLoading();
+  }
+
+  private void assertNoLazyLoading() {
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityFetchCount());
+    assertEquals(0, statistics.getCollectionFetchCount());
+  }
+}
@@ -0,0 +1,181 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.dao.UserRepository;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/** Calls the pricing API through its security filter chain, the responses are streamed. */
+@SpringBootTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "calculator.api.max-calculations=2"
+    })
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class PricingApiControllerTest {
+  private static final String CALCULATION =
+      """
+      {"name": "%s", "rooms": [{"floorMaterial": "Floor Tiles", "floorSqM": 18.8,
+        "wallMaterial": "Wallpaper", "wallSqM": 72.6,
+        "ceilingMaterial": "Ceiling Tile", "ceilingSqM": 18.8}]}
+      """;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MaterialRepository materialRepository;
+  @Autowired private ConstructionCalculationRepository constructionCalculationRepository;
+  @Autowired private PasswordEncoder passwordEncoder;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private ObjectMapper objectMapper;
+
+  @BeforeEach
+  void setUp() {
+    User owner = new User();
+    owner.setUsername("owner");
+    owner.setPassword(passwordEncoder.encode("password"));
+    userRepository.save(owner);
+    List<Material> materials =
+        List.of(
+            new Material("Floor Tiles", MaterialType.FLOOR, 4.12),
+            new Material("Wallpaper", MaterialType.WALL, 5.2),
+            new Material("Ceiling Tile", MaterialType.CEILING, 3.99));
+    materials.forEach(material -> material.setUser(owner));
+    materialRepository.saveAll(materials);
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (String table : List.of("tb_room", "tb_calculation", "tb_material", "tb_usr_details")) {
+      jdbcTemplate.update("DELETE FROM " + table);
+    }
+  }
+
+  @Test
+  void pricingRequiresCredentials() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/pricing")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(createRequest(false, "First")))
+        .andExpect(status().isUnauthorized())
+        .andExpect(header().exists("WWW-Authenticate"));
+  }
+
+  @Test
+  void pricingReturnsJsonArrayWithoutCsrfToken() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(
+                post("/api/pricing")
+                    .with(httpBasic("owner", "password"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(createRequest(false, "First", "Second")))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn();
+    result.getAsyncResult();
+
+    JsonNode quotes = objectMapper.readTree(result.getResponse().getContentAsString());
+    assertTrue(quotes.isArray());
+    assertEquals(2, quotes.size());
+    assertEquals("Second", quotes.get(1).get("name").asText());
+    assertEquals(529.99, quotes.get(1).get("price").asDouble());
+    assertTrue(quotes.get(1).get("calculationId").isNull());
+    assertFalse(result.getResponse().containsHeader("Set-Cookie"));
+    assertEquals(0, constructionCalculationRepository.count());
+  }
+
+  @Test
+  void pricingWritesOneLinePerCalculationAsNdjson() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(
+                post("/api/pricing")
+                    .with(httpBasic("owner", "password"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .content(createRequest(true, "First", "Second")))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn();
+    result.getAsyncResult();
+
+    String body = result.getResponse().getContentAsString();
+    assertTrue(body.endsWith("\n"));
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    for (int i = 0; i < lines.length; i++) {
+      JsonNode quote = objectMapper.readTree(lines[i]);
+      assertEquals(i, quote.get("index").asInt());
+      assertFalse(quote.get("calculationId").isNull());
+    }
+    assertEquals(2, constructionCalculationRepository.count());
+  }
+
+  @Test
+  void pricingRejectsTooManyCalculations() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/pricing")
+                .with(httpBasic("owner", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(createRequest(false, "First", "Second", "Third")))
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(request().asyncNotStarted());
+  }
+
+  @Test
+  void pricingRejectsNullRoomBeforeStreaming() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/pricing")
+                .with(httpBasic("owner", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("{\"calculations\": [{\"name\": \"Empty\", \"rooms\": [null]}]}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(request().asyncNotStarted());
+  }
+
+  private static String createRequest(boolean persist, String... names) {
+    List<String> calculations =
+        List.of(names).stream().map(name -> String.format(CALCULATION, name)).toList();
+    return String.format(
+        "{\"persist\": %s, \"calculations\": [%s]}", persist, String.join(",", calculations));
+  }
+}
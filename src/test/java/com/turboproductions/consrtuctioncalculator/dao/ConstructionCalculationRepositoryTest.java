@@ -0,0 +1,102 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+// The Flyway scripts are written for SQL Server, the H2 schema is generated from the entities.
+@DataJpaTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+class ConstructionCalculationRepositoryTest {
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private ConstructionCalculationRepository constructionCalculationRepository;
+  private ConstructionCalculation calculation;
+  private Material wallpaper;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    User user = new User();
+    user.setUsername("user");
+    user.setPassword("password");
+    entityManager.persist(user);
+    Material floorTiles = new Material("Floor Tiles", MaterialType.FLOOR, 4.12);
+    wallpaper = new Material("Wallpaper", MaterialType.WALL, 5.2);
+    Material ceilingTile = new Material("Ceiling Tile", MaterialType.CEILING, 3.99);
+    for (Material material : List.of(floorTiles, wallpaper, ceilingTile)) {
+      material.setUser(user);
+      entityManager.persist(material);
+    }
+    calculation = new ConstructionCalculation();
+    calculation.setName("Apartment");
+    calculation.setUser(user);
+    Set<RoomCalculation> rooms = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      RoomCalculation room =
+          new RoomCalculation(
+              calculation, "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8);
+      room.setFloorMaterialRef(floorTiles);
+      room.setWallMaterialRef(wallpaper);
+      room.setCeilingMaterialRef(ceilingTile);
+      room.setUserUUID(user.getUserId());
+      rooms.add(room);
+    }
+    calculation.setRoomCalculations(rooms);
+    entityManager.persist(calculation);
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics =
+        entityManager
+            .getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void findWithRoomsByCalculationIdUsesOneStatement() {
+    ConstructionCalculation loaded =
+        constructionCalculationRepository
+            .findWithRoomsByCalculationId(calculation.getCalculationId())
+            .orElseThrow();
+
+    assertEquals(3, loaded.getRoomCalculations().size());
+    for (RoomCalculation room : loaded.getRoomCalculations()) {
+      assertEquals("Wallpaper", room.getWallMaterial());
+      assertEquals("Apartment", room.getConstructionCalculation().getName());
+    }
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void findWithRoomsByMaterialIdUsesOneStatement() {
+    List<ConstructionCalculation> calculations =
+        constructionCalculationRepository.findWithRoomsByMaterialId(wallpaper.getMaterialId());
+
+    assertEquals(1, calculations.size());
+    assertEquals(3, calculations.getFirst().getRoomCalculations().size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+}
@@ -0,0 +1,55 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.turboproductions.consrtuctioncalculator.services.helpers.BigDecimalPricingEngine;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+// The repricing updates use SQL Server syntax, H2 evaluates the surface price they share.
+@DataJpaTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+    })
+class RoomCalculationRepositoryTest {
+  @Autowired private TestEntityManager entityManager;
+  private final BigDecimalPricingEngine pricingEngine = new BigDecimalPricingEngine();
+
+  @Test
+  void surfacePriceMatchesPricingEngine() {
+    // Four decimals of the price are not enough here: 2.0005 * 10 would round to 20.01.
+    assertEquals(20.0, surfacePrice(2.00049, 10));
+    assertEquals(pricingEngine.calculateSurfacePrice(4.125, 18.8), surfacePrice(4.125, 18.8));
+
+    Random random = new Random(401);
+    for (int i = 0; i < 2_000; i++) {
+      double price = random.nextInt(10_000_000) / Math.pow(10, 1 + random.nextInt(5));
+      double area = random.nextInt(1_000_000) / Math.pow(10, 1 + random.nextInt(5));
+      assertEquals(
+          pricingEngine.calculateSurfacePrice(price, area),
+          surfacePrice(price, area),
+          price + " * " + area);
+    }
+  }
+
+  private double surfacePrice(double price, double area) {
+    Object result =
+        entityManager
+            .getEntityManager()
+            .createNativeQuery(
+                "SELECT "
+                    + RoomCalculationRepository.SURFACE_PRICE_OF
+                    + ":area"
+                    + RoomCalculationRepository.SURFACE_PRICE_END)
+            .setParameter("price", price)
+            .setParameter("area", area)
+            .getSingleResult();
+    return ((Number) result).doubleValue();
+  }
+}
@@ -0,0 +1,53 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+// The context only starts if Hibernate finds every mapped column in the schema of the scripts,
+// H2 runs them in its SQL Server mode.
+@DataJpaTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+    })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+  @Autowired private Flyway flyway;
+  @Autowired private TestEntityManager entityManager;
+
+  @Test
+  void migrationsCreateMappedSchema() {
+    assertEquals(0, flyway.info().pending().length);
+
+    User user = new User();
+    user.setUsername("user");
+    user.setPassword("password");
+    entityManager.persist(user);
+    Material material = new Material("Floor Tiles", MaterialType.FLOOR, 4.12);
+    material.setUser(user);
+    entityManager.persistAndFlush(material);
+
+    Object price =
+        entityManager
+            .getEntityManager()
+            .createNativeQuery(
+                "SELECT material_price_per_sqm FROM tb_material WHERE material_id = :id")
+            .setParameter("id", material.getMaterialId())
+            .getSingleResult();
+    assertEquals(4.12, ((Number) price).doubleValue());
+  }
+}
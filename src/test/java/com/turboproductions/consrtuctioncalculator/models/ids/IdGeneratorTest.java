@@ -0,0 +1,116 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+  // The order in which SQL Server compares the bytes of a stored uniqueidentifier.
+  private static final int[] SQL_SERVER_BYTE_ORDER = {
+    10, 11, 12, 13, 14, 15, 8, 9, 6, 7, 4, 5, 0, 1, 2, 3
+  };
+
+  @Test
+  void sequentialGuidsFollowSqlServerOrder() {
+    assertAscending(new SequentialGuidGenerator(), 50_000, IdGeneratorTest::compareAsSqlServer);
+  }
+
+  @Test
+  void sequentialGuidsStayOrderedWithinOneMillisecond() {
+    SequentialGuidGenerator generator =
+        new SequentialGuidGenerator(() -> 1_718_000_000_000L, new Random(1));
+    // More ids than the counter holds, the timestamp has to move forward.
+    assertAscending(generator, 40_000, IdGeneratorTest::compareAsSqlServer);
+  }
+
+  @Test
+  void sequentialGuidsStayOrderedWhenTheClockGoesBack() {
+    Deque<Long> times = new ArrayDeque<>();
+    times.add(1_718_000_000_500L);
+    times.add(1_718_000_000_000L);
+    times.add(1_718_000_000_001L);
+    SequentialGuidGenerator generator =
+        new SequentialGuidGenerator(times::removeFirst, new Random(1));
+    assertAscending(generator, 3, IdGeneratorTest::compareAsSqlServer);
+  }
+
+  @Test
+  void sequentialGuidLayout() {
+    long now = 1_718_000_000_000L;
+    UUID id = new SequentialGuidGenerator(() -> now, new Random(1)).nextId();
+    assertEquals(8, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(now, id.getLeastSignificantBits() & 0xFFFF_FFFF_FFFFL);
+  }
+
+  @Test
+  void uuidV7sAreOrderedAsStrings() {
+    assertAscending(
+        new UuidV7Generator(),
+        50_000,
+        (first, second) -> first.toString().compareTo(second.toString()));
+  }
+
+  @Test
+  void uuidV7Layout() {
+    long now = 1_718_000_000_000L;
+    UUID id = new UuidV7Generator(() -> now, new Random(1)).nextId();
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(now, id.getMostSignificantBits() >>> 16);
+  }
+
+  @Test
+  void entityIdsUseConfiguredGenerator() {
+    UUID fixedId = UUID.randomUUID();
+    try {
+      EntityIds.setGenerator(() -> fixedId);
+      assertEquals(fixedId, EntityIds.nextId());
+    } finally {
+      EntityIds.setGenerator(IdStrategy.SEQUENTIAL_GUID.createGenerator());
+    }
+  }
+
+  private void assertAscending(IdGenerator generator, int count, Comparator<UUID> comparator) {
+    UUID previous = generator.nextId();
+    for (int i = 1; i < count; i++) {
+      UUID next = generator.nextId();
+      assertTrue(comparator.compare(previous, next) < 0, previous + " >= " + next);
+      previous = next;
+    }
+  }
+
+  /** Compares two UUIDs like SQL Server compares the {@code uniqueidentifier} they are saved as. */
+  static int compareAsSqlServer(UUID first, UUID second) {
+    byte[] firstBytes = toSqlServerBytes(first);
+    byte[] secondBytes = toSqlServerBytes(second);
+    for (int index : SQL_SERVER_BYTE_ORDER) {
+      int result = Integer.compare(firstBytes[index] & 0xFF, secondBytes[index] & 0xFF);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  // SQL Server stores the first three groups of the string form little endian.
+  private static byte[] toSqlServerBytes(UUID id) {
+    byte[] bytes =
+        ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    return new byte[] {
+      bytes[3], bytes[2], bytes[1], bytes[0], bytes[5], bytes[4], bytes[7], bytes[6], bytes[8],
+      bytes[9], bytes[10], bytes[11], bytes[12], bytes[13], bytes[14], bytes[15]
+    };
+  }
+}
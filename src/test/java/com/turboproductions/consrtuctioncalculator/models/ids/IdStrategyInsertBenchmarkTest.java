@@ -0,0 +1,87 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.models.ids;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Inserts rooms into a copy of {@code tb_room} with a clustered primary key for every {@link
+ * IdStrategy} and prints the insert throughput and the fragmentation of the index. Needs the SQL
+ * Server database of the application, run it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class IdStrategyInsertBenchmarkTest {
+  private static final int PRELOADED_ROOMS = 1_000_000;
+  private static final int MEASURED_ROOMS = 200_000;
+  private static final int BATCH_SIZE = 1_000;
+  private static final String INSERT_ROOM =
+      "INSERT INTO %s (room_id, room_number, floor_area, floor_price, wall_area, wall_price,"
+          + " ceiling_area, ceiling_price, room_area, room_price, user_id, calculation_id)"
+          + " VALUES (?, 'Room 1', 18.8, 77.46, 72.6, 377.52, 18.8, 75.01, 110.2, 529.99, ?, ?)";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void insertRoomsWithEveryIdStrategy() {
+    for (IdStrategy strategy : IdStrategy.values()) {
+      String table = "tb_room_benchmark_" + strategy.name().toLowerCase();
+      jdbcTemplate.execute(String.format("DROP TABLE IF EXISTS %s", table));
+      jdbcTemplate.execute(String.format("SELECT TOP 0 * INTO %s FROM tb_room", table));
+      jdbcTemplate.execute(
+          String.format(
+              "ALTER TABLE %s ADD CONSTRAINT pk_%s PRIMARY KEY CLUSTERED (room_id)", table, table));
+      try {
+        IdGenerator generator = strategy.createGenerator();
+        insertRooms(table, generator, PRELOADED_ROOMS);
+
+        long start = System.nanoTime();
+        insertRooms(table, generator, MEASURED_ROOMS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, Object> index =
+            jdbcTemplate.queryForMap(
+                "SELECT avg_fragmentation_in_percent, page_count FROM"
+                    + " sys.dm_db_index_physical_stats(DB_ID(), OBJECT_ID(?), 1, NULL, 'LIMITED')",
+                table);
+        System.out.printf(
+            "%-16s %,10.0f rooms/s, fragmentation %5.1f%%, %,d pages%n",
+            strategy,
+            MEASURED_ROOMS / seconds,
+            ((Number) index.get("avg_fragmentation_in_percent")).doubleValue(),
+            ((Number) index.get("page_count")).longValue());
+        assertEquals(
+            PRELOADED_ROOMS + MEASURED_ROOMS,
+            jdbcTemplate.queryForObject(
+                String.format("SELECT COUNT(*) FROM %s", table), Integer.class));
+      } finally {
+        jdbcTemplate.execute(String.format("DROP TABLE %s", table));
+      }
+    }
+  }
+
+  private void insertRooms(String table, IdGenerator generator, int count) {
+    String userId = UUID.randomUUID().toString();
+    String calculationId = UUID.randomUUID().toString();
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < count; i++) {
+      batch.add(new Object[] {generator.nextId().toString(), userId, calculationId});
+      if (batch.size() == BATCH_SIZE) {
+        jdbcTemplate.batchUpdate(String.format(INSERT_ROOM, table), batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      jdbcTemplate.batchUpdate(String.format(INSERT_ROOM, table), batch);
+    }
+  }
+}
@@ -3,24 +3,41 @@ package com.turboproductions.consrtuctioncalculator.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
 import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
-import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
 import com.turboproductions.consrtuctioncalculator.dao.RoomCalculationRepository;
 import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
 import com.turboproductions.consrtuctioncalculator.models.Material;
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
 import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.CalculationSort;
 import com.turboproductions.consrtuctioncalculator.models.dto.ConstructionActivityRequest;
+import com.turboproductions.consrtuctioncalculator.models.dto.PricingRequest;
+import com.turboproductions.consrtuctioncalculator.models.projections.CalculationSummary;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationDetailsView;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationQuoteView;
+import com.turboproductions.consrtuctioncalculator.models.views.CalculationRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.BigDecimalPricingEngine;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ParallelRoomPricer;
+import com.turboproductions.consrtuctioncalculator.services.helpers.PricingEngine;
 import com.turboproductions.consrtuctioncalculator.services.helpers.RoomValidator;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,22 +54,36 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 @ExtendWith(MockitoExtension.class)
 class CalculationServiceTest {
   @Mock private RoomValidator roomValidator;
-  @Mock private MaterialRepository materialRepository;
+  @Mock private MaterialCatalogCache materialCatalogCache;
   @Mock private ConstructionCalculationRepository calculationRepository;
   @Mock private RoomCalculationRepository roomCalculationRepository;
+  @Spy private PricingEngine pricingEngine = new BigDecimalPricingEngine();
+  @Spy private CalculatorProperties calculatorProperties = new CalculatorProperties();
+  @Mock private LargeCalculationWriter largeCalculationWriter;
+
+  @Spy
+  private ParallelRoomPricer parallelRoomPricer =
+      new ParallelRoomPricer(new BigDecimalPricingEngine(), new CalculatorProperties());
+
   @InjectMocks private CalculationService calculationService;
   private List<RoomCalculation> mockRooms;
   private ConstructionCalculation mockCalculation;
   private List<Material> mockMaterials;
   private User mockUser;
-  private UUID mockUserId;
 
   @BeforeEach
   void setUp() {
@@ -75,12 +106,12 @@ class CalculationServiceTest {
             new Material("Ceiling Tile", MaterialType.CEILING, 3.99),
             new Material("White Paint", MaterialType.CEILING, 0.80));
     mockUser = new User();
-    mockUserId = mockUser.getUserId();
   }
 
   @Test
   void handleConstructionCalculationCreationTest() {
-    when(materialRepository.findAllByUserOrderByType(eq(mockUser))).thenReturn(mockMaterials);
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
     calculationService.handleConstructionCalculationCreation(mockCalculation, mockRooms, mockUser);
     // Assert first room prices and area (Desmos Scientific Calculator used to manually calculate
     // prices with test data)
@@ -89,6 +120,9 @@ class CalculationServiceTest {
     assertEquals(377.52, mockRooms.get(0).getWallMaterialPrice());
     assertEquals(529.99, mockRooms.get(0).getRoomPrice());
     assertEquals(110.2, mockRooms.get(0).getRoomArea());
+    assertSame(getMaterial("Wallpaper"), mockRooms.get(0).getWallMaterialRef());
+    assertSame(getMaterial("Floor Tiles"), mockRooms.get(0).getFloorMaterialRef());
+    assertSame(getMaterial("Ceiling Tile"), mockRooms.get(0).getCeilingMaterialRef());
 
     // Assert calculation area, prices and number of rooms (Desmos scientific calculator used to
     // manually calculate prices with test data)
@@ -97,6 +131,123 @@ class CalculationServiceTest {
     assertEquals(1160.18, mockCalculation.getCalculationPrice());
   }
 
+  @Test
+  void handleLargeConstructionCalculationCreationTest() {
+    calculatorProperties.getLargeProjects().setThreshold(2);
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+
+    calculationService.handleConstructionCalculationCreation(mockCalculation, mockRooms, mockUser);
+
+    // Same values as the sequential path above
+    assertEquals(529.99, mockRooms.get(0).getRoomPrice());
+    assertSame(getMaterial("Wallpaper"), mockRooms.get(0).getWallMaterialRef());
+    assertEquals(3, mockCalculation.getNumberOfRooms());
+    assertEquals(298.8, mockCalculation.getSquareMeters());
+    assertEquals(1160.18, mockCalculation.getCalculationPrice());
+    verify(parallelRoomPricer).priceRooms(eq(mockRooms), any());
+    verify(largeCalculationWriter).save(mockCalculation);
+    verify(calculationRepository, never()).save(any());
+  }
+
+  @Test
+  void quoteConstructionCalculationTooManyRoomsTest() {
+    calculatorProperties.getLargeProjects().setMaxRooms(2);
+
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(0, createPricingRequest(), mockUser, false);
+
+    assertEquals("A calculation can have up to 2 rooms.", quote.error());
+    verify(materialCatalogCache, never()).getCatalog(any());
+  }
+
+  @Test
+  void quoteConstructionCalculationTest() {
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(2, createPricingRequest(), mockUser, false);
+
+    assertNull(quote.error());
+    assertNull(quote.calculationId());
+    assertEquals(2, quote.index());
+    assertEquals("Api Calculation", quote.name());
+    assertEquals(3, quote.numberOfRooms());
+    assertEquals(298.8, quote.squareMeters());
+    assertEquals(1160.18, quote.price());
+    assertEquals(529.99, quote.rooms().getFirst().roomPrice());
+    verify(calculationRepository, never()).save(any());
+  }
+
+  @Test
+  void quoteConstructionCalculationPersistTest() {
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(0, createPricingRequest(), mockUser, true);
+
+    ArgumentCaptor<ConstructionCalculation> saved =
+        ArgumentCaptor.forClass(ConstructionCalculation.class);
+    verify(calculationRepository).save(saved.capture());
+    assertEquals(saved.getValue().getCalculationId(), quote.calculationId());
+    assertSame(mockUser, saved.getValue().getUser());
+    assertEquals(3, saved.getValue().getRoomCalculations().size());
+  }
+
+  @Test
+  void quoteConstructionCalculationUnknownMaterialTest() {
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+    PricingRequest.CalculationRequest request =
+        new PricingRequest.CalculationRequest(
+            "Api Calculation",
+            List.of(
+                new PricingRequest.RoomRequest(
+                    "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8),
+                new PricingRequest.RoomRequest(
+                    "Floor Tiles", 18.8, "Blue Paint", 72.6, "Ceiling Tile", 18.8)));
+
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(0, request, mockUser, true);
+
+    assertEquals("Unknown material 'Blue Paint' in room 2.", quote.error());
+    assertTrue(quote.rooms().isEmpty());
+    verify(calculationRepository, never()).save(any());
+  }
+
+  @Test
+  void quoteConstructionCalculationMaterialOfOtherTypeTest() {
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+    PricingRequest.CalculationRequest request =
+        new PricingRequest.CalculationRequest(
+            "Api Calculation",
+            List.of(
+                new PricingRequest.RoomRequest(
+                    "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8),
+                new PricingRequest.RoomRequest(
+                    "Wallpaper", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8)));
+
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(0, request, mockUser, true);
+
+    assertEquals("Material 'Wallpaper' in room 2 is not a floor material.", quote.error());
+    assertTrue(quote.rooms().isEmpty());
+    verify(calculationRepository, never()).save(any());
+  }
+
+  @Test
+  void quoteConstructionCalculationWithoutRoomsTest() {
+    CalculationQuoteView quote =
+        calculationService.quoteConstructionCalculation(
+            0, new PricingRequest.CalculationRequest("Empty", List.of()), mockUser, false);
+
+    assertEquals("A calculation needs at least one room.", quote.error());
+    verify(materialCatalogCache, never()).getCatalog(any());
+  }
+
   @Test
   void updateRoomsAndCalculationsOnMaterialUpdateTest() {
     // Update material's prices
@@ -112,7 +263,13 @@ class CalculationServiceTest {
 
     mockCalculation.setRoomCalculations(new HashSet<>(mockRooms));
     mockCalculation.setName("2 Bedroom apartment");
-    mockRooms.forEach(x -> x.setConstructionCalculation(mockCalculation));
+    mockRooms.forEach(
+        x -> {
+          x.setConstructionCalculation(mockCalculation);
+          x.setFloorMaterialRef(getMaterial(x.getFloorMaterial()));
+          x.setWallMaterialRef(getMaterial(x.getWallMaterial()));
+          x.setCeilingMaterialRef(getMaterial(x.getCeilingMaterial()));
+        });
     // Manually set the second room up since it doesn't have materials that will be updated
     RoomCalculation roomCalculation = mockRooms.get(1);
     roomCalculation.setFloorMaterialPrice(84.32);
@@ -122,22 +279,18 @@ class CalculationServiceTest {
     roomCalculation.setRoomArea(83.6);
 
     // Mock db calls
-    when(roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndFloorMaterial(
-            eq(mockUserId), eq("Floor Tiles")))
-        .thenReturn(
-            mockRooms.stream().filter(x -> x.getFloorMaterial().equals("Floor Tiles")).toList());
-
-    when(roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndWallMaterial(
-            eq(mockUserId), eq("Wallpaper")))
-        .thenReturn(
-            mockRooms.stream().filter(x -> x.getWallMaterial().equals("Wallpaper")).toList());
-
-    when(roomCalculationRepository.findRoomCalculationsByUserUUIDAndAndCeilingMaterial(
-            eq(mockUserId), eq("Ceiling Tile")))
-        .thenReturn(
-            mockRooms.stream().filter(x -> x.getCeilingMaterial().equals("Ceiling Tile")).toList());
+    when(calculationRepository.findWithRoomsByMaterialId(
+            eq(getMaterial("Floor Tiles").getMaterialId())))
+        .thenReturn(List.of(mockCalculation));
+    when(calculationRepository.findWithRoomsByMaterialId(
+            eq(getMaterial("Wallpaper").getMaterialId())))
+        .thenReturn(List.of(mockCalculation));
+    when(calculationRepository.findWithRoomsByMaterialId(
+            eq(getMaterial("Ceiling Tile").getMaterialId())))
+        .thenReturn(List.of(mockCalculation));
 
-    when(materialRepository.findAllByUserOrderByType(eq(mockUser))).thenReturn(mockMaterials);
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
 
     // Calls to method after updating materials
     calculationService.updateRoomsAndCalculationsOnMaterialUpdate(
@@ -182,15 +335,104 @@ class CalculationServiceTest {
   }
 
   @Test
-  void handleExcelExportTest() throws IOException {
+  void updateRoomsAndCalculationsOnMaterialPriceChangeTest() {
+    // Price the calculation with the original material prices
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+    calculationService.handleConstructionCalculationCreation(mockCalculation, mockRooms, mockUser);
+
+    Material wallpaper =
+        mockMaterials.stream().filter(x -> x.getName().equals("Wallpaper")).findAny().orElseThrow();
+    wallpaper.setPricePerSqMeter(3.2);
+    when(roomCalculationRepository.findRoomCalculationsByWallMaterialId(
+            eq(wallpaper.getMaterialId())))
+        .thenReturn(
+            mockRooms.stream().filter(x -> x.getWallMaterialRef() == wallpaper).toList());
+
+    calculationService.updateRoomsAndCalculationsOnMaterialPriceChange(wallpaper);
+
+    // Only the wall price of the rooms using the wallpaper changes (72.6 * 3.2 = 232.32)
+    RoomCalculation firstRoom = mockRooms.getFirst();
+    assertEquals(232.32, firstRoom.getWallMaterialPrice());
+    assertEquals(77.46, firstRoom.getFloorMaterialPrice());
+    assertEquals(75.01, firstRoom.getCeilingMaterialPrice());
+    assertEquals(384.79, firstRoom.getRoomPrice());
+    assertEquals(121.29, mockRooms.get(1).getRoomPrice());
+
+    // Both wallpaper rooms are 145.20 cheaper than before (1160.18 - 2 * 145.20)
+    assertEquals(869.78, mockCalculation.getCalculationPrice());
+    verify(roomCalculationRepository, times(0)).findRoomCalculationsByFloorMaterialId(any());
+  }
+
+  @Test
+  void updateRoomsAndCalculationsOnMaterialPriceChangeInDatabaseTest() {
+    Material wallpaper = new Material("Wallpaper", MaterialType.WALL, 3.2);
+    when(roomCalculationRepository.updateWallPricesByWallMaterialId(
+            eq(wallpaper.getMaterialId()), eq(3.2)))
+        .thenReturn(2);
+
+    calculationService.updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(wallpaper);
+
+    verify(calculationRepository, times(1))
+        .updateCalculationPricesByMaterialId(eq(wallpaper.getMaterialId()), any());
+    verify(roomCalculationRepository, never()).findRoomCalculationsByWallMaterialId(any());
+  }
+
+  @Test
+  void updateRoomsAndCalculationsOnMaterialPriceChangeInDatabaseUnusedMaterialTest() {
+    Material whitePaint = new Material("White Paint", MaterialType.CEILING, 0.9);
+    when(roomCalculationRepository.updateCeilingPricesByCeilingMaterialId(
+            eq(whitePaint.getMaterialId()), eq(0.9)))
+        .thenReturn(0);
+
+    calculationService.updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(whitePaint);
+
+    verify(calculationRepository, never()).updateCalculationPricesByMaterialId(any(), any());
+  }
+
+  @Test
+  void updateRoomsAndCalculationsOnMaterialUpdateSetsRenamedMaterialTest() {
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
+    calculationService.handleConstructionCalculationCreation(mockCalculation, mockRooms, mockUser);
+
+    Material wallpaper = getMaterial("Wallpaper");
+    wallpaper.setName("Striped Wallpaper");
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(2, mockMaterials));
+    List<RoomCalculation> wallpaperRooms =
+        mockRooms.stream().filter(x -> x.getWallMaterialRef() == wallpaper).toList();
+    when(calculationRepository.findWithRoomsByMaterialId(eq(wallpaper.getMaterialId())))
+        .thenReturn(List.of(mockCalculation));
+
+    calculationService.updateRoomsAndCalculationsOnMaterialUpdate(wallpaper, mockUser);
+
+    assertEquals(2, wallpaperRooms.size());
+    wallpaperRooms.forEach(x -> assertEquals("Striped Wallpaper", x.getWallMaterial()));
+    assertEquals("Red Paint", mockRooms.get(1).getWallMaterial());
+    assertEquals(1160.18, mockCalculation.getCalculationPrice());
+  }
+
+  @Test
+  void releaseMaterialTest() {
+    UUID materialId = UUID.randomUUID();
+    calculationService.releaseMaterial(materialId);
+    verify(roomCalculationRepository, times(1)).clearFloorMaterialRef(materialId);
+    verify(roomCalculationRepository, times(1)).clearWallMaterialRef(materialId);
+    verify(roomCalculationRepository, times(1)).clearCeilingMaterialRef(materialId);
+  }
+
+  @Test
+  void writeExcelExportTest() throws IOException {
     // Calculate ConstructionCalculation properties
-    when(materialRepository.findAllByUserOrderByType(eq(mockUser))).thenReturn(mockMaterials);
+    when(materialCatalogCache.getCatalog(eq(mockUser)))
+        .thenReturn(MaterialCatalog.of(1, mockMaterials));
     calculationService.handleConstructionCalculationCreation(mockCalculation, mockRooms, mockUser);
 
-    ByteArrayInputStream result = calculationService.handleExcelExport(mockCalculation);
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    calculationService.writeExcelExport(mockCalculation, result);
 
-    assertNotNull(result);
-    try (Workbook workbook = new XSSFWorkbook(result)) {
+    try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.toByteArray()))) {
       Sheet sheet = workbook.getSheet(mockCalculation.getName());
       assertNotNull(sheet);
 
@@ -262,6 +504,77 @@ class CalculationServiceTest {
     verify(calculationRepository, times(0)).save(any());
   }
 
+  @Test
+  void getCalculationsFirstPageTest() {
+    Window<CalculationSummary> window =
+        Window.from(List.of(toSummary(mockCalculation)), ScrollPosition::offset, true);
+    when(calculationRepository.findByUser(
+            eq(mockUser),
+            eq(ScrollPosition.keyset()),
+            eq(CalculationSort.NEWEST.getSort()),
+            eq(Limit.of(25))))
+        .thenReturn(window);
+
+    PageView<CalculationRowView> page =
+        calculationService.getCalculations(mockUser, null, CalculationSort.NEWEST, null);
+    assertEquals(List.of(CalculationRowView.of(toSummary(mockCalculation))), page.items());
+    assertEquals(mockCalculation.getCalculationId(), page.nextCursor());
+  }
+
+  @Test
+  void getCalculationsAfterCursorTest() {
+    UUID calculationId = mockCalculation.getCalculationId();
+    when(calculationRepository.findByCalculationIdAndUser(calculationId, mockUser))
+        .thenReturn(Optional.of(toSummary(mockCalculation)));
+    when(calculationRepository.findByUserAndActive(
+            eq(mockUser), eq(false), any(), eq(CalculationSort.OLDEST.getSort()), eq(Limit.of(25))))
+        .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+    calculationService.getCalculations(mockUser, calculationId, CalculationSort.OLDEST, false);
+
+    ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+    verify(calculationRepository)
+        .findByUserAndActive(eq(mockUser), eq(false), position.capture(), any(), any());
+    KeysetScrollPosition keyset = (KeysetScrollPosition) position.getValue();
+    assertEquals(mockCalculation.getDate(), keyset.getKeys().get("date"));
+    assertEquals(calculationId, keyset.getKeys().get("calculationId"));
+  }
+
+  @Test
+  void getCalculationsIgnoresUnknownCursorTest() {
+    UUID calculationId = mockCalculation.getCalculationId();
+    when(calculationRepository.findByCalculationIdAndUser(calculationId, mockUser))
+        .thenReturn(Optional.empty());
+    when(calculationRepository.findByUser(eq(mockUser), eq(ScrollPosition.keyset()), any(), any()))
+        .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+    calculationService.getCalculations(mockUser, calculationId, CalculationSort.NEWEST, null);
+
+    verify(calculationRepository)
+        .findByUser(eq(mockUser), eq(ScrollPosition.keyset()), any(), any());
+  }
+
+  @Test
+  void getCalculationWithRoomsTest() {
+    when(calculationRepository.findWithRoomsByCalculationId(mockCalculation.getCalculationId()))
+        .thenReturn(Optional.of(mockCalculation));
+    assertSame(
+        mockCalculation,
+        calculationService.getCalculationWithRooms(mockCalculation.getCalculationId()));
+  }
+
+  @Test
+  void getCalculationDetailsTest() {
+    when(calculationRepository.findWithRoomsByCalculationId(mockCalculation.getCalculationId()))
+        .thenReturn(Optional.of(mockCalculation));
+
+    CalculationDetailsView details =
+        calculationService.getCalculationDetails(mockCalculation.getCalculationId());
+
+    assertEquals(mockCalculation.getName(), details.name());
+    assertEquals(mockCalculation.getRoomCalculations().size(), details.rooms().size());
+  }
+
   @Test
   void getCalculationTest() {
     when(calculationRepository.findById(any(UUID.class)))
@@ -318,4 +631,25 @@ class CalculationServiceTest {
         .sorted(Comparator.comparing(RoomCalculation::getRoomNumber))
         .toList();
   }
+
+  private static PricingRequest.CalculationRequest createPricingRequest() {
+    return new PricingRequest.CalculationRequest(
+        "Api Calculation",
+        List.of(
+            new PricingRequest.RoomRequest(
+                "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8),
+            new PricingRequest.RoomRequest(
+                "Wooden Tiles", 12.4, "Red Paint", 58.8, "White Paint", 12.4),
+            new PricingRequest.RoomRequest(
+                "Floor Tiles", 16.2, "Wallpaper", 72.6, "Ceiling Tile", 16.2)));
+  }
+
+  private Material getMaterial(String name) {
+    return mockMaterials.stream().filter(x -> x.getName().equals(name)).findAny().orElseThrow();
+  }
+
+  private CalculationSummary toSummary(ConstructionCalculation calculation) {
+    return new SpelAwareProxyProjectionFactory()
+        .createProjection(CalculationSummary.class, calculation);
+  }
 }
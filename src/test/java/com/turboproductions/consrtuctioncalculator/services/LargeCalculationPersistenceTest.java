@@ -0,0 +1,88 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.dao.UserRepository;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ConstructionActivityRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Calculations of three rooms or more go through the LargeCalculationWriter.
+@SpringBootTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "calculator.large-projects.threshold=3",
+      "calculator.large-projects.chunk-size=2"
+    })
+@AutoConfigureTestDatabase
+class LargeCalculationPersistenceTest {
+  @Autowired private CalculationService calculationService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private MaterialRepository materialRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM tb_room");
+    jdbcTemplate.update("DELETE FROM tb_calculation");
+    jdbcTemplate.update("DELETE FROM tb_material");
+    jdbcTemplate.update("DELETE FROM tb_usr_details");
+  }
+
+  @Test
+  void savedLargeCalculationCanBeReloadedAndDeactivated() {
+    User user = new User();
+    user.setUsername("user");
+    user.setPassword("password");
+    userRepository.save(user);
+    for (Material material :
+        List.of(
+            new Material("Floor Tiles", MaterialType.FLOOR, 4.12),
+            new Material("Wallpaper", MaterialType.WALL, 5.2),
+            new Material("Ceiling Tile", MaterialType.CEILING, 3.99))) {
+      material.setUser(user);
+      materialRepository.save(material);
+    }
+    ConstructionCalculation calculation = new ConstructionCalculation();
+    calculation.setName("Apartment");
+    List<RoomCalculation> rooms = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      rooms.add(
+          new RoomCalculation(
+              calculation, "Floor Tiles", 18.8, "Wallpaper", 72.6, "Ceiling Tile", 18.8));
+    }
+    assertNull(calculationService.handleConstructionCalculationCreation(calculation, rooms, user));
+    UUID calculationId = calculation.getCalculationId();
+
+    ConstructionCalculation reloaded = calculationService.getCalculationWithRooms(calculationId);
+    assertEquals(5, reloaded.getNumberOfRooms());
+    assertEquals(5, reloaded.getRoomCalculations().size());
+
+    assertEquals(
+        "Successfully updated calc.",
+        calculationService.setCalculationActivity(
+            new ConstructionActivityRequest(calculationId, false)));
+
+    reloaded = calculationService.getCalculationWithRooms(calculationId);
+    assertFalse(reloaded.isActive());
+    assertEquals(5, reloaded.getRoomCalculations().size());
+  }
+}
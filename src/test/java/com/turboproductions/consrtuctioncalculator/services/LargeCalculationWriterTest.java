@@ -0,0 +1,74 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.dao.ConstructionCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.dao.RoomCalculationRepository;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LargeCalculationWriterTest {
+  @Mock private ConstructionCalculationRepository constructionCalculationRepository;
+  @Mock private RoomCalculationRepository roomCalculationRepository;
+  @Mock private EntityManager entityManager;
+  @Spy private CalculatorProperties calculatorProperties = new CalculatorProperties();
+  @InjectMocks private LargeCalculationWriter largeCalculationWriter;
+
+  @Test
+  void saveWritesRoomsInChunks() {
+    ConstructionCalculation calculation = new ConstructionCalculation();
+    Set<RoomCalculation> rooms = new HashSet<>();
+    for (int i = 0; i < 1_200; i++) {
+      rooms.add(new RoomCalculation(calculation, "Floor", 1, "Wall", 2, "Ceiling", 1));
+    }
+    calculation.setRoomCalculations(rooms);
+    List<Integer> chunkSizes = new ArrayList<>();
+    when(constructionCalculationRepository.save(calculation))
+        .thenAnswer(
+            invocation -> {
+              // The rooms must not be cascaded with the calculation.
+              assertNull(calculation.getRoomCalculations());
+              return calculation;
+            });
+    when(roomCalculationRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              List<RoomCalculation> chunk = invocation.getArgument(0);
+              chunkSizes.add(chunk.size());
+              return chunk;
+            });
+
+    largeCalculationWriter.save(calculation);
+
+    assertEquals(List.of(500, 500, 200), chunkSizes);
+    verify(roomCalculationRepository, times(3)).flush();
+    verify(entityManager, times(1_200)).detach(any(RoomCalculation.class));
+    InOrder order = inOrder(constructionCalculationRepository, roomCalculationRepository);
+    order.verify(constructionCalculationRepository).save(calculation);
+    order.verify(roomCalculationRepository).saveAll(any());
+    verify(entityManager).detach(calculation);
+    assertSame(rooms, calculation.getRoomCalculations());
+  }
+}
@@ -0,0 +1,173 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJob;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportJobState;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialImportDiff;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialImportJobServiceTest {
+  @Mock private MaterialValidator materialValidator;
+  @Mock private ExcelParser excelParser;
+  @Mock private CsvParser csvParser;
+  @Mock private MaterialImportService materialImportService;
+  private final CalculatorProperties calculatorProperties = new CalculatorProperties();
+  private final User user = new User();
+  private final MultipartFile csvFile =
+      new MockMultipartFile(
+          "excelFile",
+          "materials.csv",
+          "text/csv",
+          "Red Paint,WALL,11.49".getBytes(StandardCharsets.UTF_8));
+
+  @BeforeEach
+  void setUp() {
+    user.setUserId(UUID.randomUUID());
+    calculatorProperties.getImports().setChunkSize(2);
+  }
+
+  @Test
+  void submitSavesMaterialsInChunks() {
+    List<ImportedRow> rows =
+        IntStream.range(0, 5).mapToObj(i -> new ImportedRow("Paint " + i, "WALL", 1.5)).toList();
+    when(csvParser.parseCsv(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              IntConsumer progress = invocation.getArgument(1);
+              IntStream.rangeClosed(1, rows.size()).forEach(progress::accept);
+              return new ExcelImportResult(rows);
+            });
+    when(materialImportService.diff(rows, user, ImportMode.APPEND))
+        .thenReturn(MaterialImportDiff.of(List.of(), rows, false));
+
+    ImportJob job = jobService(Runnable::run).submit(csvFile, user, ImportMode.APPEND);
+
+    assertEquals(ImportJobState.DONE, job.getState());
+    assertEquals(5, job.getRowsParsed());
+    assertEquals(5, job.getRowsSaved());
+    assertNull(job.getError());
+    verify(materialImportService, times(3)).appendMaterials(anyList(), eq(user));
+    verifyNoInteractions(excelParser);
+  }
+
+  @Test
+  void submitFailsWhenNamesAreAlreadyStored() {
+    List<ImportedRow> rows = List.of(new ImportedRow("Red Paint", "WALL", 11.49));
+    when(csvParser.parseCsv(any(), any())).thenReturn(new ExcelImportResult(rows));
+    List<Material> stored = List.of(new Material("red paint", null, 1));
+    when(materialImportService.diff(rows, user, ImportMode.APPEND))
+        .thenReturn(MaterialImportDiff.of(stored, rows, false));
+
+    ImportJob job = jobService(Runnable::run).submit(csvFile, user, ImportMode.APPEND);
+
+    assertEquals(ImportJobState.FAILED, job.getState());
+    assertEquals("Import names cannot contain any duplicates.", job.getError());
+    assertEquals(0, job.getRowsSaved());
+    verify(materialImportService, never()).appendMaterials(anyList(), any());
+  }
+
+  @Test
+  void submitAppliesUpsertInOneTransaction() {
+    List<ImportedRow> rows = List.of(new ImportedRow("Red Paint", "WALL", 11.49));
+    when(csvParser.parseCsv(any(), any())).thenReturn(new ExcelImportResult(rows));
+
+    ImportJob job = jobService(Runnable::run).submit(csvFile, user, ImportMode.UPSERT);
+
+    assertEquals(ImportJobState.DONE, job.getState());
+    assertEquals(1, job.getRowsSaved());
+    verify(materialImportService).applyImport(rows, user, ImportMode.UPSERT);
+  }
+
+  @Test
+  void submitReportsRejectedFiles() {
+    when(materialValidator.validateExcelDataTemplate(csvFile)).thenReturn("Empty file.");
+    ImportJob rejected = jobService(Runnable::run).submit(csvFile, user, ImportMode.APPEND);
+    assertEquals(ImportJobState.FAILED, rejected.getState());
+    assertEquals("Empty file.", rejected.getError());
+
+    when(materialValidator.validateExcelDataTemplate(csvFile)).thenReturn(null);
+    when(csvParser.parseCsv(any(), any()))
+        .thenReturn(ExcelImportResult.rejected("Bad cell at cell row '1'."));
+    ImportJob invalid = jobService(Runnable::run).submit(csvFile, user, ImportMode.APPEND);
+    assertEquals(ImportJobState.FAILED, invalid.getState());
+    assertEquals("Bad cell at cell row '1'.", invalid.getError());
+    verifyNoInteractions(materialImportService);
+  }
+
+  @Test
+  void submitFailsWhenAllWorkersAreBusy() {
+    Executor busy =
+        command -> {
+          throw new RejectedExecutionException();
+        };
+
+    ImportJob job = jobService(busy).submit(csvFile, user, ImportMode.APPEND);
+
+    assertEquals(ImportJobState.FAILED, job.getState());
+    assertEquals("Too many imports are running, please try again later.", job.getError());
+  }
+
+  @Test
+  void getJobOnlyReturnsJobsOfTheUser() {
+    List<Runnable> queue = new ArrayList<>();
+    MaterialImportJobService jobService = jobService(queue::add);
+    ImportJob job = jobService.submit(csvFile, user, ImportMode.APPEND);
+    User otherUser = new User();
+    otherUser.setUserId(UUID.randomUUID());
+
+    assertEquals(ImportJobState.QUEUED, job.getState());
+    assertEquals(job, jobService.getJob(job.getJobId(), user).orElseThrow());
+    assertTrue(jobService.getJob(job.getJobId(), otherUser).isEmpty());
+
+    when(csvParser.parseCsv(any(), any()))
+        .thenReturn(ExcelImportResult.rejected("Bad cell at cell row '1'."));
+    queue.forEach(Runnable::run);
+    assertEquals(ImportJobState.FAILED, job.getState());
+  }
+
+  private MaterialImportJobService jobService(Executor executor) {
+    return new MaterialImportJobService(
+        materialValidator,
+        excelParser,
+        csvParser,
+        materialImportService,
+        calculatorProperties,
+        executor);
+  }
+}
@@ -0,0 +1,153 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.config.RepricingMode;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialImportServiceTest {
+  @Mock private MaterialRepository materialRepository;
+  @Mock private CalculationService calculationService;
+  @Mock private MaterialCatalogCache materialCatalogCache;
+  @Spy private CalculatorProperties calculatorProperties = new CalculatorProperties();
+  @InjectMocks private MaterialImportService materialImportService;
+  private final User user = new User();
+  private Material paint;
+  private Material tiles;
+
+  @BeforeEach
+  void setUp() {
+    paint = new Material("Red Paint", MaterialType.WALL, 10.99);
+    tiles = new Material("Ceramic Tiles", MaterialType.FLOOR, 6.50);
+    lenient()
+        .when(materialRepository.findAllByUserOrderByType(user))
+        .thenReturn(List.of(paint, tiles));
+  }
+
+  @Test
+  void applyImportRepricesOnlyChangedPrices() {
+    List<ImportedRow> rows =
+        List.of(
+            new ImportedRow("Red Paint", "WALL", 11.49),
+            new ImportedRow("Ceramic Tiles", "FLOOR", 6.50),
+            new ImportedRow("Drywall", "WALL", 4.20));
+
+    assertNull(materialImportService.applyImport(rows, user, ImportMode.UPSERT));
+
+    ArgumentCaptor<List<Material>> inserts = ArgumentCaptor.forClass(List.class);
+    verify(materialRepository).saveAll(inserts.capture());
+    assertEquals(1, inserts.getValue().size());
+    assertEquals(user, inserts.getValue().get(0).getUser());
+    assertEquals(11.49, paint.getPricePerSqMeter());
+    verify(materialRepository).flush();
+    verify(calculationService).updateRoomsAndCalculationsOnMaterialPriceChange(paint);
+    verify(calculationService, never()).updateRoomsAndCalculationsOnMaterialPriceChange(tiles);
+    verify(calculationService, never()).releaseMaterials(any());
+    verify(materialRepository, never()).deleteAllByIdInBatch(any());
+    verify(materialCatalogCache).invalidate(user);
+  }
+
+  @Test
+  void applyImportRejectsReplacementWithoutRows() {
+    assertEquals(
+        "A replacing import needs at least one material.",
+        materialImportService.applyImport(List.of(), user, ImportMode.REPLACE));
+
+    verify(materialRepository, never()).findAllByUserOrderByType(any());
+    verifyNoInteractions(calculationService, materialCatalogCache);
+    verify(materialRepository, never()).deleteAllByIdInBatch(any());
+  }
+
+  @Test
+  void applyImportRepricesInDatabaseInSqlMode() {
+    calculatorProperties.getRepricing().setMode(RepricingMode.SQL);
+
+    assertNull(
+        materialImportService.applyImport(
+            List.of(new ImportedRow("Red Paint", "WALL", 11.49)), user, ImportMode.UPSERT));
+
+    verify(calculationService).updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(paint);
+    verify(calculationService, never()).updateRoomsAndCalculationsOnMaterialPriceChange(any());
+  }
+
+  @Test
+  void applyImportReplaceDeletesMissingMaterials() {
+    assertNull(
+        materialImportService.applyImport(
+            List.of(new ImportedRow("Red Paint", "WALL", 10.99)), user, ImportMode.REPLACE));
+
+    verify(calculationService).releaseMaterials(List.of(tiles.getMaterialId()));
+    verify(materialRepository).deleteAllByIdInBatch(List.of(tiles.getMaterialId()));
+    verify(calculationService, never()).updateRoomsAndCalculationsOnMaterialPriceChange(any());
+  }
+
+  @Test
+  void applyImportSkipsUnchangedFile() {
+    assertNull(
+        materialImportService.applyImport(
+            List.of(
+                new ImportedRow("Red Paint", "WALL", 10.99),
+                new ImportedRow("Ceramic Tiles", "FLOOR", 6.50)),
+            user,
+            ImportMode.REPLACE));
+
+    verify(materialRepository, never()).flush();
+    verifyNoInteractions(calculationService, materialCatalogCache);
+  }
+
+  @Test
+  void applyImportReportsDuplicates() {
+    assertEquals(
+        "Import names cannot contain any duplicates.",
+        materialImportService.applyImport(
+            List.of(
+                new ImportedRow("Drywall", "WALL", 4.20), new ImportedRow("drywall", "WALL", 4.20)),
+            user,
+            ImportMode.UPSERT));
+
+    when(materialRepository.saveAll(any())).thenThrow(DataIntegrityViolationException.class);
+    assertEquals(
+        "Import names cannot contain any duplicates.",
+        materialImportService.applyImport(
+            List.of(new ImportedRow("Drywall", "WALL", 4.20)), user, ImportMode.UPSERT));
+    verifyNoInteractions(calculationService);
+  }
+
+  @Test
+  void appendMaterialsSavesChunkForUser() {
+    Material drywall = new Material("Drywall", MaterialType.WALL, 4.20);
+
+    assertNull(materialImportService.appendMaterials(List.of(drywall), user));
+
+    assertEquals(user, drywall.getUser());
+    verify(materialRepository).saveAll(List.of(drywall));
+    verify(materialRepository).flush();
+    verify(materialCatalogCache).invalidate(user);
+  }
+}
@@ -0,0 +1,157 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.dto.OptimizationRequest;
+import com.turboproductions.consrtuctioncalculator.models.views.OptimizationView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.BigDecimalPricingEngine;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalog;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialOptimizerServiceTest {
+  @Mock private MaterialCatalogCache materialCatalogCache;
+  private MaterialOptimizerService materialOptimizerService;
+  private final User user = new User();
+
+  @BeforeEach
+  void setUp() {
+    materialOptimizerService =
+        new MaterialOptimizerService(
+            materialCatalogCache, new BigDecimalPricingEngine(), new CalculatorProperties());
+    lenient()
+        .when(materialCatalogCache.getCatalog(user))
+        .thenReturn(
+            MaterialCatalog.of(
+                1,
+                List.of(
+                    new Material("Wooden Tiles", MaterialType.FLOOR, 6.8),
+                    new Material("Floor Tiles", MaterialType.FLOOR, 4.12),
+                    new Material("Wallpaper", MaterialType.WALL, 5.2),
+                    new Material("Red Paint", MaterialType.WALL, 0.46),
+                    new Material("Ceiling Tile", MaterialType.CEILING, 3.99),
+                    new Material("White Paint", MaterialType.CEILING, 0.80))));
+  }
+
+  @AfterEach
+  void tearDown() {
+    materialOptimizerService.shutdown();
+  }
+
+  @Test
+  void optimizeReturnsCheapestCombinations() {
+    OptimizationRequest request =
+        new OptimizationRequest(
+            List.of(new OptimizationRequest.RoomRequest(10, 20, 10, null, null, null)),
+            null,
+            false,
+            false,
+            false,
+            3);
+
+    OptimizationView optimization = materialOptimizerService.optimize(request, user);
+
+    assertNull(optimization.error());
+    assertTrue(optimization.complete());
+    List<OptimizationView.Combination> combinations = optimization.combinations();
+    assertEquals(3, combinations.size());
+    // 10 * 4.12 + 20 * 0.46 + 10 * 0.80
+    assertEquals(58.4, combinations.get(0).price());
+    assertEquals(
+        new OptimizationView.RoomMaterials("Floor Tiles", "Red Paint", "White Paint", 58.4),
+        combinations.get(0).rooms().getFirst());
+    assertEquals(85.2, combinations.get(1).price());
+    assertEquals("Wooden Tiles", combinations.get(1).rooms().getFirst().floorMaterial());
+    assertEquals(90.3, combinations.get(2).price());
+    assertEquals("Ceiling Tile", combinations.get(2).rooms().getFirst().ceilingMaterial());
+  }
+
+  @Test
+  void optimizeUsesSameMaterialAllowedInEveryRoom() {
+    OptimizationRequest request =
+        new OptimizationRequest(
+            List.of(
+                new OptimizationRequest.RoomRequest(
+                    10, 20, 10, null, List.of("Wallpaper", "Red Paint"), null),
+                new OptimizationRequest.RoomRequest(5, 12.5, 5, null, List.of("Wallpaper"), null)),
+            null,
+            false,
+            true,
+            false,
+            1);
+
+    OptimizationView optimization = materialOptimizerService.optimize(request, user);
+
+    OptimizationView.Combination cheapest = optimization.combinations().getFirst();
+    assertEquals(
+        List.of(
+            new OptimizationView.RoomMaterials("Floor Tiles", "Wallpaper", "White Paint", 153.2),
+            new OptimizationView.RoomMaterials("Floor Tiles", "Wallpaper", "White Paint", 89.6)),
+        cheapest.rooms());
+    assertEquals(242.8, cheapest.price());
+  }
+
+  @Test
+  void optimizeReturnsNothingOverBudget() {
+    OptimizationRequest request =
+        new OptimizationRequest(
+            List.of(new OptimizationRequest.RoomRequest(10, 20, 10, null, null, null)),
+            50.0,
+            false,
+            false,
+            false,
+            3);
+
+    OptimizationView optimization = materialOptimizerService.optimize(request, user);
+
+    assertNull(optimization.error());
+    assertTrue(optimization.combinations().isEmpty());
+  }
+
+  @Test
+  void optimizeRejectsInvalidRequests() {
+    assertEquals(
+        "No allowed floor material for room 1.",
+        materialOptimizerService
+            .optimize(
+                new OptimizationRequest(
+                    List.of(
+                        new OptimizationRequest.RoomRequest(
+                            10, 20, 10, List.of("Marble"), null, null)),
+                    null,
+                    false,
+                    false,
+                    false,
+                    1),
+                user)
+            .error());
+    assertEquals(
+        "The number of results must be between 1 and 20.",
+        materialOptimizerService
+            .optimize(
+                new OptimizationRequest(
+                    List.of(new OptimizationRequest.RoomRequest(10, 20, 10, null, null, null)),
+                    null,
+                    false,
+                    false,
+                    false,
+                    0),
+                user)
+            .error());
+  }
+}
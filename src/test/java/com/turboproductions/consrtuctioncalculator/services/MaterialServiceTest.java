@@ -4,28 +4,44 @@ package com.turboproductions.consrtuctioncalculator.services;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.config.RepricingMode;
 import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
 import com.turboproductions.consrtuctioncalculator.models.Material;
 import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import com.turboproductions.consrtuctioncalculator.models.User;
 import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportMode;
 import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import com.turboproductions.consrtuctioncalculator.models.dto.MaterialSort;
+import com.turboproductions.consrtuctioncalculator.models.projections.MaterialOption;
+import com.turboproductions.consrtuctioncalculator.models.views.MaterialRowView;
+import com.turboproductions.consrtuctioncalculator.models.views.PageView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
 import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialCatalogCache;
 import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -33,9 +49,17 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +67,11 @@ class MaterialServiceTest {
   @Mock private MaterialRepository materialRepository;
   @Mock private MaterialValidator materialValidator;
   @Mock private ExcelParser excelParser;
+  @Mock private CsvParser csvParser;
+  @Mock private MaterialImportService materialImportService;
   @Mock private CalculationService calculationService;
+  @Mock private MaterialCatalogCache materialCatalogCache;
+  @Spy private CalculatorProperties calculatorProperties = new CalculatorProperties();
   @InjectMocks private MaterialService materialService;
   private List<Material> mockMaterials;
 
@@ -57,11 +85,11 @@ class MaterialServiceTest {
   }
 
   @Test
-  void handleExcelExportTest() throws IOException {
-    ByteArrayInputStream result = materialService.handleExcelExport(mockMaterials);
+  void writeExcelExportTest() throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    materialService.writeExcelExport(mockMaterials, result);
 
-    assertNotNull(result);
-    try (Workbook workbook = new XSSFWorkbook(result)) {
+    try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.toByteArray()))) {
       Sheet sheet = workbook.getSheet("Materials");
       assertNotNull(sheet);
 
@@ -80,11 +108,11 @@ class MaterialServiceTest {
   }
 
   @Test
-  void getTemplateTest() throws IOException {
-    ByteArrayInputStream result = materialService.getTemplate();
+  void writeTemplateTest() throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    materialService.writeTemplate(result);
 
-    assertNotNull(result);
-    try (Workbook workbook = new XSSFWorkbook(result)) {
+    try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.toByteArray()))) {
       Sheet sheet = workbook.getSheet("Template for importing");
       assertNotNull(sheet);
 
@@ -108,6 +136,39 @@ class MaterialServiceTest {
     }
   }
 
+  @Test
+  void writeCsvExportTest() throws IOException {
+    List<Material> materials =
+        List.of(
+            new Material("Material1", MaterialType.WALL, 10.0),
+            new Material("Paint \"Blue\", matt", MaterialType.WALL, 0.4));
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    materialService.writeCsvExport(materials, result);
+
+    assertEquals(
+        "Material1,WALL,10.0\r\n\"Paint \"\"Blue\"\", matt\",WALL,0.4\r\n",
+        result.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void writeExcelExportBeyondRowWindowTest() throws IOException {
+    calculatorProperties.getExport().setRowWindow(10);
+    List<Material> materials =
+        IntStream.range(0, 250)
+            .mapToObj(i -> new Material("Material" + i, MaterialType.WALL, i))
+            .toList();
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    materialService.writeExcelExport(materials, result);
+
+    try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.toByteArray()))) {
+      Sheet sheet = workbook.getSheet("Materials");
+      assertEquals(249, sheet.getLastRowNum());
+      assertEquals("Material0", sheet.getRow(0).getCell(0).getStringCellValue());
+      assertEquals("Material249", sheet.getRow(249).getCell(0).getStringCellValue());
+      assertEquals(249.0, sheet.getRow(249).getCell(2).getNumericCellValue());
+    }
+  }
+
   @Test
   void getMaterialTest() {
     when(materialRepository.findById(any(UUID.class)))
@@ -121,11 +182,57 @@ class MaterialServiceTest {
 
     doNothing().when(materialRepository).deleteById(any(UUID.class));
 
-    materialService.deleteMaterialById(materialId);
+    materialService.deleteMaterialById(materialId, new User());
 
+    verify(calculationService, times(1)).releaseMaterial(materialId);
     verify(materialRepository, times(1)).deleteById(materialId);
   }
 
+  @Test
+  void getMaterialsFirstPageTest() {
+    User user = new User();
+    Window<MaterialOption> window =
+        Window.from(List.of(toOption(mockMaterials.getFirst())), ScrollPosition::offset, true);
+    when(materialRepository.findByUserAndType(
+            eq(user),
+            eq(MaterialType.WALL),
+            eq(ScrollPosition.keyset()),
+            eq(MaterialSort.TYPE.getSort()),
+            eq(Limit.of(25))))
+        .thenReturn(window);
+
+    PageView<MaterialRowView> page =
+        materialService.getMaterials(user, null, MaterialSort.TYPE, MaterialType.WALL);
+    assertEquals(List.of(MaterialRowView.of(toOption(mockMaterials.getFirst()))), page.items());
+    assertEquals(mockMaterials.getFirst().getMaterialId(), page.nextCursor());
+  }
+
+  @Test
+  void getMaterialsAfterCursorTest() {
+    User user = new User();
+    Material last = mockMaterials.getFirst();
+    when(materialRepository.findByMaterialIdAndUser(last.getMaterialId(), user))
+        .thenReturn(Optional.of(toOption(last)));
+    when(materialRepository.findByUser(
+            eq(user), any(), eq(MaterialSort.NAME.getSort()), eq(Limit.of(25))))
+        .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+    materialService.getMaterials(user, last.getMaterialId(), MaterialSort.NAME, null);
+
+    ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+    verify(materialRepository).findByUser(eq(user), position.capture(), any(), any());
+    KeysetScrollPosition keyset = (KeysetScrollPosition) position.getValue();
+    assertEquals(last.getName(), keyset.getKeys().get("name"));
+    assertEquals(last.getMaterialId(), keyset.getKeys().get("materialId"));
+  }
+
+  @Test
+  void hasMaterialsTest() {
+    User user = new User();
+    when(materialRepository.existsByUser(user)).thenReturn(true);
+    assertTrue(materialService.hasMaterials(user));
+  }
+
   @Test
   void getAllMaterialsTest() {
     when(materialRepository.findAllByUserOrderByType(any(User.class))).thenReturn(mockMaterials);
@@ -161,12 +268,55 @@ class MaterialServiceTest {
     ExcelImportResult excelImportResult = new ExcelImportResult(rows);
     MultipartFile multipartMock = mock(MultipartFile.class);
     when(materialValidator.validateExcelDataTemplate(any(MultipartFile.class))).thenReturn(null);
-    when(excelParser.parseExcelSheet(any(MultipartFile.class)))
-        .thenReturn(Optional.of(excelImportResult));
+    when(excelParser.parseExcelSheet(any(MultipartFile.class))).thenReturn(excelImportResult);
     String result = materialService.handleExcelImport(multipartMock, new User());
     assertNull(result);
   }
 
+  @Test
+  void handleCsvImportTest() {
+    MultipartFile csvFile =
+        new MockMultipartFile(
+            "file", "materials.csv", "text/csv", "Red Paint,WALL,11.49".getBytes());
+    when(materialValidator.validateExcelDataTemplate(csvFile)).thenReturn(null);
+    when(csvParser.parseCsv(any(MultipartFile.class)))
+        .thenReturn(new ExcelImportResult(List.of(new ImportedRow("Red Paint", "WALL", 11.49))));
+
+    assertNull(materialService.handleExcelImport(csvFile, new User()));
+    verifyNoInteractions(excelParser);
+    ArgumentCaptor<List<Material>> savedMaterials = ArgumentCaptor.forClass(List.class);
+    verify(materialRepository).saveAll(savedMaterials.capture());
+    assertEquals("Red Paint", savedMaterials.getValue().getFirst().getName());
+  }
+
+  @Test
+  void handleUpsertImportTest() {
+    MultipartFile csvFile =
+        new MockMultipartFile(
+            "file", "materials.csv", "text/csv", "Red Paint,WALL,11.49".getBytes());
+    List<ImportedRow> rows = List.of(new ImportedRow("Red Paint", "WALL", 11.49));
+    User user = new User();
+    when(materialValidator.validateExcelDataTemplate(csvFile)).thenReturn(null);
+    when(csvParser.parseCsv(any(MultipartFile.class))).thenReturn(new ExcelImportResult(rows));
+    when(materialImportService.applyImport(rows, user, ImportMode.UPSERT)).thenReturn(null);
+
+    assertNull(materialService.handleExcelImport(csvFile, user, ImportMode.UPSERT));
+    verify(materialImportService).applyImport(rows, user, ImportMode.UPSERT);
+    verify(materialRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void handleExcelImportRejectedRowTest() {
+    MultipartFile multipartMock = mock(MultipartFile.class);
+    when(materialValidator.validateExcelDataTemplate(any(MultipartFile.class))).thenReturn(null);
+    when(excelParser.parseExcelSheet(any(MultipartFile.class)))
+        .thenReturn(ExcelImportResult.rejected("Bad cell at cell row '2'."));
+
+    assertEquals(
+        "Bad cell at cell row '2'.", materialService.handleExcelImport(multipartMock, new User()));
+    verify(materialRepository, never()).saveAll(any());
+  }
+
   @Test
   void handleCreateMaterialTest() {
     Material material = new Material("Red Paint", MaterialType.WALL, 11.49);
@@ -175,11 +325,92 @@ class MaterialServiceTest {
 
   @Test
   void handleUpdateMaterialTest() {
+    Material storedMaterial = new Material("Red Paint", MaterialType.WALL, 10.99);
     Material material = new Material("Red Paint", MaterialType.WALL, 11.49);
-    doReturn(Optional.of(material)).when(materialRepository).findById(material.getMaterialId());
+    material.setMaterialId(storedMaterial.getMaterialId());
+    doReturn(Optional.of(storedMaterial))
+        .when(materialRepository)
+        .findById(material.getMaterialId());
+    doNothing()
+        .when(calculationService)
+        .updateRoomsAndCalculationsOnMaterialPriceChange(any(Material.class));
+    assertNull(materialService.handleUpdateMaterial(material, new User()));
+    assertEquals(11.49, storedMaterial.getPricePerSqMeter());
+    verify(materialRepository, times(1)).saveAndFlush(storedMaterial);
+    verify(calculationService, times(1))
+        .updateRoomsAndCalculationsOnMaterialPriceChange(eq(storedMaterial));
+    verify(calculationService, never())
+        .updateRoomsAndCalculationsOnMaterialUpdate(any(Material.class), any(User.class));
+  }
+
+  @Test
+  void handleUpdateMaterialInDatabaseTest() {
+    calculatorProperties.getRepricing().setMode(RepricingMode.SQL);
+    Material storedMaterial = new Material("Red Paint", MaterialType.WALL, 10.99);
+    Material material = new Material("Red Paint", MaterialType.WALL, 11.49);
+    material.setMaterialId(storedMaterial.getMaterialId());
+    doReturn(Optional.of(storedMaterial))
+        .when(materialRepository)
+        .findById(material.getMaterialId());
+    doNothing()
+        .when(calculationService)
+        .updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(any(Material.class));
+    assertNull(materialService.handleUpdateMaterial(material, new User()));
+    verify(calculationService, times(1))
+        .updateRoomsAndCalculationsOnMaterialPriceChangeInDatabase(eq(storedMaterial));
+    verify(calculationService, never())
+        .updateRoomsAndCalculationsOnMaterialPriceChange(any(Material.class));
+  }
+
+  @Test
+  void handleUpdateMaterialRenameTest() {
+    Material storedMaterial = new Material("Red Paint", MaterialType.WALL, 11.49);
+    Material material = new Material("Dark Red Paint", MaterialType.WALL, 11.49);
+    material.setMaterialId(storedMaterial.getMaterialId());
+    doReturn(Optional.of(storedMaterial))
+        .when(materialRepository)
+        .findById(material.getMaterialId());
+    doNothing().when(calculationService).renameMaterialInRooms(any(Material.class));
+    assertNull(materialService.handleUpdateMaterial(material, new User()));
+    assertEquals("Dark Red Paint", storedMaterial.getName());
+    verify(calculationService, times(1)).renameMaterialInRooms(eq(storedMaterial));
+    verify(calculationService, never())
+        .updateRoomsAndCalculationsOnMaterialUpdate(any(Material.class), any(User.class));
+    verify(calculationService, never())
+        .updateRoomsAndCalculationsOnMaterialPriceChange(any(Material.class));
+  }
+
+  @Test
+  void handleUpdateMaterialTypeChangeTest() {
+    Material storedMaterial = new Material("Red Paint", MaterialType.WALL, 11.49);
+    Material material = new Material("Red Paint", MaterialType.CEILING, 11.49);
+    material.setMaterialId(storedMaterial.getMaterialId());
+    doReturn(Optional.of(storedMaterial))
+        .when(materialRepository)
+        .findById(material.getMaterialId());
     doNothing()
         .when(calculationService)
         .updateRoomsAndCalculationsOnMaterialUpdate(any(Material.class), any(User.class));
     assertNull(materialService.handleUpdateMaterial(material, new User()));
+    verify(calculationService, times(1))
+        .updateRoomsAndCalculationsOnMaterialUpdate(eq(storedMaterial), any(User.class));
+    verify(calculationService, never())
+        .updateRoomsAndCalculationsOnMaterialPriceChange(any(Material.class));
+  }
+
+  @Test
+  void handleUpdateMaterialUnchangedPriceTest() {
+    Material storedMaterial = new Material("Red Paint", MaterialType.WALL, 11.49);
+    Material material = new Material("Red Paint", MaterialType.WALL, 11.49);
+    material.setMaterialId(storedMaterial.getMaterialId());
+    doReturn(Optional.of(storedMaterial))
+        .when(materialRepository)
+        .findById(material.getMaterialId());
+    assertNull(materialService.handleUpdateMaterial(material, new User()));
+    verifyNoInteractions(calculationService);
+  }
+
+  private MaterialOption toOption(Material material) {
+    return new SpelAwareProxyProjectionFactory().createProjection(MaterialOption.class, material);
   }
 }
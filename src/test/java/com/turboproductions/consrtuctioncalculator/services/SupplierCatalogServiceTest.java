@@ -0,0 +1,219 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import com.turboproductions.consrtuctioncalculator.models.views.RequoteView;
+import com.turboproductions.consrtuctioncalculator.models.views.SupplierCatalogView;
+import com.turboproductions.consrtuctioncalculator.services.helpers.BigDecimalPricingEngine;
+import com.turboproductions.consrtuctioncalculator.services.helpers.CsvParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.ExcelParser;
+import com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidator;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class SupplierCatalogServiceTest {
+  @Mock private CalculationService calculationService;
+  private SupplierCatalogService supplierCatalogService;
+  private final CalculatorProperties calculatorProperties = new CalculatorProperties();
+  private final User user = new User();
+
+  @BeforeEach
+  void setUp() {
+    MaterialValidator materialValidator = new MaterialValidator();
+    supplierCatalogService =
+        new SupplierCatalogService(
+            materialValidator,
+            new ExcelParser(materialValidator),
+            new CsvParser(materialValidator),
+            calculationService,
+            new BigDecimalPricingEngine(),
+            calculatorProperties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    supplierCatalogService.shutdown();
+  }
+
+  @Test
+  void importCatalogKeepsCatalogByName() {
+    SupplierCatalogView catalog =
+        supplierCatalogService.importCatalog(
+            createCsvFile("supplier-a.csv", "Floor Tiles,FLOOR,4.12\nRed Paint,WALL,0.46\n"),
+            null,
+            user);
+
+    assertNull(catalog.error());
+    assertEquals("supplier-a", catalog.name());
+    assertEquals(2, catalog.materials());
+    assertEquals(
+        List.of("supplier-a"),
+        supplierCatalogService.getCatalogs(user).stream().map(SupplierCatalogView::name).toList());
+    assertTrue(supplierCatalogService.getCatalogs(new User()).isEmpty());
+    assertTrue(supplierCatalogService.removeCatalog("Supplier-A", user));
+    assertFalse(supplierCatalogService.removeCatalog("supplier-a", user));
+  }
+
+  @Test
+  void importCatalogRejectsInvalidCatalogs() {
+    assertEquals(
+        "Import names cannot contain any duplicates.",
+        supplierCatalogService
+            .importCatalog(
+                createCsvFile("supplier.csv", "Floor Tiles,FLOOR,4.12\nfloor tiles,FLOOR,5\n"),
+                null,
+                user)
+            .error());
+
+    calculatorProperties.getSupplierCatalogs().setMaxMaterials(1);
+    assertEquals(
+        "A catalog can have up to 1 materials.",
+        supplierCatalogService
+            .importCatalog(
+                createCsvFile("supplier.csv", "Floor Tiles,FLOOR,4.12\nRed Paint,WALL,0.46\n"),
+                null,
+                user)
+            .error());
+    assertTrue(supplierCatalogService.getCatalogs(user).isEmpty());
+
+    calculatorProperties.getSupplierCatalogs().setMaxCatalogs(1);
+    supplierCatalogService.importCatalog(
+        createCsvFile("supplier.csv", "Floor Tiles,FLOOR,4.12\n"), "First", user);
+    assertEquals(
+        "You can keep up to 1 catalogs.",
+        supplierCatalogService
+            .importCatalog(createCsvFile("supplier.csv", "Floor Tiles,FLOOR,5\n"), "Second", user)
+            .error());
+    // A catalog with the same name is replaced.
+    assertNull(
+        supplierCatalogService
+            .importCatalog(createCsvFile("supplier.csv", "Floor Tiles,FLOOR,5\n"), "first", user)
+            .error());
+  }
+
+  @Test
+  void importCatalogKeepsLimitForConcurrentImports() throws Exception {
+    calculatorProperties.getSupplierCatalogs().setMaxCatalogs(3);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<SupplierCatalogView>> imports = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        String name = "Supplier " + i;
+        imports.add(
+            () ->
+                supplierCatalogService.importCatalog(
+                    createCsvFile("supplier.csv", "Floor Tiles,FLOOR,4.12\n"), name, user));
+      }
+      long imported = 0;
+      for (Future<SupplierCatalogView> result : executor.invokeAll(imports)) {
+        imported += result.get().error() == null ? 1 : 0;
+      }
+
+      assertEquals(3, imported);
+      assertEquals(3, supplierCatalogService.getCatalogs(user).size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void requoteComparesCatalogs() {
+    ConstructionCalculation calculation = createCalculation(user);
+    when(calculationService.getCalculationWithRooms(calculation.getCalculationId()))
+        .thenReturn(calculation);
+    supplierCatalogService.importCatalog(
+        createCsvFile(
+            "supplier.csv",
+            "Floor Tiles,FLOOR,4.12\nred paint,WALL,0.46\nWhite Paint,CEILING,0.8\n"),
+        "A",
+        user);
+    supplierCatalogService.importCatalog(
+        createCsvFile(
+            "supplier.csv", "Floor Tiles,FLOOR,5\nRed Paint,WALL,0.5\nWhite Paint,CEILING,1\n"),
+        "B",
+        user);
+    supplierCatalogService.importCatalog(
+        createCsvFile(
+            "supplier.csv", "Floor Tiles,FLOOR,1\nRed Paint,WALL,0.1\nWhite Paint,WALL,1\n"),
+        "C",
+        user);
+
+    RequoteView requote =
+        supplierCatalogService.requote(calculation.getCalculationId(), List.of(), user);
+
+    assertNull(requote.error());
+    assertEquals(150, requote.price());
+    assertEquals(
+        List.of(
+            // 2 * (10 * 4.12 + 20 * 0.46 + 10 * 0.8) + 5 * 4.12 + 12.5 * 0.46 + 5 * 0.8
+            new RequoteView.CatalogQuote("A", 147.15, -2.85, List.of()),
+            new RequoteView.CatalogQuote("B", 176.25, 26.25, List.of()),
+            new RequoteView.CatalogQuote("C", null, null, List.of("White Paint"))),
+        requote.quotes());
+  }
+
+  @Test
+  void requoteRejectsUnknownCatalogsAndOtherUsersCalculations() {
+    ConstructionCalculation calculation = createCalculation(user);
+    when(calculationService.getCalculationWithRooms(calculation.getCalculationId()))
+        .thenReturn(calculation);
+    supplierCatalogService.importCatalog(
+        createCsvFile("supplier.csv", "Floor Tiles,FLOOR,4.12\n"), "A", user);
+
+    assertEquals(
+        "Unknown catalog 'B'.",
+        supplierCatalogService
+            .requote(calculation.getCalculationId(), List.of("A", "B"), user)
+            .error());
+    assertNull(supplierCatalogService.requote(calculation.getCalculationId(), null, new User()));
+
+    // Calculations without a user belong to nobody.
+    ConstructionCalculation withoutUser = createCalculation(null);
+    when(calculationService.getCalculationWithRooms(withoutUser.getCalculationId()))
+        .thenReturn(withoutUser);
+    assertNull(supplierCatalogService.requote(withoutUser.getCalculationId(), null, user));
+  }
+
+  private static ConstructionCalculation createCalculation(User user) {
+    ConstructionCalculation calculation = new ConstructionCalculation();
+    calculation.setName("House");
+    calculation.setUser(user);
+    calculation.setCalculationPrice(150);
+    calculation.setRoomCalculations(
+        Set.of(
+            new RoomCalculation(calculation, "Floor Tiles", 10, "Red Paint", 20, "White Paint", 10),
+            new RoomCalculation(calculation, "Floor Tiles", 10, "Red Paint", 20, "White Paint", 10),
+            new RoomCalculation(
+                calculation, "Floor Tiles", 5, "Red Paint", 12.5, "White Paint", 5)));
+    return calculation;
+  }
+
+  private static MultipartFile createCsvFile(String fileName, String content) {
+    return new MockMultipartFile(
+        "file", fileName, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,118 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AssignmentSearchTest {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void searchFindsCheapestPicks() {
+    long[][] costs = {{10, 12, 30}, {5, 6}, {100}};
+
+    AssignmentSearch.Result result = search(costs, Long.MAX_VALUE, 3);
+
+    assertTrue(result.complete());
+    assertEquals(3, result.assignments().size());
+    assertEquals(115, result.assignments().get(0).cost());
+    assertArrayEquals(new int[] {0, 0, 0}, result.assignments().get(0).choices());
+    assertEquals(116, result.assignments().get(1).cost());
+    assertArrayEquals(new int[] {0, 1, 0}, result.assignments().get(1).choices());
+    assertEquals(117, result.assignments().get(2).cost());
+    assertArrayEquals(new int[] {1, 0, 0}, result.assignments().get(2).choices());
+  }
+
+  @Test
+  void searchMatchesExhaustiveSearch() {
+    Random random = new Random(2401);
+    for (int run = 0; run < 2_000; run++) {
+      long[][] costs = new long[1 + random.nextInt(6)][];
+      for (int slot = 0; slot < costs.length; slot++) {
+        costs[slot] = new long[1 + random.nextInt(4)];
+        for (int option = 0; option < costs[slot].length; option++) {
+          costs[slot][option] = random.nextInt(50);
+        }
+        Arrays.sort(costs[slot]);
+      }
+      int limit = 1 + random.nextInt(8);
+      long budget = random.nextBoolean() ? Long.MAX_VALUE : random.nextInt(150);
+      List<Long> allCosts = new ArrayList<>();
+      collectCosts(costs, 0, 0, allCosts);
+      Collections.sort(allCosts);
+
+      AssignmentSearch.Result result = search(costs, budget, limit);
+
+      List<Long> expected =
+          allCosts.stream().filter(cost -> cost <= budget).limit(limit).toList();
+      assertEquals(
+          expected,
+          result.assignments().stream().map(AssignmentSearch.Assignment::cost).toList());
+      Set<String> distinctChoices = new HashSet<>();
+      for (AssignmentSearch.Assignment assignment : result.assignments()) {
+        long cost = 0;
+        for (int slot = 0; slot < costs.length; slot++) {
+          cost += costs[slot][assignment.choices()[slot]];
+        }
+        assertEquals(assignment.cost(), cost);
+        distinctChoices.add(Arrays.toString(assignment.choices()));
+      }
+      assertEquals(result.assignments().size(), distinctChoices.size());
+    }
+  }
+
+  @Test
+  void searchReturnsNothingOverBudget() {
+    AssignmentSearch.Result result = search(new long[][] {{10, 12}, {5, 6}}, 14, 5);
+
+    assertTrue(result.complete());
+    assertTrue(result.assignments().isEmpty());
+  }
+
+  @Test
+  void searchStopsAtDeadline() {
+    Random random = new Random(2402);
+    long[][] costs = new long[5_000][];
+    for (int slot = 0; slot < costs.length; slot++) {
+      costs[slot] = random.longs(10, 0, 100_000).sorted().toArray();
+    }
+
+    AssignmentSearch.Result result =
+        AssignmentSearch.search(costs, Long.MAX_VALUE, 20, System.nanoTime() - 1, pool);
+
+    assertFalse(result.complete());
+  }
+
+  private AssignmentSearch.Result search(long[][] costs, long budget, int limit) {
+    return AssignmentSearch.search(
+        costs, budget, limit, System.nanoTime() + 10_000_000_000L, pool);
+  }
+
+  private static void collectCosts(long[][] costs, int slot, long cost, List<Long> allCosts) {
+    if (slot == costs.length) {
+      allCosts.add(cost);
+      return;
+    }
+    for (long option : costs[slot]) {
+      collectCosts(costs, slot + 1, cost + option, allCosts);
+    }
+  }
+}
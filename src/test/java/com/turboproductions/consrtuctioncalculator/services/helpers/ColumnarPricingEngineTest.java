@@ -0,0 +1,143 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnarPricingEngineTest {
+  private final ColumnarPricingEngine columnarEngine = new ColumnarPricingEngine();
+  private final BigDecimalPricingEngine bigDecimalEngine = new BigDecimalPricingEngine();
+
+  @Test
+  void calculateRoomPricesMatchesKnownValues() {
+    // Same values as the first room of CalculationServiceTest
+    RoomCalculation room =
+        createRoom(
+            18.8,
+            72.6,
+            18.8,
+            new Material("Floor", MaterialType.FLOOR, 4.12),
+            new Material("Wall", MaterialType.WALL, 5.2),
+            new Material("Ceiling", MaterialType.CEILING, 3.99));
+
+    columnarEngine.calculateRoomPrices(List.of(room));
+
+    assertEquals(77.46, room.getFloorMaterialPrice());
+    assertEquals(75.01, room.getCeilingMaterialPrice());
+    assertEquals(377.52, room.getWallMaterialPrice());
+    assertEquals(529.99, room.getRoomPrice());
+    assertEquals(110.2, room.getRoomArea());
+  }
+
+  @Test
+  void calculateRoomPricesMatchesBigDecimalEngineForRandomBatches() {
+    Random random = new Random(2301);
+    List<Material> materials = createMaterials(random);
+    List<RoomCalculation> columnarRooms = new ArrayList<>();
+    List<RoomCalculation> bigDecimalRooms = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      double floorSqM = randomArea(random);
+      double wallSqM = randomArea(random);
+      double ceilingSqM = randomArea(random);
+      Material floor = materials.get(random.nextInt(materials.size()));
+      Material wall = materials.get(random.nextInt(materials.size()));
+      Material ceiling = materials.get(random.nextInt(materials.size()));
+      columnarRooms.add(createRoom(floorSqM, wallSqM, ceilingSqM, floor, wall, ceiling));
+      bigDecimalRooms.add(createRoom(floorSqM, wallSqM, ceilingSqM, floor, wall, ceiling));
+    }
+
+    columnarEngine.calculateRoomPrices(columnarRooms);
+    bigDecimalEngine.calculateRoomPrices(bigDecimalRooms);
+
+    for (int i = 0; i < columnarRooms.size(); i++) {
+      RoomCalculation expected = bigDecimalRooms.get(i);
+      RoomCalculation actual = columnarRooms.get(i);
+      assertEquals(expected.getWallMaterialPrice(), actual.getWallMaterialPrice());
+      assertEquals(expected.getFloorMaterialPrice(), actual.getFloorMaterialPrice());
+      assertEquals(expected.getCeilingMaterialPrice(), actual.getCeilingMaterialPrice());
+      assertEquals(expected.getRoomPrice(), actual.getRoomPrice());
+      assertEquals(expected.getRoomArea(), actual.getRoomArea());
+    }
+    ConstructionCalculation columnar = new ConstructionCalculation();
+    ConstructionCalculation bigDecimal = new ConstructionCalculation();
+    columnarEngine.calculateConstructionTotals(columnar, columnarRooms);
+    bigDecimalEngine.calculateConstructionTotals(bigDecimal, bigDecimalRooms);
+    assertEquals(bigDecimal.getCalculationPrice(), columnar.getCalculationPrice());
+    assertEquals(bigDecimal.getSquareMeters(), columnar.getSquareMeters());
+  }
+
+  @Test
+  void roomColumnsLeaveOutRoomsWithMoreThanTwoDecimals() {
+    Material tiles = new Material("Tiles", MaterialType.FLOOR, 4.12);
+    Material paint = new Material("Paint", MaterialType.WALL, 0.125);
+    List<RoomCalculation> rooms =
+        List.of(
+            createRoom(10, 20, 10, tiles, tiles, tiles),
+            createRoom(10, 20, 10, tiles, paint, tiles),
+            createRoom(10.005, 20, 10, tiles, tiles, tiles),
+            createRoom(1.5, 2.5, 1.5, tiles, tiles, tiles));
+
+    RoomColumns columns = RoomColumns.of(rooms);
+    columns.price();
+    columns.writeTo(rooms);
+
+    assertEquals(2, columns.getFallbackRooms().cardinality());
+    assertTrue(columns.getFallbackRooms().get(1));
+    assertTrue(columns.getFallbackRooms().get(2));
+    // 40 * 4.12 and 5.5 * 4.12, the fallback rooms are not priced.
+    assertEquals(164.8, rooms.get(0).getRoomPrice());
+    assertEquals(0, rooms.get(1).getRoomPrice());
+    assertEquals(0, rooms.get(2).getRoomPrice());
+    assertEquals(22.66, rooms.get(3).getRoomPrice());
+    assertEquals(5.5, rooms.get(3).getRoomArea());
+  }
+
+  private static List<Material> createMaterials(Random random) {
+    List<Material> materials = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      // Every tenth material has a price with more than two decimals.
+      double price =
+          i % 10 == 0 ? random.nextInt(100_000) / 1_000.0 : random.nextInt(10_000) / 100.0;
+      materials.add(new Material("Material " + i, MaterialType.WALL, price));
+    }
+    return materials;
+  }
+
+  private static double randomArea(Random random) {
+    // Every fiftieth area has more than two decimals.
+    return random.nextInt(50) == 0
+        ? random.nextInt(100_000) / 1_000.0
+        : random.nextInt(50_000) / 100.0;
+  }
+
+  private static RoomCalculation createRoom(
+      double floorSqM,
+      double wallSqM,
+      double ceilingSqM,
+      Material floor,
+      Material wall,
+      Material ceiling) {
+    RoomCalculation room =
+        new RoomCalculation(
+            null,
+            floor.getName(),
+            floorSqM,
+            wall.getName(),
+            wallSqM,
+            ceiling.getName(),
+            ceilingSqM);
+    room.setFloorMaterialRef(floor);
+    room.setWallMaterialRef(wall);
+    room.setCeilingMaterialRef(ceiling);
+    return room;
+  }
+}
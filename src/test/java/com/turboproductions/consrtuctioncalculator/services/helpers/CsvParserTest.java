@@ -0,0 +1,130 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+class CsvParserTest {
+  private final CsvParser csvParser = new CsvParser(new MaterialValidator());
+
+  @Test
+  void parseCsvReadsAllRows() {
+    ExcelImportResult result =
+        csvParser.parseCsv(
+            createCsvFile(
+                "\uFEFFCeramic tile,FLOOR,12.69\r\n"
+                    + "\"White paint, matt\",WALL,8.5\r\n"
+                    + "\r\n"
+                    + "\"Panel \"\"A\"\"\",CEILING,1.5E1"));
+
+    assertNull(result.getErrorMessage());
+    List<ImportedRow> rows = result.getRows();
+    assertEquals(3, rows.size());
+    assertEquals("Ceramic tile", rows.get(0).getName());
+    assertEquals("FLOOR", rows.get(0).getType());
+    assertEquals(12.69, rows.get(0).getValue());
+    assertEquals("White paint, matt", rows.get(1).getName());
+    assertEquals(8.5, rows.get(1).getValue());
+    assertEquals("Panel \"A\"", rows.get(2).getName());
+    assertEquals("CEILING", rows.get(2).getType());
+    assertEquals(15.0, rows.get(2).getValue());
+  }
+
+  @Test
+  void parseCsvStopsAtFirstInvalidRow() {
+    ExcelImportResult result =
+        csvParser.parseCsv(
+            createCsvFile(
+                "Ceramic tile,FLOOR,12.69\n\nWhite paint,ROOF,8.5\nWallpaper,WALL,5.2\n"));
+
+    assertEquals(
+        "Value 'ROOF' at row '3' is an invalid Material type. Types can be FLOOR, WALL and CEILING.",
+        result.getErrorMessage());
+    assertTrue(result.getRows().isEmpty());
+  }
+
+  @Test
+  void parseCsvRejectsRowsWithWrongFieldCount() {
+    assertEquals(
+        "Problem with file 'materials.csv' in row number '2'.",
+        csvParser.parseCsv(createCsvFile("Tile,FLOOR,12.69\nTile,FLOOR,12.69,extra\n"))
+            .getErrorMessage());
+    assertEquals(
+        "Problem with file 'materials.csv' in row number '1'.",
+        csvParser.parseCsv(createCsvFile("\"Tile,FLOOR,12.69\n")).getErrorMessage());
+  }
+
+  @Test
+  void parseCsvRejectsBadCells() {
+    assertEquals(
+        "Bad cell at cell row '1'.",
+        csvParser.parseCsv(createCsvFile("Tile,FLOOR,twelve\n")).getErrorMessage());
+    assertEquals(
+        "Bad cell at cell row '1'.",
+        csvParser.parseCsv(createCsvFile("Tile,FLOOR,\n")).getErrorMessage());
+    assertEquals(
+        "Bad cell at cell row '1'.",
+        csvParser.parseCsv(createCsvFile(" ,FLOOR,12.69\n")).getErrorMessage());
+    assertEquals(
+        "Value '-2.5' invalid for price of item 'Tile' at row '1'.",
+        csvParser.parseCsv(createCsvFile("Tile,FLOOR,-2.5\n")).getErrorMessage());
+  }
+
+  @Test
+  void parseCsvReadsRowsAcrossBufferBoundaries() {
+    StringBuilder csv = new StringBuilder();
+    String longName = "x".repeat(100_000);
+    csv.append('"').append(longName).append("\",WALL,1.25\n");
+    for (int i = 0; i < 20_000; i++) {
+      csv.append("Material ").append(i).append(",FLOOR,").append(i + 1).append(".5\n");
+    }
+
+    ExcelImportResult result = csvParser.parseCsv(createCsvFile(csv.toString()));
+
+    assertNull(result.getErrorMessage());
+    assertEquals(20_001, result.getRows().size());
+    assertEquals(longName, result.getRows().getFirst().getName());
+    assertEquals("Material 19999", result.getRows().getLast().getName());
+    assertEquals(20_000.5, result.getRows().getLast().getValue());
+  }
+
+  @Test
+  void parseDecimalMatchesParseDouble() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      String value =
+          switch (i % 4) {
+            case 0 -> String.valueOf(random.nextDouble() * 1_000);
+            case 1 -> String.format(Locale.ROOT, "%.2f", random.nextDouble() * 100_000);
+            case 2 -> String.valueOf(random.nextInt(1_000_000));
+            default -> String.valueOf(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+          };
+      byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+      assertEquals(Double.parseDouble(value), CsvParser.parseDecimal(bytes, 0, bytes.length));
+    }
+  }
+
+  @Test
+  void parseDecimalRejectsInvalidNumbers() {
+    for (String value : new String[] {"", "-", ".", "1e", "1.2.3", "12a", "NaN", "1e999"}) {
+      byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+      assertTrue(Double.isNaN(CsvParser.parseDecimal(bytes, 0, bytes.length)), value);
+    }
+  }
+
+  static MultipartFile createCsvFile(String content) {
+    return new MockMultipartFile(
+        "file", "materials.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -3,22 +3,30 @@ package com.turboproductions.consrtuctioncalculator.services.helpers;
 
 import static com.turboproductions.consrtuctioncalculator.services.helpers.MaterialValidatorTest.createTestFile;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
 import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Optional;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 class ExcelParserTest {
-  private final ExcelParser excelParser = new ExcelParser();
+  private final ExcelParser excelParser = new ExcelParser(new MaterialValidator());
 
   @Test
   void testParseExcelSheet() throws IOException {
@@ -33,9 +41,9 @@ class ExcelParserTest {
     row2.createCell(1, CellType.STRING).setCellValue("WALL");
     row2.createCell(2, CellType.NUMERIC).setCellValue(8.50);
     MultipartFile file = createTestFile(workbook);
-    Optional<ExcelImportResult> excelImportResult = excelParser.parseExcelSheet(file);
-    assert (excelImportResult.isPresent());
-    List<ImportedRow> parsedResults = excelImportResult.get().getRows();
+    ExcelImportResult excelImportResult = excelParser.parseExcelSheet(file);
+    assertNull(excelImportResult.getErrorMessage());
+    List<ImportedRow> parsedResults = excelImportResult.getRows();
     assertEquals(parsedResults.getFirst().getName(), row1.getCell(0).getStringCellValue());
     assertEquals(parsedResults.getFirst().getType(), row1.getCell(1).getStringCellValue());
     assertEquals(parsedResults.getFirst().getValue(), row1.getCell(2).getNumericCellValue());
@@ -43,4 +51,88 @@ class ExcelParserTest {
     assertEquals(parsedResults.getLast().getType(), row2.getCell(1).getStringCellValue());
     assertEquals(parsedResults.getLast().getValue(), row2.getCell(2).getNumericCellValue());
   }
+
+  @Test
+  void parseExcelSheetStopsAtFirstInvalidRow() throws IOException {
+    Workbook workbook = new XSSFWorkbook();
+    Sheet sheet = workbook.createSheet("Sheet1");
+    createRow(sheet, 0, "Ceramic tile", "FLOOR", 12.69);
+    // Rows 2 to 4 are empty, the reported number is the one shown by Excel.
+    createRow(sheet, 4, "White paint", "ROOF", 8.50);
+    createRow(sheet, 5, "Wallpaper", "WALL", 5.2);
+
+    ExcelImportResult result = excelParser.parseExcelSheet(createTestFile(workbook));
+
+    assertEquals(
+        "Value 'ROOF' at row '5' is an invalid Material type. Types can be FLOOR, WALL and CEILING.",
+        result.getErrorMessage());
+    assertTrue(result.getRows().isEmpty());
+  }
+
+  @Test
+  void parseExcelSheetReadsInlineStrings() throws IOException {
+    // Streaming workbooks write their strings inline instead of in the shared strings table.
+    Workbook workbook = new SXSSFWorkbook();
+    Sheet sheet = workbook.createSheet("Sheet1");
+    createRow(sheet, 0, "Ceramic tile", "FLOOR", 12.69);
+    createRow(sheet, 1, "White paint", "WALL", 8.5);
+
+    ExcelImportResult result = excelParser.parseExcelSheet(createTestFile(workbook));
+
+    assertNull(result.getErrorMessage());
+    assertEquals(2, result.getRows().size());
+    assertEquals("White paint", result.getRows().getLast().getName());
+    assertEquals(8.5, result.getRows().getLast().getValue());
+  }
+
+  @Test
+  void parseExcelSheetReadsLegacyWorkbooks() throws IOException {
+    Workbook workbook = new HSSFWorkbook();
+    Sheet sheet = workbook.createSheet("Sheet1");
+    createRow(sheet, 0, "Ceramic tile", "FLOOR", 12.69);
+    Row blankName = sheet.createRow(1);
+    blankName.createCell(0, CellType.BLANK);
+    blankName.createCell(1, CellType.STRING).setCellValue("WALL");
+    blankName.createCell(2, CellType.NUMERIC).setCellValue(8.5);
+
+    ExcelImportResult result = excelParser.parseExcelSheet(createTestFile(workbook));
+
+    assertEquals("Bad cell at cell row '2'.", result.getErrorMessage());
+  }
+
+  @Test
+  void parseExcelSheetReadsSpooledUploads(@TempDir Path spoolDirectory) throws IOException {
+    Workbook workbook = new XSSFWorkbook();
+    createRow(workbook.createSheet("Sheet1"), 0, "Ceramic tile", "FLOOR", 12.69);
+
+    try (SpooledUpload upload = SpooledUpload.of(createTestFile(workbook), spoolDirectory)) {
+      ExcelImportResult result = excelParser.parseExcelSheet(upload);
+
+      assertNull(result.getErrorMessage());
+      assertEquals("Ceramic tile", result.getRows().getFirst().getName());
+      // Read in place, the spooled file is neither moved nor deleted.
+      assertTrue(Files.exists(upload.getFile()));
+    }
+  }
+
+  @Test
+  void parseExcelSheetRejectsFilesThatAreNoWorkbook() {
+    MultipartFile file =
+        new MockMultipartFile(
+            "file",
+            "file.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "name,type,price".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(
+        "Unsupported file type for 'file.xlsx'.",
+        excelParser.parseExcelSheet(file).getErrorMessage());
+  }
+
+  private static void createRow(Sheet sheet, int index, String name, String type, double price) {
+    Row row = sheet.createRow(index);
+    row.createCell(0, CellType.STRING).setCellValue(name);
+    row.createCell(1, CellType.STRING).setCellValue(type);
+    row.createCell(2, CellType.NUMERIC).setCellValue(price);
+  }
 }
@@ -0,0 +1,162 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FixedPointPricingEngineTest {
+  private final FixedPointPricingEngine fixedPointEngine = new FixedPointPricingEngine();
+  private final BigDecimalPricingEngine bigDecimalEngine = new BigDecimalPricingEngine();
+
+  @Test
+  void calculateRoomPricesMatchesKnownValues() {
+    // Same values as the first room of CalculationServiceTest
+    RoomCalculation room = new RoomCalculation(null, "Floor", 18.8, "Wall", 72.6, "Ceiling", 18.8);
+    fixedPointEngine.calculateRoomPrices(room, 5.2, 4.12, 3.99);
+    assertEquals(77.46, room.getFloorMaterialPrice());
+    assertEquals(75.01, room.getCeilingMaterialPrice());
+    assertEquals(377.52, room.getWallMaterialPrice());
+    assertEquals(529.99, room.getRoomPrice());
+    assertEquals(110.2, room.getRoomArea());
+  }
+
+  @Test
+  void calculateRoomPricesRoundsHalfUp() {
+    // 0.05 * 0.5 = 0.025, 0.15 * 0.1 = 0.015 and 0.01 * 0.49 = 0.0049
+    assertRoomParity(0.5, 0.1, 0.49, 0.05, 0.15, 0.01);
+    // 1.01 * 1.5 = 1.515, 2.35 * 0.5 = 1.175 and 0.03 * 0.5 = 0.015
+    assertRoomParity(1.5, 0.5, 0.5, 1.01, 2.35, 0.03);
+    assertRoomParity(0, 0, 0, 0.4, 6.5, 7.17);
+  }
+
+  @Test
+  void calculateRoomPricesFallsBackForMoreThanTwoDecimals() {
+    assertRoomParity(12.345, 10.001, 3.3333, 0.125, 4.999, 1.0005);
+    assertRoomParity(0.005, 0.015, 0.025, 19.995, 0.035, 8.125);
+  }
+
+  @Test
+  void calculateRoomPricesFallsBackForLargeValues() {
+    assertRoomParity(12_500_000.25, 1.5, 2.5, 99_999_999.99, 1.1, 2.2);
+  }
+
+  @Test
+  void calculateRoomPricesMatchesBigDecimalEngineForRandomRooms() {
+    Random random = new Random(1501);
+    for (int i = 0; i < 20_000; i++) {
+      assertRoomParity(
+          random.nextInt(100_000) / 100.0,
+          random.nextInt(100_000) / 100.0,
+          random.nextInt(100_000) / 100.0,
+          random.nextInt(10_000) / 100.0,
+          random.nextInt(10_000) / 100.0,
+          random.nextInt(10_000) / 100.0);
+    }
+  }
+
+  @Test
+  void calculateSurfacePriceMatchesBigDecimalEngine() {
+    Random random = new Random(42);
+    for (int i = 0; i < 20_000; i++) {
+      double pricePerSqM = random.nextInt(10_000) / 100.0;
+      double sqM = random.nextInt(100_000) / 100.0;
+      assertEquals(
+          bigDecimalEngine.calculateSurfacePrice(pricePerSqM, sqM),
+          fixedPointEngine.calculateSurfacePrice(pricePerSqM, sqM));
+    }
+    assertEquals(
+        bigDecimalEngine.calculateSurfacePrice(0.125, 3.3333),
+        fixedPointEngine.calculateSurfacePrice(0.125, 3.3333));
+  }
+
+  @Test
+  void addMatchesBigDecimalEngine() {
+    Random random = new Random(7);
+    for (int i = 0; i < 20_000; i++) {
+      double augend = random.nextInt(1_000_000) / 100.0;
+      double addend = (random.nextInt(200_000) - 100_000) / 100.0;
+      assertEquals(bigDecimalEngine.add(augend, addend), fixedPointEngine.add(augend, addend));
+    }
+    assertEquals(bigDecimalEngine.add(0.1, 0.2), fixedPointEngine.add(0.1, 0.2));
+    assertEquals(bigDecimalEngine.add(10.005, -0.001), fixedPointEngine.add(10.005, -0.001));
+  }
+
+  @Test
+  void calculateConstructionTotalsMatchesBigDecimalEngine() {
+    Random random = new Random(2024);
+    List<RoomCalculation> fixedPointRooms = new ArrayList<>();
+    List<RoomCalculation> bigDecimalRooms = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      double wallSqM = random.nextInt(20_000) / 100.0;
+      double floorSqM = random.nextInt(5_000) / 100.0;
+      double ceilingSqM = random.nextInt(5_000) / 100.0;
+      double wallPrice = random.nextInt(3_000) / 100.0;
+      double floorPrice = random.nextInt(3_000) / 100.0;
+      double ceilingPrice = random.nextInt(3_000) / 100.0;
+      RoomCalculation fixedPointRoom =
+          new RoomCalculation(null, "Floor", floorSqM, "Wall", wallSqM, "Ceiling", ceilingSqM);
+      fixedPointEngine.calculateRoomPrices(fixedPointRoom, wallPrice, floorPrice, ceilingPrice);
+      fixedPointRooms.add(fixedPointRoom);
+      RoomCalculation bigDecimalRoom =
+          new RoomCalculation(null, "Floor", floorSqM, "Wall", wallSqM, "Ceiling", ceilingSqM);
+      bigDecimalEngine.calculateRoomPrices(bigDecimalRoom, wallPrice, floorPrice, ceilingPrice);
+      bigDecimalRooms.add(bigDecimalRoom);
+    }
+    ConstructionCalculation fixedPointCalculation = new ConstructionCalculation();
+    fixedPointEngine.calculateConstructionTotals(fixedPointCalculation, fixedPointRooms);
+    ConstructionCalculation bigDecimalCalculation = new ConstructionCalculation();
+    bigDecimalEngine.calculateConstructionTotals(bigDecimalCalculation, bigDecimalRooms);
+
+    assertEquals(
+        bigDecimalCalculation.getCalculationPrice(), fixedPointCalculation.getCalculationPrice());
+    assertEquals(bigDecimalCalculation.getSquareMeters(), fixedPointCalculation.getSquareMeters());
+  }
+
+  @Test
+  void calculateConstructionTotalsFallsBackForUnroundedRooms() {
+    RoomCalculation first = new RoomCalculation();
+    first.setRoomPrice(10.005);
+    first.setRoomArea(1.25);
+    RoomCalculation second = new RoomCalculation();
+    second.setRoomPrice(0.1);
+    second.setRoomArea(2.335);
+    List<RoomCalculation> rooms = List.of(first, second);
+
+    ConstructionCalculation fixedPointCalculation = new ConstructionCalculation();
+    fixedPointEngine.calculateConstructionTotals(fixedPointCalculation, rooms);
+    ConstructionCalculation bigDecimalCalculation = new ConstructionCalculation();
+    bigDecimalEngine.calculateConstructionTotals(bigDecimalCalculation, rooms);
+
+    assertEquals(
+        bigDecimalCalculation.getCalculationPrice(), fixedPointCalculation.getCalculationPrice());
+    assertEquals(bigDecimalCalculation.getSquareMeters(), fixedPointCalculation.getSquareMeters());
+  }
+
+  private void assertRoomParity(
+      double floorSqM,
+      double wallSqM,
+      double ceilingSqM,
+      double wallPrice,
+      double floorPrice,
+      double ceilingPrice) {
+    RoomCalculation fixedPointRoom =
+        new RoomCalculation(null, "Floor", floorSqM, "Wall", wallSqM, "Ceiling", ceilingSqM);
+    fixedPointEngine.calculateRoomPrices(fixedPointRoom, wallPrice, floorPrice, ceilingPrice);
+    RoomCalculation bigDecimalRoom =
+        new RoomCalculation(null, "Floor", floorSqM, "Wall", wallSqM, "Ceiling", ceilingSqM);
+    bigDecimalEngine.calculateRoomPrices(bigDecimalRoom, wallPrice, floorPrice, ceilingPrice);
+
+    assertEquals(bigDecimalRoom.getWallMaterialPrice(), fixedPointRoom.getWallMaterialPrice());
+    assertEquals(bigDecimalRoom.getFloorMaterialPrice(), fixedPointRoom.getFloorMaterialPrice());
+    assertEquals(
+        bigDecimalRoom.getCeilingMaterialPrice(), fixedPointRoom.getCeilingMaterialPrice());
+    assertEquals(bigDecimalRoom.getRoomPrice(), fixedPointRoom.getRoomPrice());
+    assertEquals(bigDecimalRoom.getRoomArea(), fixedPointRoom.getRoomArea());
+  }
+}
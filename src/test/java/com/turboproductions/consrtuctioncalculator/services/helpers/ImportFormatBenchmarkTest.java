@@ -0,0 +1,107 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.dto.ExcelImportResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Imports the same materials from an xlsx and from a CSV file and prints the throughput of both
+ * parsers, run it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class ImportFormatBenchmarkTest {
+  private static final int ROWS = 200_000;
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 5;
+  private static final MaterialType[] TYPES = MaterialType.values();
+
+  private final MaterialValidator materialValidator = new MaterialValidator();
+  private final ExcelParser excelParser = new ExcelParser(materialValidator);
+  private final CsvParser csvParser = new CsvParser(materialValidator);
+
+  @Test
+  void importMaterialsFromEveryFormat() throws IOException {
+    MultipartFile xlsxFile =
+        new MockMultipartFile(
+            "file",
+            "materials.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            createWorkbook());
+    MultipartFile csvFile =
+        new MockMultipartFile("file", "materials.csv", "text/csv", createCsv());
+
+    measure("xlsx", xlsxFile, excelParser::parseExcelSheet);
+    measure("csv", csvFile, csvParser::parseCsv);
+  }
+
+  private static void measure(
+      String format, MultipartFile file, Function<MultipartFile, ExcelImportResult> parser) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      parser.apply(file);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      ExcelImportResult result = parser.apply(file);
+      assertNull(result.getErrorMessage());
+      assertEquals(ROWS, result.getRows().size());
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    System.out.printf(
+        "%-5s %,12.0f rows/s, %,d bytes%n", format, ROWS * MEASURED_RUNS / seconds, file.getSize());
+  }
+
+  private static byte[] createWorkbook() throws IOException {
+    // Shared strings like a workbook saved by Excel instead of inline strings.
+    SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, true);
+    try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+      Sheet sheet = workbook.createSheet("Materials");
+      for (int i = 0; i < ROWS; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0, CellType.STRING).setCellValue(nameOf(i));
+        row.createCell(1, CellType.STRING).setCellValue(TYPES[i % TYPES.length].name());
+        row.createCell(2, CellType.NUMERIC).setCellValue(priceOf(i));
+      }
+      workbook.write(output);
+      return output.toByteArray();
+    } finally {
+      workbook.dispose();
+      workbook.close();
+    }
+  }
+
+  private static byte[] createCsv() {
+    StringBuilder csv = new StringBuilder(ROWS * 32);
+    for (int i = 0; i < ROWS; i++) {
+      csv.append(nameOf(i))
+          .append(',')
+          .append(TYPES[i % TYPES.length].name())
+          .append(',')
+          .append(priceOf(i))
+          .append("\r\n");
+    }
+    return csv.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String nameOf(int row) {
+    return "Material " + row;
+  }
+
+  private static double priceOf(int row) {
+    return 1 + (row % 10_000) / 100.0;
+  }
+}
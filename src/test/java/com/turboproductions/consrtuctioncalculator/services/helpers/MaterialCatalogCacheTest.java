@@ -0,0 +1,125 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.dao.MaterialRepository;
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.User;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialCatalogCacheTest {
+  @Mock private MaterialRepository materialRepository;
+  @Spy private CalculatorProperties calculatorProperties = new CalculatorProperties();
+  @InjectMocks private MaterialCatalogCache materialCatalogCache;
+  private List<Material> mockMaterials;
+  private User mockUser;
+
+  @BeforeEach
+  void setUp() {
+    mockMaterials =
+        List.of(
+            new Material("Floor Tiles", MaterialType.FLOOR, 4.12),
+            new Material("Wooden Tiles", MaterialType.FLOOR, 6.8),
+            new Material("Wallpaper", MaterialType.WALL, 5.2),
+            new Material("Ceiling Tile", MaterialType.CEILING, 3.99));
+    mockUser = new User();
+  }
+
+  @Test
+  void getCatalogPartitionsAndIndexesMaterials() {
+    when(materialRepository.findAllByUserOrderByType(mockUser)).thenReturn(mockMaterials);
+
+    MaterialCatalog catalog = materialCatalogCache.getCatalog(mockUser);
+
+    assertEquals(4, catalog.getMaterials().size());
+    assertEquals(2, catalog.getMaterials(MaterialType.FLOOR).size());
+    assertEquals(1, catalog.getMaterials(MaterialType.WALL).size());
+    assertEquals(1, catalog.getMaterials(MaterialType.CEILING).size());
+    assertSame(mockMaterials.get(2), catalog.findByName("Wallpaper"));
+    assertNull(catalog.findByName("Red Paint"));
+    assertNull(catalog.findByName(null));
+  }
+
+  @Test
+  void getCatalogLoadsMaterialsOnce() {
+    when(materialRepository.findAllByUserOrderByType(mockUser)).thenReturn(mockMaterials);
+
+    MaterialCatalog first = materialCatalogCache.getCatalog(mockUser);
+    MaterialCatalog second = materialCatalogCache.getCatalog(mockUser);
+
+    assertSame(first, second);
+    verify(materialRepository, times(1)).findAllByUserOrderByType(mockUser);
+  }
+
+  @Test
+  void invalidateReloadsCatalogWithNewVersion() {
+    when(materialRepository.findAllByUserOrderByType(mockUser)).thenReturn(mockMaterials);
+
+    MaterialCatalog first = materialCatalogCache.getCatalog(mockUser);
+    materialCatalogCache.invalidate(mockUser);
+    MaterialCatalog second = materialCatalogCache.getCatalog(mockUser);
+
+    assertNotEquals(first.getVersion(), second.getVersion());
+    verify(materialRepository, times(2)).findAllByUserOrderByType(mockUser);
+  }
+
+  @Test
+  void getCatalogDoesNotCacheCatalogInvalidatedWhileLoading() {
+    when(materialRepository.findAllByUserOrderByType(mockUser))
+        .thenAnswer(
+            invocation -> {
+              // The user's materials change while the first catalog is read.
+              materialCatalogCache.invalidate(mockUser);
+              return mockMaterials;
+            })
+        .thenReturn(mockMaterials);
+
+    MaterialCatalog first = materialCatalogCache.getCatalog(mockUser);
+    MaterialCatalog second = materialCatalogCache.getCatalog(mockUser);
+
+    assertNotEquals(first.getVersion(), second.getVersion());
+    assertSame(second, materialCatalogCache.getCatalog(mockUser));
+    verify(materialRepository, times(2)).findAllByUserOrderByType(mockUser);
+  }
+
+  @Test
+  void invalidateInsideTransactionDropsCatalogAgainAfterCompletion() {
+    when(materialRepository.findAllByUserOrderByType(mockUser)).thenReturn(mockMaterials);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      materialCatalogCache.invalidate(mockUser);
+      // Another request loads the catalog before the transaction has committed.
+      MaterialCatalog beforeCommit = materialCatalogCache.getCatalog(mockUser);
+      assertSame(beforeCommit, materialCatalogCache.getCatalog(mockUser));
+
+      for (TransactionSynchronization synchronization :
+          TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+      }
+
+      assertNotEquals(
+          beforeCommit.getVersion(), materialCatalogCache.getCatalog(mockUser).getVersion());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+}
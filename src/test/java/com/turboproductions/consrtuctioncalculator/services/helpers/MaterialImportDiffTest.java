@@ -0,0 +1,87 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MaterialImportDiffTest {
+  private final Material paint = new Material("Red Paint", MaterialType.WALL, 10.99);
+  private final Material tiles = new Material("Ceramic Tiles", MaterialType.FLOOR, 6.50);
+
+  @Test
+  void ofSkipsUnchangedMaterials() {
+    MaterialImportDiff diff =
+        MaterialImportDiff.of(
+            List.of(paint, tiles),
+            List.of(
+                new ImportedRow("Red Paint", "WALL", 10.99),
+                new ImportedRow("Ceramic Tiles", "FLOOR", 6.50)),
+            true);
+
+    assertTrue(diff.isEmpty());
+    assertNull(diff.getDuplicateName());
+  }
+
+  @Test
+  void ofFindsInsertsAndChangedMaterials() {
+    MaterialImportDiff diff =
+        MaterialImportDiff.of(
+            List.of(paint, tiles),
+            List.of(
+                new ImportedRow("red paint", "WALL", 11.49),
+                new ImportedRow("Ceramic Tiles", "CEILING", 6.50),
+                new ImportedRow("Drywall", "WALL", 4.20)),
+            false);
+
+    assertEquals(1, diff.getInserts().size());
+    assertEquals("Drywall", diff.getInserts().get(0).getName());
+    assertEquals(MaterialType.WALL, diff.getInserts().get(0).getType());
+    assertEquals(2, diff.getUpdates().size());
+
+    MaterialImportDiff.Update paintUpdate = diff.getUpdates().get(0);
+    assertSame(paint, paintUpdate.material());
+    assertTrue(paintUpdate.nameChanged());
+    assertFalse(paintUpdate.typeChanged());
+    assertTrue(paintUpdate.priceChanged());
+    MaterialImportDiff.Update tilesUpdate = diff.getUpdates().get(1);
+    assertFalse(tilesUpdate.nameChanged());
+    assertTrue(tilesUpdate.typeChanged());
+    assertFalse(tilesUpdate.priceChanged());
+    assertTrue(diff.getDeletions().isEmpty());
+
+    paintUpdate.apply();
+    assertEquals("red paint", paint.getName());
+    assertEquals(11.49, paint.getPricePerSqMeter());
+  }
+
+  @Test
+  void ofDeletesMissingMaterialsOnlyWhenRequested() {
+    List<ImportedRow> rows = List.of(new ImportedRow("Red Paint", "WALL", 10.99));
+
+    assertTrue(MaterialImportDiff.of(List.of(paint, tiles), rows, false).isEmpty());
+    assertEquals(
+        List.of(tiles), MaterialImportDiff.of(List.of(paint, tiles), rows, true).getDeletions());
+  }
+
+  @Test
+  void ofRejectsDuplicateNames() {
+    MaterialImportDiff diff =
+        MaterialImportDiff.of(
+            List.of(paint),
+            List.of(
+                new ImportedRow("Drywall", "WALL", 4.20), new ImportedRow("DRYWALL", "WALL", 4.30)),
+            true);
+
+    assertEquals("DRYWALL", diff.getDuplicateName());
+    assertTrue(diff.isEmpty());
+  }
+}
@@ -9,6 +9,7 @@ import com.turboproductions.consrtuctioncalculator.models.MaterialType;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -27,6 +28,7 @@ class MaterialValidatorTest {
   private static final String INVALID_PRICE_ROW =
       "Value '%s' invalid for price of item '%s' at row '%s'.";
   private final MaterialValidator materialValidator = new MaterialValidator();
+  private final ExcelParser excelParser = new ExcelParser(materialValidator);
 
   @Test
   void validateMaterialPropertiesName() {
@@ -151,6 +153,16 @@ class MaterialValidatorTest {
         materialValidator.validateExcelDataTemplate(wrongFileType));
   }
 
+  @Test
+  void validateCsvFileType() {
+    byte[] content = "Tile,FLOOR,12.69\n".getBytes(StandardCharsets.UTF_8);
+    MultipartFile byExtension =
+        new MockMultipartFile("file", "materials.CSV", "application/vnd.ms-excel", content);
+    MultipartFile byContentType = new MockMultipartFile("file", "export", "text/csv", content);
+    assertNull(materialValidator.validateExcelDataTemplate(byExtension));
+    assertNull(materialValidator.validateExcelDataTemplate(byContentType));
+  }
+
   @Test
   void validateWrongColumnCount() throws IOException {
     Workbook workbook = new XSSFWorkbook();
@@ -166,7 +178,7 @@ class MaterialValidatorTest {
         String.format(
             "Problem with file '%s' in row number '%s'.",
             wrongColumnNumbers.getOriginalFilename(), 1),
-        materialValidator.validateExcelDataTemplate(wrongColumnNumbers));
+        validateRows(wrongColumnNumbers));
   }
 
   @Test
@@ -178,8 +190,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("FLOOR");
     row.createCell(2, CellType.NUMERIC).setCellValue(12.3);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -191,8 +202,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue((String) null);
     row.createCell(2, CellType.NUMERIC).setCellValue(12.3);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -204,8 +214,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("FLOOR");
     row.createCell(2, CellType.NUMERIC).setCellValue((String) null);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -217,8 +226,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("FLOOR");
     row.createCell(2, CellType.NUMERIC).setCellValue(12);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -230,8 +238,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("FLOOR");
     row.createCell(2, CellType.NUMERIC).setCellValue(12);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -243,8 +250,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("");
     row.createCell(2, CellType.NUMERIC).setCellValue(12);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -256,8 +262,7 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue(" ");
     row.createCell(2, CellType.NUMERIC).setCellValue(12);
     MultipartFile file = createTestFile(workbook);
-    assertEquals(
-        String.format(BAD_CELL_ERR_MSG, 1), materialValidator.validateExcelDataTemplate(file));
+    assertEquals(String.format(BAD_CELL_ERR_MSG, 1), validateRows(file));
   }
 
   @Test
@@ -270,8 +275,7 @@ class MaterialValidatorTest {
     row.createCell(2, CellType.NUMERIC).setCellValue(12);
     MultipartFile file = createTestFile(workbook);
     assertEquals(
-        String.format(INVALID_TYPE, row.getCell(1).getStringCellValue(), 1),
-        materialValidator.validateExcelDataTemplate(file));
+        String.format(INVALID_TYPE, row.getCell(1).getStringCellValue(), 1), validateRows(file));
   }
 
   @Test
@@ -289,7 +293,7 @@ class MaterialValidatorTest {
             row.getCell(2).getNumericCellValue(),
             row.getCell(0).getStringCellValue(),
             1),
-        materialValidator.validateExcelDataTemplate(file));
+        validateRows(file));
   }
 
   @Test
@@ -301,7 +305,12 @@ class MaterialValidatorTest {
     row.createCell(1, CellType.STRING).setCellValue("CEILING");
     row.createCell(2, CellType.NUMERIC).setCellValue(12.3);
     MultipartFile file = createTestFile(workbook);
-    assertNull(materialValidator.validateExcelDataTemplate(file));
+    assertNull(validateRows(file));
+  }
+
+  // The rows are validated while the parser reads them.
+  private String validateRows(MultipartFile file) {
+    return excelParser.parseExcelSheet(file).getErrorMessage();
   }
 
   public static MultipartFile createTestFile(Workbook workbook) throws IOException {
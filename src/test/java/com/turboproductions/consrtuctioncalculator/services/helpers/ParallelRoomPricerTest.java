@@ -0,0 +1,102 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.turboproductions.consrtuctioncalculator.config.CalculatorProperties;
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelRoomPricerTest {
+  private final BigDecimalPricingEngine pricingEngine = new BigDecimalPricingEngine();
+  private final ParallelRoomPricer parallelRoomPricer =
+      new ParallelRoomPricer(pricingEngine, createProperties());
+
+  @AfterEach
+  void tearDown() {
+    parallelRoomPricer.shutdown();
+  }
+
+  @Test
+  void priceRoomsMatchesSequentialPricing() {
+    List<RoomCalculation> parallelRooms = createRooms(10_000, new Random(2201));
+    List<RoomCalculation> sequentialRooms = createRooms(10_000, new Random(2201));
+
+    parallelRoomPricer.priceRooms(
+        parallelRooms,
+        slice -> slice.forEach(room -> pricingEngine.calculateRoomPrices(room, 5.2, 4.12, 3.99)));
+    sequentialRooms.forEach(room -> pricingEngine.calculateRoomPrices(room, 5.2, 4.12, 3.99));
+
+    for (int i = 0; i < parallelRooms.size(); i++) {
+      assertEquals(sequentialRooms.get(i).getRoomPrice(), parallelRooms.get(i).getRoomPrice());
+      assertEquals(sequentialRooms.get(i).getRoomArea(), parallelRooms.get(i).getRoomArea());
+      assertEquals(
+          sequentialRooms.get(i).getWallMaterialPrice(),
+          parallelRooms.get(i).getWallMaterialPrice());
+    }
+  }
+
+  @Test
+  void calculateConstructionTotalsMatchesPricingEngine() {
+    for (int roomCount : new int[] {1, ParallelRoomPricer.SLICE_SIZE + 1, 25_000}) {
+      List<RoomCalculation> rooms = createRooms(roomCount, new Random(roomCount));
+      rooms.forEach(room -> pricingEngine.calculateRoomPrices(room, 5.2, 4.12, 3.99));
+      ConstructionCalculation parallel = new ConstructionCalculation();
+      ConstructionCalculation sequential = new ConstructionCalculation();
+
+      parallelRoomPricer.calculateConstructionTotals(parallel, rooms);
+      pricingEngine.calculateConstructionTotals(sequential, rooms);
+
+      assertEquals(sequential.getCalculationPrice(), parallel.getCalculationPrice());
+      assertEquals(sequential.getSquareMeters(), parallel.getSquareMeters());
+    }
+  }
+
+  @Test
+  void priceRoomsRethrowsPricingErrors() {
+    List<RoomCalculation> rooms = createRooms(2_000, new Random(7));
+    RoomCalculation unknownRoom = rooms.get(1_500);
+
+    IllegalStateException exception =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                parallelRoomPricer.priceRooms(
+                    rooms,
+                    slice -> {
+                      if (slice.contains(unknownRoom)) {
+                        throw new IllegalStateException("Unknown material");
+                      }
+                    }));
+
+    assertEquals("Unknown material", exception.getMessage());
+  }
+
+  private static List<RoomCalculation> createRooms(int count, Random random) {
+    List<RoomCalculation> rooms = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      rooms.add(
+          new RoomCalculation(
+              null,
+              "Floor Tiles",
+              random.nextInt(10_000) / 100.0,
+              "Wallpaper",
+              random.nextInt(30_000) / 100.0,
+              "Ceiling Tile",
+              random.nextInt(10_000) / 100.0));
+    }
+    return rooms;
+  }
+
+  private static CalculatorProperties createProperties() {
+    CalculatorProperties properties = new CalculatorProperties();
+    properties.getLargeProjects().setParallelism(4);
+    return properties;
+  }
+}
@@ -0,0 +1,69 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import com.turboproductions.consrtuctioncalculator.models.Material;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prices the same batch of rooms with every {@link PricingEngine} and prints the surfaces priced
+ * per second, run it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class PricingEngineBenchmarkTest {
+  private static final int ROOMS = 1_000_000;
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 5;
+
+  @Test
+  void priceRoomsWithEveryEngine() {
+    List<RoomCalculation> rooms = createRooms();
+
+    measure("big-decimal", new BigDecimalPricingEngine(), rooms);
+    measure("fixed-point", new FixedPointPricingEngine(), rooms);
+    measure("columnar", new ColumnarPricingEngine(), rooms);
+  }
+
+  private static void measure(String name, PricingEngine engine, List<RoomCalculation> rooms) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      engine.calculateRoomPrices(rooms);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      engine.calculateRoomPrices(rooms);
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    System.out.printf("%-12s %,14.0f surfaces/s%n", name, 3L * ROOMS * MEASURED_RUNS / seconds);
+  }
+
+  private static List<RoomCalculation> createRooms() {
+    Random random = new Random(2302);
+    List<Material> materials = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      materials.add(
+          new Material("Material " + i, MaterialType.WALL, random.nextInt(10_000) / 100.0));
+    }
+    List<RoomCalculation> rooms = new ArrayList<>(ROOMS);
+    for (int i = 0; i < ROOMS; i++) {
+      RoomCalculation room =
+          new RoomCalculation(
+              null,
+              "Floor",
+              random.nextInt(10_000) / 100.0,
+              "Wall",
+              random.nextInt(30_000) / 100.0,
+              "Ceiling",
+              random.nextInt(10_000) / 100.0);
+      room.setFloorMaterialRef(materials.get(random.nextInt(materials.size())));
+      room.setWallMaterialRef(materials.get(random.nextInt(materials.size())));
+      room.setCeilingMaterialRef(materials.get(random.nextInt(materials.size())));
+      rooms.add(room);
+    }
+    return rooms;
+  }
+}
@@ -0,0 +1,81 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.turboproductions.consrtuctioncalculator.models.ConstructionCalculation;
+import com.turboproductions.consrtuctioncalculator.models.MaterialType;
+import com.turboproductions.consrtuctioncalculator.models.RoomCalculation;
+import com.turboproductions.consrtuctioncalculator.models.dto.ImportedRow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RoomSurfacesTest {
+  private final BigDecimalPricingEngine pricingEngine = new BigDecimalPricingEngine();
+
+  @Test
+  void priceMatchesPricingEveryRoom() {
+    Random random = new Random(2501);
+    List<ImportedRow> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new ImportedRow("Floor " + i, "FLOOR", randomPrice(random)));
+      rows.add(new ImportedRow("Wall " + i, "WALL", randomPrice(random)));
+      rows.add(new ImportedRow("Ceiling " + i, "CEILING", randomPrice(random)));
+    }
+    SupplierCatalog catalog = SupplierCatalog.of("Supplier", rows);
+    List<RoomCalculation> rooms = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      // Few distinct areas, like rooms built from a handful of plans.
+      RoomCalculation room =
+          new RoomCalculation(
+              null,
+              "floor " + random.nextInt(10),
+              random.nextInt(20) * 2.5,
+              "WALL " + random.nextInt(10),
+              random.nextInt(20) * 7.25 + random.nextInt(3) / 100.0,
+              "Ceiling " + random.nextInt(10),
+              random.nextInt(20) * 2.5);
+      pricingEngine.calculateRoomPrices(
+          room,
+          catalog.getPrice(room.getWallMaterial(), MaterialType.WALL),
+          catalog.getPrice(room.getFloorMaterial(), MaterialType.FLOOR),
+          catalog.getPrice(room.getCeilingMaterial(), MaterialType.CEILING));
+      rooms.add(room);
+    }
+    ConstructionCalculation calculation = new ConstructionCalculation();
+    pricingEngine.calculateConstructionTotals(calculation, rooms);
+
+    RoomSurfaces surfaces = RoomSurfaces.of(rooms);
+    double[] prices = surfaces.getPrices(catalog);
+
+    assertTrue(surfaces.getMissingMaterials(prices).isEmpty());
+    assertEquals(calculation.getCalculationPrice(), surfaces.price(prices, pricingEngine));
+  }
+
+  @Test
+  void getMissingMaterialsListsMaterialsOfOtherTypesOnce() {
+    SupplierCatalog catalog =
+        SupplierCatalog.of(
+            "Supplier",
+            List.of(
+                new ImportedRow("Floor Tiles", "FLOOR", 4.12),
+                new ImportedRow("Paint", "WALL", 0.46)));
+    RoomSurfaces surfaces =
+        RoomSurfaces.of(
+            List.of(
+                new RoomCalculation(null, "Floor Tiles", 10, "Paint", 20, "Paint", 10),
+                new RoomCalculation(null, "Floor Tiles", 10, "Wallpaper", 20, "Paint", 10),
+                // A surface without an area does not need a price.
+                new RoomCalculation(null, "Parquet", 0, "Paint", 20, "Paint", 10)));
+
+    assertEquals(
+        List.of("Paint", "Wallpaper"), surfaces.getMissingMaterials(surfaces.getPrices(catalog)));
+  }
+
+  private static double randomPrice(Random random) {
+    return (1 + random.nextInt(10_000)) / 100.0;
+  }
+}
@@ -0,0 +1,53 @@
+/* Construction Calculator - Alexander Stoyanov! 2024 */
+package com.turboproductions.consrtuctioncalculator.services.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+class SpooledUploadTest {
+  @TempDir private Path spoolDirectory;
+
+  @Test
+  void ofCopiesUploadUntilClosed() throws IOException {
+    byte[] content = "Red Paint,WALL,11.49\r\n".getBytes(StandardCharsets.UTF_8);
+    SpooledUpload upload =
+        SpooledUpload.of(
+            new MockMultipartFile("excelFile", "materials.csv", "text/csv", content),
+            spoolDirectory.resolve("uploads"));
+
+    assertEquals("excelFile", upload.getName());
+    assertEquals("materials.csv", upload.getOriginalFilename());
+    assertEquals("text/csv", upload.getContentType());
+    assertEquals(content.length, upload.getSize());
+    assertFalse(upload.isEmpty());
+    assertEquals(spoolDirectory.resolve("uploads"), upload.getFile().getParent());
+    try (InputStream inputStream = upload.getInputStream()) {
+      assertArrayEquals(content, inputStream.readAllBytes());
+    }
+
+    upload.close();
+    assertFalse(Files.exists(upload.getFile()));
+  }
+
+  @Test
+  void ofSpoolsEmptyUploads() throws IOException {
+    try (SpooledUpload upload =
+        SpooledUpload.of(
+            new MockMultipartFile("excelFile", "empty.csv", "text/csv", new byte[0]),
+            spoolDirectory)) {
+      assertTrue(upload.isEmpty());
+      assertEquals(0, upload.getBytes().length);
+    }
+  }
+}